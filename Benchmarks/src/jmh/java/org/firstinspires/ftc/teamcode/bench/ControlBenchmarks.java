@@ -0,0 +1,143 @@
+package org.firstinspires.ftc.teamcode.bench;
+
+import org.firstinspires.ftc.teamcode.control.BearingAimController;
+import org.firstinspires.ftc.teamcode.control.ControlMath;
+import org.firstinspires.ftc.teamcode.control.MecanumMixer;
+import org.firstinspires.ftc.teamcode.control.MonotoneCubicInterpolator;
+import org.firstinspires.ftc.teamcode.control.PIDFController;
+import org.firstinspires.ftc.teamcode.control.ShotOrderPlanner;
+import org.firstinspires.ftc.teamcode.control.ShotSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-loop math from the OpModes. Inputs cycle through a small precomputed table so the JIT
+ * can't constant-fold them. Run with -prof gc (the jmh task does) to get bytes/op; every
+ * benchmark here should report ~0.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ControlBenchmarks {
+    private static final int N = 1024; // power of two for cheap wrap-around
+
+    private final double[] xs = new double[N];
+    private final double[] ys = new double[N];
+    private final double[] rxs = new double[N];
+    private final double[] bearings = new double[N];
+    private final double[] pixels = new double[N];
+    private final double[] wheelPowers = new double[4];
+    private final double[][] pathPoints = new double[2][2];
+    private final BearingAimController aim = new BearingAimController();
+    private final MonotoneCubicInterpolator shotRpm = new MonotoneCubicInterpolator();
+    private final MonotoneCubicInterpolator shotTof = new MonotoneCubicInterpolator();
+    private final PIDFController pidf = new PIDFController(0.004, 0.001, 0.0001, 0.0002);
+    private final ShotSolver shotSolver = new ShotSolver(shotTof::evaluate);
+    private final ShotOrderPlanner shotPlanner = new ShotOrderPlanner(3);
+    private final int[] slotColors = {2, 2, 1};       // PURPLE, PURPLE, BLUE ordinals
+    private final int[] shotPattern = {2, 1, 2};
+    private final int[] presetTicks = {0, 192, 94};   // IndexerSubsystem POSITION_1..3 defaults
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        java.util.Random rng = new java.util.Random(42);
+        for (int k = 0; k < N; k++) {
+            xs[k] = rng.nextDouble() * 2.0 - 1.0;
+            ys[k] = rng.nextDouble() * 2.0 - 1.0;
+            rxs[k] = rng.nextDouble() * 2.0 - 1.0;
+            bearings[k] = rng.nextDouble() * 40.0 - 20.0;
+            pixels[k] = rng.nextDouble() * 640.0;
+        }
+        aim.reset(0.0);
+        pidf.setOutputLimits(-12.0, 12.0);
+        pidf.integralLimit = 500.0;
+        pidf.derivativeFilterAlpha = 0.5;
+        pidf.maxOutputRatePerSec = 100.0;
+        shotRpm.fit(new double[] {24, 48, 72, 96, 120, 144},
+                new double[] {3000, 3400, 3800, 4200, 4600, 5000}, 6);
+        shotTof.fit(new double[] {24, 48, 72, 96, 120, 144},
+                new double[] {0.45, 0.55, 0.65, 0.75, 0.85, 0.95}, 6);
+    }
+
+    private int next() {
+        i = (i + 1) & (N - 1);
+        return i;
+    }
+
+    /** RawMecanumDrive.update() mixing. */
+    @Benchmark
+    public void mecanumMix(Blackhole bh) {
+        int k = next();
+        MecanumMixer.mix(xs[k], ys[k], rxs[k], wheelPowers);
+        bh.consume(wheelPowers);
+    }
+
+    /** AprilTagWebcamExample turret aim step (EMA, PID + kS, clamp, slew). */
+    @Benchmark
+    public double bearingAim() {
+        int k = next();
+        return aim.update(bearings[k], bearings[(k + 7) & (N - 1)], 0.02);
+    }
+
+    /** AprilTagWebcam.estimateBearingFromPixels. */
+    @Benchmark
+    public double bearingFromPixels() {
+        return ControlMath.bearingFromPixels(pixels[next()], 640, 70.0);
+    }
+
+    /** PanelsFieldUtil.sanitize on a two-point segment (half NaN). */
+    @Benchmark
+    public void sanitizePoints(Blackhole bh) {
+        int k = next();
+        pathPoints[0][0] = (k & 1) == 0 ? Double.NaN : xs[k];
+        pathPoints[0][1] = ys[k];
+        pathPoints[1][0] = rxs[k];
+        pathPoints[1][1] = (k & 2) == 0 ? Double.NaN : bearings[k];
+        ControlMath.zeroNaN(pathPoints);
+        bh.consume(pathPoints);
+    }
+
+    /** ShotTable lookup (binary search + Hermite cubic), range 0..160 in. */
+    @Benchmark
+    public double shotTableLookup() {
+        return shotRpm.evaluate(pixels[next()] * 0.25);
+    }
+
+    /** TeleOp shoot-on-the-move lead: robot at random field spots moving up to 60 in/s. */
+    @Benchmark
+    public double shotSolve() {
+        int k = next();
+        shotSolver.solve(72.0 + 48.0 * xs[k], 72.0 + 48.0 * ys[k], 60.0 * rxs[k], 3.0 * bearings[k], 132.0, 136.0);
+        return shotSolver.getRange();
+    }
+
+    /** Flywheel-style PIDF step with every option on (clamp, anti-windup, D filter, slew). */
+    @Benchmark
+    public double pidfStep() {
+        int k = next();
+        return pidf.calculate(4000.0 + 100.0 * xs[k], 4200.0, 20_000_000L);
+    }
+
+    /** Shot sequence plan: three slots, three shots, shortest-path carousel from a random start. */
+    @Benchmark
+    public int shotOrderPlan() {
+        int k = next();
+        shotPlanner.plan(slotColors, presetTicks, 288.0 * xs[k], shotPattern, 3, 288.0);
+        return shotPlanner.getSlot(0);
+    }
+}
@@ -1,10 +1,18 @@
 package org.firstinspires.ftc.teamcode;
 
+import com.pedropathing.follower.Follower;
+import com.pedropathing.geometry.Pose;
 import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.util.ElapsedTime;
 
+import org.firstinspires.ftc.teamcode.control.BearingAimController;
+import org.firstinspires.ftc.teamcode.control.ControlMath;
+import org.firstinspires.ftc.teamcode.hardware.HardwareCache;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.pedroPathing.Constants;
 import org.firstinspires.ftc.teamcode.subsystems.AprilTagWebcam;
+import org.firstinspires.ftc.teamcode.subsystems.TurretAimer;
 import org.firstinspires.ftc.teamcode.subsystems.TurretSubsystem;
 import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
 
@@ -14,6 +22,8 @@ public class AprilTagWebcamExample extends OpMode {
     // Subsystems
     private final AprilTagWebcam aprilTagWebcam = new AprilTagWebcam();
     private TurretSubsystem turret;
+    private HardwareCache hardwareCache;
+    private VoltageService battery;
 
     // Hardware names
     private static final String TURRET_MOTOR = "turret";
@@ -42,6 +52,19 @@ public class AprilTagWebcamExample extends OpMode {
     // Flip if turret rotates the wrong direction
     private static final double MOTOR_SIGN = 1.0;
 
+    // How the turret is driven:
+    //  BEARING_PD      - the bearing PD above drives power directly; stops when the tag is lost
+    //  CAMERA_PROFILED - TurretSubsystem's profiled position control, retargeted from the bearing
+    //                    (projected from the frame time to now with the recorded turret/pose history)
+    //  ODOMETRY        - aim from the Pedro pose every loop; detections only correct the offset
+    private enum AimMode { BEARING_PD, CAMERA_PROFILED, ODOMETRY }
+    private static final AimMode AIM_MODE = AimMode.ODOMETRY;
+
+    // Odometry aim: start pose and red goal in Pedro field coordinates (inches). Tune both.
+    private static final Pose START_POSE = new Pose(72, 8, Math.toRadians(90));
+    private static final double GOAL_X = 132.0;
+    private static final double GOAL_Y = 136.0;
+
     // Tag dropout handling
     private static final double TAG_TIMEOUT_SEC = 0.25;
 
@@ -52,12 +75,10 @@ public class AprilTagWebcamExample extends OpMode {
     // ===== State =====
     private final ElapsedTime loopTimer = new ElapsedTime();
     private final ElapsedTime tagTimer = new ElapsedTime();
-
-    private double bearingFiltDeg = 0.0;
-    private double lastTurretAngleDeg = 0.0;
-    private double integral = 0.0;
-
-    private double lastCmdPower = 0.0;
+    private final BearingAimController aim = new BearingAimController();
+    private double profiledBearingDeg = 0.0;
+    private Follower follower;
+    private TurretAimer aimer;
 
     @Override
     public void init() {
@@ -66,6 +87,17 @@ public class AprilTagWebcamExample extends OpMode {
 
         turret = new TurretSubsystem(hardwareMap, TURRET_MOTOR, TURRET_ANGLE_SERVO);
         turret.setMaxPower(MAX_POWER);
+        hardwareCache = new HardwareCache(hardwareMap);
+        battery = new VoltageService(hardwareMap);
+        turret.setVoltageService(battery);
+
+        if (AIM_MODE != AimMode.BEARING_PD) {
+            follower = Constants.createFollower(hardwareMap);
+            follower.setStartingPose(START_POSE);
+            aimer = new TurretAimer(turret, GOAL_X, GOAL_Y);
+            aimer.setBearingSign(MOTOR_SIGN);
+            aimer.setCamera(IMAGE_WIDTH_PX, CAMERA_HFOV_DEG);
+        }
 
         // Soft-zero turret encoder at init position.
         // Best practice: physically point turret forward during init, then press INIT.
@@ -73,7 +105,15 @@ public class AprilTagWebcamExample extends OpMode {
 
         loopTimer.reset();
         tagTimer.reset();
-        lastTurretAngleDeg = turret.getTurretAngleDeg();
+        aim.kP = kP;
+        aim.kI = kI;
+        aim.kD = kD;
+        aim.kS = kS;
+        aim.deadbandDeg = DEADBAND_DEG;
+        aim.maxPower = MAX_POWER;
+        aim.bearingFilterAlpha = BEARING_FILTER_ALPHA;
+        aim.maxPowerSlewPerSec = MAX_POWER_SLEW_PER_SEC;
+        aim.reset(turret.getTurretAngleDeg());
 
         telemetry.addLine("Locked to AprilTag ID 21. Camera is on turret -> aiming drives bearing to 0.");
         telemetry.addLine("If turret turns wrong way, flip MOTOR_SIGN.");
@@ -82,6 +122,9 @@ public class AprilTagWebcamExample extends OpMode {
 
     @Override
     public void loop() {
+        hardwareCache.clear();
+        battery.update();
+
         double dt = loopTimer.seconds();
         loopTimer.reset();
         if (dt <= 0.0) dt = 0.02;
@@ -93,7 +136,25 @@ public class AprilTagWebcamExample extends OpMode {
 
         double cmdPower = 0.0;
 
-        if (tag != null) {
+        if (AIM_MODE == AimMode.ODOMETRY) {
+            // Full loop rate from the pose; the tag (when seen) only corrects the offset
+            follower.update();
+            aimer.update(follower.getPose(), tag);
+            if (tag != null) tagTimer.reset();
+        } else if (AIM_MODE == AimMode.CAMERA_PROFILED) {
+            follower.update();
+            aimer.record(follower.getPose());
+            if (tag != null) {
+                tagTimer.reset();
+                // Bearing as it would read now, not when the frame was captured
+                double angle = turret.getTurretAngleDeg();
+                double bearingNow = MOTOR_SIGN * (angle - aimer.projectTargetDeg(tag));
+                profiledBearingDeg = ControlMath.ema(profiledBearingDeg, bearingNow, BEARING_FILTER_ALPHA);
+                if (Math.abs(profiledBearingDeg) >= DEADBAND_DEG || !turret.isPositionMode()) {
+                    turret.setTargetAngleDeg(angle - MOTOR_SIGN * profiledBearingDeg);
+                }
+            }
+        } else if (tag != null) {
             tagTimer.reset();
 
             // Bearing measurement (deg)
@@ -107,64 +168,39 @@ public class AprilTagWebcamExample extends OpMode {
                 );
             }
 
-            // Low-pass filter bearing to reduce jitter
-            bearingFiltDeg = BEARING_FILTER_ALPHA * bearingFiltDeg
-                    + (1.0 - BEARING_FILTER_ALPHA) * bearingDeg;
-
-            // Error = desired(0) - measured(bearing)
-            double errorDeg = -bearingFiltDeg;
-
-            boolean inDeadband = Math.abs(errorDeg) < DEADBAND_DEG;
-            if (inDeadband) errorDeg = 0.0;
-
-            // Derivative on measurement (turret angular velocity from encoder)
-            double turretAngleDeg = turret.getTurretAngleDeg();
-            double turretVelDegPerSec = (turretAngleDeg - lastTurretAngleDeg) / dt;
-            lastTurretAngleDeg = turretAngleDeg;
-
-            // Integral (optional)
-            if (kI != 0.0 && !inDeadband) {
-                integral += errorDeg * dt;
-                integral = clip(integral, -50.0, 50.0);
-            } else if (inDeadband) {
-                integral *= 0.8;
-            }
-
-            // PD/PID output
-            double u = (kP * errorDeg) + (kI * integral) - (kD * turretVelDegPerSec);
-
-            // Static friction compensation
-            if (Math.abs(u) > 1e-4) {
-                u += Math.signum(u) * kS;
-            }
-
-            // Clamp
-            u = clip(u, -MAX_POWER, MAX_POWER);
-
-            // Slew-rate limit
-            u = slewLimit(u, lastCmdPower, MAX_POWER_SLEW_PER_SEC, dt);
-            lastCmdPower = u;
-
+            // Filter, PID + kS, clamp and slew (see BearingAimController)
+            double u = aim.update(bearingDeg, turret.getTurretAngleDeg(), dt);
             cmdPower = MOTOR_SIGN * u;
 
         } else {
             // Tag not visible: stop after timeout
             if (tagTimer.seconds() > TAG_TIMEOUT_SEC) {
                 cmdPower = 0.0;
-                integral *= 0.9;
+                aim.onTargetLost();
             }
         }
 
-        turret.setTurretPower(cmdPower);
+        if (AIM_MODE == AimMode.BEARING_PD) {
+            turret.setTurretPower(cmdPower);
+        }
+        // Profiled modes hold/track their goal while the tag is out of view
         turret.update();
 
         // Telemetry
         telemetry.addData("TargetTagID", TARGET_TAG_ID);
         telemetry.addData("TagVisible", tag != null);
-        telemetry.addData("BearingFilt(deg)", bearingFiltDeg);
+        telemetry.addData("AimMode", AIM_MODE);
+        if (AIM_MODE == AimMode.BEARING_PD) {
+            telemetry.addData("BearingFilt(deg)", aim.getFilteredBearingDeg());
+        } else {
+            if (AIM_MODE == AimMode.CAMERA_PROFILED) telemetry.addData("BearingFilt(deg)", profiledBearingDeg);
+            else telemetry.addData("OdoOffset(deg)", aimer.getOffsetDeg());
+            telemetry.addData("TargetAngle(deg)", turret.getTargetAngleDeg());
+        }
         telemetry.addData("TurretAngle(deg)", turret.getTurretAngleDeg());
         telemetry.addData("CmdPower", cmdPower);
         telemetry.addData("TagAge(s)", tagTimer.seconds());
+        telemetry.addData("FrameLatency(ms)", TurretAimer.getLatencyMs(tag));
         if (tag != null) aprilTagWebcam.displayDetectionTelemetry(tag);
         telemetry.addData("TurretStatus", turret.getStatus());
         telemetry.update();
@@ -175,14 +211,4 @@ public class AprilTagWebcamExample extends OpMode {
         super.stop();
         aprilTagWebcam.stop();
     }
-
-    private static double clip(double v, double lo, double hi) {
-        return Math.max(lo, Math.min(hi, v));
-    }
-
-    private static double slewLimit(double target, double current, double maxDeltaPerSec, double dt) {
-        double maxDelta = maxDeltaPerSec * dt;
-        double delta = clip(target - current, -maxDelta, maxDelta);
-        return current + delta;
-    }
 }
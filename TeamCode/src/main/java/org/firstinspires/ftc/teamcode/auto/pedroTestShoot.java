@@ -14,6 +14,8 @@ import org.firstinspires.ftc.teamcode.pedroPathing.Constants;
 import org.firstinspires.ftc.teamcode.pedroPathing.AutoPathStateMachine;
 import org.firstinspires.ftc.teamcode.pedroPathing.TelemetryUtil;
 import org.firstinspires.ftc.teamcode.pedroPathing.PanelsFieldUtil;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler.Phase;
 
 @Autonomous(name = "pedroTestShoot", group = "Autonomous")
 @Configurable // Panels
@@ -25,6 +27,8 @@ public class pedroTestShoot extends OpMode {
     private Paths paths; // Paths defined in the Paths class
     private AutoPathStateMachine auto; // Reusable path state machine
     private boolean autoStopped; // Whether we've switched to teleop stop mode
+    private String lastEvent = "none"; // Last path event fired (stand-ins for mechanism actions)
+    private final LoopProfiler profiler = new LoopProfiler(); // Per-phase loop timing
 
     @Override
     public void init() {
@@ -34,10 +38,15 @@ public class pedroTestShoot extends OpMode {
         follower.setStartingPose(new Pose(72, 8, Math.toRadians(90)));
 
         paths = new Paths(follower); // Build paths
+        // Path events run while driving; replace the stand-ins with mechanism actions
         auto = new AutoPathStateMachine(follower)
             .add(paths.Path1)
+            .atT(0.5, () -> lastEvent = "Path1 halfway: deploy intake")
             .add(paths.Path2)
-            .add(paths.Path3);
+            .atTime(0.0, () -> lastEvent = "Path2 start: spin up flywheel")
+            .atDistanceRemaining(24.0, () -> lastEvent = "Path2 24in left: rotate indexer")
+            .add(paths.Path3)
+            .onEnterRegion(30.0, 108.0, 60.0, 124.0, () -> lastEvent = "Path3 in shooting zone");
 
         panelsTelemetry.debug("Status", "Initialized");
         panelsTelemetry.update(telemetry);
@@ -47,9 +56,16 @@ public class pedroTestShoot extends OpMode {
         autoStopped = false;
     }
 
+    @Override
+    public void start() {
+        profiler.reset();
+    }
+
     @Override
     public void loop() {
+        profiler.beginLoop();
         follower.update(); // Update Pedro Pathing
+        profiler.lap(Phase.DRIVE);
         if (auto.getState() == AutoPathStateMachine.State.IDLE) {
             auto.start();
         }
@@ -69,11 +85,15 @@ public class pedroTestShoot extends OpMode {
         if (autoStopped) {
             follower.setTeleOpDrive(0, 0, 0, true);
         }
+        profiler.lap(Phase.AUTO);
 
         // Log values to Panels and Driver Station
         panelsTelemetry.debug("Path State", pathState);
+        panelsTelemetry.debug("Path Event", lastEvent);
         TelemetryUtil.emitPose(panelsTelemetry, follower);
+        profiler.publish(panelsTelemetry);
         panelsTelemetry.update(telemetry);
+        profiler.lap(Phase.TELEMETRY);
 
         // Draw planned paths and current robot pose on Panels Field
         for (PathChain chain : auto.getPaths()) {
@@ -81,6 +101,8 @@ public class pedroTestShoot extends OpMode {
         }
         PanelsFieldUtil.drawRobot(follower);
         PanelsFieldUtil.update();
+        profiler.lap(Phase.FIELD);
+        profiler.endLoop();
     }
 
     public static class Paths {
@@ -0,0 +1,113 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Base class for non-blocking robot actions run by a {@link CommandScheduler}.
+ *
+ * Lifecycle: initialize() once when scheduled, then execute() + isFinished() every tick,
+ * then end(interrupted) once. Commands are reusable: build them at init and schedule the same
+ * instance as often as needed, so nothing is allocated while the OpMode loops.
+ *
+ * A command added to a group belongs to that group: it can't join a second group or be
+ * scheduled or cancelled on its own (both throw IllegalArgumentException); schedule the group.
+ * Build a separate instance for each place the same action is needed.
+ */
+public abstract class Command {
+    private static final Subsystem[] NO_REQUIREMENTS = new Subsystem[0];
+
+    private Subsystem[] requirements = NO_REQUIREMENTS;
+    boolean scheduled = false; // maintained by CommandScheduler, or by the owning group
+    boolean composed = false; // owned by a group
+
+    /** Declare the subsystems this command needs exclusive use of. */
+    public Command requires(Subsystem... subsystems) {
+        requirements = subsystems == null ? NO_REQUIREMENTS : subsystems;
+        return this;
+    }
+
+    public Subsystem[] getRequirements() {
+        return requirements;
+    }
+
+    /** Whether any requirement is shared with {@code other}. */
+    public boolean conflictsWith(Command other) {
+        Subsystem[] theirs = other.requirements;
+        for (int i = 0; i < requirements.length; i++) {
+            for (int j = 0; j < theirs.length; j++) {
+                if (requirements[i] == theirs[j]) return true;
+            }
+        }
+        return false;
+    }
+
+    /** True while running: scheduled directly, or started by a group that is running. */
+    public boolean isScheduled() {
+        return scheduled;
+    }
+
+    /** Whether this command belongs to a group. */
+    public boolean isComposed() {
+        return composed;
+    }
+
+    public void initialize() {}
+
+    public void execute() {}
+
+    public boolean isFinished() {
+        return false;
+    }
+
+    /** Called once; interrupted = cancelled or replaced before isFinished() returned true. */
+    public void end(boolean interrupted) {}
+
+    /** Claim {@code commands} for a group. Throws if one is already in a group or running. */
+    static void compose(Command[] commands) {
+        for (Command c : commands) {
+            if (c.composed || c.scheduled) {
+                throw new IllegalArgumentException(c.getClass().getSimpleName()
+                        + (c.composed ? " already belongs to a group" : " is scheduled")
+                        + "; build a new instance");
+            }
+            c.composed = true;
+        }
+    }
+
+    /** Start a group's child: marks it running, then initializes it. */
+    static void startChild(Command child) {
+        child.scheduled = true;
+        child.initialize();
+    }
+
+    /** End a group's child. */
+    static void endChild(Command child, boolean interrupted) {
+        child.scheduled = false;
+        child.end(interrupted);
+    }
+
+    /** Distinct requirements of all {@code commands}, for command groups. */
+    static Subsystem[] unionRequirements(Command[] commands) {
+        int count = 0;
+        Subsystem[] all = new Subsystem[16];
+        for (Command c : commands) {
+            for (Subsystem s : c.requirements) {
+                boolean seen = false;
+                for (int i = 0; i < count; i++) {
+                    if (all[i] == s) {
+                        seen = true;
+                        break;
+                    }
+                }
+                if (seen) continue;
+                if (count == all.length) {
+                    Subsystem[] grown = new Subsystem[all.length * 2];
+                    System.arraycopy(all, 0, grown, 0, count);
+                    all = grown;
+                }
+                all[count++] = s;
+            }
+        }
+        Subsystem[] result = new Subsystem[count];
+        System.arraycopy(all, 0, result, 0, count);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Runs scheduled {@link Command}s, one {@link #run()} per OpMode loop.
+ *
+ * Per-tick cost is O(active commands) with no allocation: active commands live in a
+ * preallocated array. Requirement conflicts are only checked in {@link #schedule(Command)}.
+ * One scheduler per OpMode; create it in init().
+ */
+public class CommandScheduler {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Command[] active = new Command[DEFAULT_CAPACITY];
+    private int count = 0; // used slots; cancelled commands leave null holes until compact()
+    private boolean running = false; // inside run(): slots must not move under its loop index
+
+    /**
+     * Start a command. No-op if it is already scheduled. Any running command that shares a
+     * requirement is interrupted first. A command that belongs to a group is rejected.
+     */
+    public void schedule(Command command) {
+        if (command == null) return;
+        rejectComposed(command);
+        if (command.scheduled) return;
+
+        for (int i = 0; i < count; i++) {
+            Command other = active[i];
+            if (other != null && other.conflictsWith(command)) {
+                cancel(other);
+            }
+        }
+
+        if (count == active.length) {
+            // Compacting during run() would shift commands under its loop index; grow instead
+            if (!running) compact();
+            if (count == active.length) {
+                Command[] grown = new Command[active.length * 2];
+                System.arraycopy(active, 0, grown, 0, count);
+                active = grown;
+            }
+        }
+        active[count++] = command;
+        command.scheduled = true;
+        command.initialize();
+    }
+
+    /** Execute every active command once and retire the finished ones. Call once per loop. */
+    public void run() {
+        // Commands scheduled by other commands this tick are appended and run this tick too
+        running = true;
+        try {
+            for (int i = 0; i < count; i++) {
+                Command command = active[i];
+                if (command == null) continue;
+                command.execute();
+                if (command.scheduled && command.isFinished()) {
+                    active[i] = null;
+                    command.scheduled = false;
+                    command.end(false);
+                }
+            }
+        } finally {
+            running = false;
+        }
+        compact();
+    }
+
+    /** Interrupt a command if it is scheduled. A command that belongs to a group is rejected. */
+    public void cancel(Command command) {
+        if (command == null) return;
+        rejectComposed(command);
+        if (!command.scheduled) return;
+        for (int i = 0; i < count; i++) {
+            if (active[i] == command) {
+                active[i] = null;
+                break;
+            }
+        }
+        command.scheduled = false;
+        command.end(true);
+    }
+
+    public void cancelAll() {
+        for (int i = 0; i < count; i++) {
+            if (active[i] != null) cancel(active[i]);
+        }
+    }
+
+    public boolean isScheduled(Command command) {
+        return command != null && command.scheduled;
+    }
+
+    /** Number of active commands. */
+    public int size() {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (active[i] != null) n++;
+        }
+        return n;
+    }
+
+    private static void rejectComposed(Command command) {
+        if (command.composed) {
+            throw new IllegalArgumentException(command.getClass().getSimpleName()
+                    + " belongs to a group; schedule or cancel the group");
+        }
+    }
+
+    /** Drop empty slots while keeping scheduling order. */
+    private void compact() {
+        int write = 0;
+        for (int read = 0; read < count; read++) {
+            if (active[read] != null) active[write++] = active[read];
+        }
+        for (int i = write; i < count; i++) active[i] = null;
+        count = write;
+    }
+}
@@ -0,0 +1,41 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import java.util.function.BooleanSupplier;
+
+/** Runs {@code onTrue} or {@code onFalse}, chosen by {@code condition} when initialized. */
+public class ConditionalCommand extends Command {
+    private final Command onTrue;
+    private final Command onFalse;
+    private final BooleanSupplier condition;
+    private Command selected;
+
+    public ConditionalCommand(Command onTrue, Command onFalse, BooleanSupplier condition) {
+        this.onTrue = onTrue;
+        this.onFalse = onFalse;
+        this.condition = condition;
+        Command[] branches = {onTrue, onFalse};
+        compose(branches);
+        requires(unionRequirements(branches));
+    }
+
+    @Override
+    public void initialize() {
+        selected = condition.getAsBoolean() ? onTrue : onFalse;
+        startChild(selected);
+    }
+
+    @Override
+    public void execute() {
+        selected.execute();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return selected.isFinished();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        endChild(selected, interrupted);
+    }
+}
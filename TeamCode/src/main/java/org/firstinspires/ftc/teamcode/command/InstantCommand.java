@@ -0,0 +1,20 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** Runs an action once and finishes immediately. */
+public class InstantCommand extends Command {
+    private final Runnable action;
+
+    public InstantCommand(Runnable action) {
+        this.action = action;
+    }
+
+    @Override
+    public void initialize() {
+        if (action != null) action.run();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** Runs commands together; finishes when all of them have finished. */
+public class ParallelCommandGroup extends Command {
+    private final Command[] commands;
+    private final boolean[] running;
+    private int runningCount = 0;
+
+    public ParallelCommandGroup(Command... commands) {
+        this.commands = commands;
+        this.running = new boolean[commands.length];
+        compose(commands);
+        requires(unionRequirements(commands));
+    }
+
+    @Override
+    public void initialize() {
+        for (int i = 0; i < commands.length; i++) {
+            startChild(commands[i]);
+            running[i] = true;
+        }
+        runningCount = commands.length;
+    }
+
+    @Override
+    public void execute() {
+        for (int i = 0; i < commands.length; i++) {
+            if (!running[i]) continue;
+            commands[i].execute();
+            if (commands[i].isFinished()) {
+                endChild(commands[i], false);
+                running[i] = false;
+                runningCount--;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return runningCount == 0;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (!interrupted) return;
+        for (int i = 0; i < commands.length; i++) {
+            if (running[i]) {
+                endChild(commands[i], true);
+                running[i] = false;
+            }
+        }
+        runningCount = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/** Runs commands together; finishes as soon as any one finishes and interrupts the rest. */
+public class ParallelRaceGroup extends Command {
+    private final Command[] commands;
+    private int winner = -1;
+
+    public ParallelRaceGroup(Command... commands) {
+        this.commands = commands;
+        compose(commands);
+        requires(unionRequirements(commands));
+    }
+
+    @Override
+    public void initialize() {
+        winner = -1;
+        for (int i = 0; i < commands.length; i++) {
+            startChild(commands[i]);
+        }
+    }
+
+    @Override
+    public void execute() {
+        for (int i = 0; i < commands.length; i++) {
+            commands[i].execute();
+            if (commands[i].isFinished()) {
+                winner = i;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return winner >= 0;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        // The winner (if any) ends normally, everything else is interrupted
+        for (int i = 0; i < commands.length; i++) {
+            endChild(commands[i], interrupted || i != winner);
+        }
+    }
+}
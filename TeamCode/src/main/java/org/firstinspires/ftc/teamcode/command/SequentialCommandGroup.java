@@ -0,0 +1,46 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Runs commands one after another. When a step finishes, the next one starts in the same tick,
+ * so chains of instant steps don't cost a loop each.
+ */
+public class SequentialCommandGroup extends Command {
+    private final Command[] commands;
+    private int index = 0;
+
+    public SequentialCommandGroup(Command... commands) {
+        this.commands = commands;
+        compose(commands);
+        requires(unionRequirements(commands));
+    }
+
+    @Override
+    public void initialize() {
+        index = 0;
+        if (commands.length > 0) startChild(commands[0]);
+    }
+
+    @Override
+    public void execute() {
+        while (index < commands.length) {
+            Command current = commands[index];
+            current.execute();
+            if (!current.isFinished()) return;
+            endChild(current, false);
+            index++;
+            if (index < commands.length) startChild(commands[index]);
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return index >= commands.length;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted && index < commands.length) {
+            endChild(commands[index], true);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Runs {@code onStart} when scheduled and {@code onEnd} when it ends, however it ends.
+ * Never finishes by itself: pair it with a WaitCommand in a ParallelRaceGroup for a
+ * "do X for N ms, then always undo X" pulse.
+ */
+public class StartEndCommand extends Command {
+    private final Runnable onStart;
+    private final Runnable onEnd;
+
+    public StartEndCommand(Runnable onStart, Runnable onEnd) {
+        this.onStart = onStart;
+        this.onEnd = onEnd;
+    }
+
+    @Override
+    public void initialize() {
+        if (onStart != null) onStart.run();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (onEnd != null) onEnd.run();
+    }
+}
@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.command;
+
+/**
+ * Marker for anything a {@link Command} can claim exclusive use of.
+ * Scheduling a command interrupts any running command that shares a requirement.
+ */
+public interface Subsystem {
+}
@@ -0,0 +1,27 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import java.util.function.LongSupplier;
+
+/** Finishes after a duration. The supplier is read at initialize(), so tunables take effect on reuse. */
+public class WaitCommand extends Command {
+    private final LongSupplier durationMs;
+    private long endNanos;
+
+    public WaitCommand(long durationMs) {
+        this(() -> durationMs);
+    }
+
+    public WaitCommand(LongSupplier durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public void initialize() {
+        endNanos = System.nanoTime() + durationMs.getAsLong() * 1_000_000L;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return System.nanoTime() - endNanos >= 0;
+    }
+}
@@ -0,0 +1,17 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import java.util.function.BooleanSupplier;
+
+/** Finishes the first tick {@code condition} is true. */
+public class WaitUntilCommand extends Command {
+    private final BooleanSupplier condition;
+
+    public WaitUntilCommand(BooleanSupplier condition) {
+        this.condition = condition;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,27 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Feedforward for a joint working against gravity (arm, hood, pivoting intake):
+ * V = kS * sign(v) + kG * cos(angle) + kV * v + kA * a, with angle in radians from horizontal.
+ */
+public class ArmFeedforward {
+    public double kS, kG, kV, kA;
+
+    public ArmFeedforward(double kS, double kG, double kV, double kA) {
+        this.kS = kS;
+        this.kG = kG;
+        this.kV = kV;
+        this.kA = kA;
+    }
+
+    public void setGains(double kS, double kG, double kV, double kA) {
+        this.kS = kS;
+        this.kG = kG;
+        this.kV = kV;
+        this.kA = kA;
+    }
+
+    public double calculate(double angleRad, double velocity, double acceleration) {
+        return kS * Math.signum(velocity) + kG * Math.cos(angleRad) + kV * velocity + kA * acceleration;
+    }
+}
@@ -0,0 +1,71 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Drives a camera-carrying turret so the target's bearing goes to 0.
+ *
+ * Bearing is low-pass filtered ({@link LowPassFilter}), then {@link PIDFController} on the
+ * filtered error with derivative on measurement (turret angle), static-friction feedforward (kS),
+ * a deadband, an output clamp and a {@link SlewRateLimiter}. All units: degrees, seconds, motor power.
+ */
+public class BearingAimController {
+    // Gains / limits
+    public double kP = 0.020;              // power per degree
+    public double kI = 0.000;              // usually 0 for turrets
+    public double kD = 0.0025;             // power per (deg/sec) of turret velocity
+    public double kS = 0.06;               // stiction compensation
+    public double deadbandDeg = 1.0;
+    public double maxPower = 0.60;
+    public double bearingFilterAlpha = 0.70; // higher = smoother/slower
+    public double maxPowerSlewPerSec = 2.0;
+    public double integralLimit = 50.0;
+
+    // State
+    private final LowPassFilter bearingFilter = new LowPassFilter(0.0);
+    private final PIDFController pid = new PIDFController(0.0, 0.0, 0.0);
+    private final SlewRateLimiter slew = new SlewRateLimiter(0.0);
+
+    /** Seed the derivative term with the current turret angle (call at init/start). */
+    public void reset(double turretAngleDeg) {
+        bearingFilter.reset(0.0);
+        pid.reset(turretAngleDeg);
+        slew.reset(0.0);
+    }
+
+    /**
+     * One control step with a fresh bearing measurement.
+     * @return motor power (before any motor sign flip)
+     */
+    public double update(double bearingDeg, double turretAngleDeg, double dt) {
+        bearingFilter.alpha = bearingFilterAlpha;
+        double bearingFiltDeg = bearingFilter.calculate(bearingDeg);
+
+        // Error = desired(0) - measured(bearing). As a turret-angle loop the setpoint is
+        // angle - bearing, so the PID's derivative on measurement is the turret velocity.
+        double errorDeg = -bearingFiltDeg;
+        boolean inDeadband = Math.abs(errorDeg) < deadbandDeg;
+        if (inDeadband) {
+            errorDeg = 0.0;
+            pid.decayIntegral(0.8);
+        }
+
+        pid.setGains(kP, kI, kD, 0.0);
+        pid.integralLimit = integralLimit;
+        long dtNanos = (long) (dt * 1e9);
+        double u = pid.calculate(turretAngleDeg, turretAngleDeg + errorDeg, dtNanos);
+        if (Math.abs(u) > 1e-4) {
+            u += Math.signum(u) * kS;
+        }
+        u = ControlMath.clip(u, -maxPower, maxPower);
+        slew.maxRatePerSec = maxPowerSlewPerSec;
+        return slew.calculate(u, dtNanos);
+    }
+
+    /** Target lost long enough that the output should drop to 0; bleeds off the integral. */
+    public void onTargetLost() {
+        pid.decayIntegral(0.9);
+    }
+
+    public double getFilteredBearingDeg() {
+        return bearingFilter.get();
+    }
+}
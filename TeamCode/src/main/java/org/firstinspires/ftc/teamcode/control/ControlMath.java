@@ -0,0 +1,44 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Small allocation-free helpers shared by the control loops. Plain Java (no SDK imports) so it
+ * also builds in the Benchmarks module.
+ */
+public final class ControlMath {
+    private ControlMath() {}
+
+    public static double clip(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    /** Move {@code current} toward {@code target} by at most maxDeltaPerSec * dt. */
+    public static double slewLimit(double target, double current, double maxDeltaPerSec, double dt) {
+        double maxDelta = maxDeltaPerSec * dt;
+        return current + clip(target - current, -maxDelta, maxDelta);
+    }
+
+    /** Exponential moving average; higher alpha = smoother/slower. */
+    public static double ema(double prev, double sample, double alpha) {
+        return alpha * prev + (1.0 - alpha) * sample;
+    }
+
+    /**
+     * Pixel -> bearing fallback when ftcPose is missing.
+     * bearingDeg ~ ((cx - imageCenterX) / imageCenterX) * (HFOV/2)
+     */
+    public static double bearingFromPixels(double centerXpx, int imageWidthPx, double hfovDeg) {
+        double cx = imageWidthPx * 0.5;
+        double norm = (centerXpx - cx) / cx; // -1..1
+        return norm * (hfovDeg * 0.5);
+    }
+
+    /** Replace NaN entries with 0, in place. Rows must all have the length of row 0; no rows is a no-op. */
+    public static void zeroNaN(double[][] points) {
+        if (points == null || points.length == 0) return;
+        for (int i = 0; i < points[0].length; i++) {
+            for (int j = 0; j < points.length; j++) {
+                if (Double.isNaN(points[j][i])) points[j][i] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Least-squares fit of V = kS * sign(v) + kV * v + kA * a.
+ *
+ * Samples are folded into the 3x3 normal equations as they arrive, so memory is constant and
+ * addSample() is allocation-free. Mix quasistatic samples (a ~ 0, pins down kS and kV) with step
+ * samples (large a, pins down kA) for a well-conditioned fit.
+ */
+public class FeedforwardFit {
+    // Normal equations: (X^T X) g = X^T y with X rows = [sign(v), v, a]
+    private final double[][] xtx = new double[3][3];
+    private final double[] xty = new double[3];
+    private final double[] row = new double[3];
+    private double sumY = 0.0, sumYY = 0.0;
+    private int count = 0;
+
+    private double kS, kV, kA, rSquared;
+
+    public void addSample(double volts, double velocity, double acceleration) {
+        row[0] = Math.signum(velocity);
+        row[1] = velocity;
+        row[2] = acceleration;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) xtx[i][j] += row[i] * row[j];
+            xty[i] += row[i] * volts;
+        }
+        sumY += volts;
+        sumYY += volts * volts;
+        count++;
+    }
+
+    public int getSampleCount() {
+        return count;
+    }
+
+    /** Solve for the gains. Returns false if the data is degenerate (e.g. only one operating point). */
+    public boolean solve() {
+        double det = det3(xtx);
+        if (count < 3 || Math.abs(det) < 1e-12) return false;
+
+        double[] g = new double[3];
+        for (int c = 0; c < 3; c++) {
+            double[][] m = new double[3][3];
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) m[i][j] = j == c ? xty[i] : xtx[i][j];
+            }
+            g[c] = det3(m) / det; // Cramer's rule; 3x3 is small enough
+        }
+        kS = g[0];
+        kV = g[1];
+        kA = g[2];
+
+        // R^2 = 1 - SSE/SST, with SSE expanded in terms of the accumulated sums
+        double sse = sumYY - 2.0 * dot(g, xty) + quad(g, xtx);
+        double sst = sumYY - sumY * sumY / count;
+        rSquared = sst > 0.0 ? 1.0 - sse / sst : 0.0;
+        return true;
+    }
+
+    public double getKS() {
+        return kS;
+    }
+
+    public double getKV() {
+        return kV;
+    }
+
+    public double getKA() {
+        return kA;
+    }
+
+    /** Goodness of fit from the last solve(), 1 = perfect. */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    public void reset() {
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) xtx[i][j] = 0.0;
+            xty[i] = 0.0;
+        }
+        sumY = sumYY = 0.0;
+        count = 0;
+        kS = kV = kA = rSquared = 0.0;
+    }
+
+    private static double det3(double[][] m) {
+        return m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+                - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+                + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+
+    private static double quad(double[] g, double[][] m) {
+        double sum = 0.0;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) sum += g[i] * m[i][j] * g[j];
+        }
+        return sum;
+    }
+}
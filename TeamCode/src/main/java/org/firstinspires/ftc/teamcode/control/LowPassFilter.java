@@ -0,0 +1,39 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * First-order low-pass (exponential moving average) on a stream of samples. Higher alpha =
+ * smoother/slower; 0 passes samples straight through. The first sample after reset() is taken
+ * as-is so the output doesn't ramp up from 0.
+ */
+public class LowPassFilter {
+    public double alpha;
+
+    private double value = 0.0;
+    private boolean primed = false;
+
+    public LowPassFilter(double alpha) {
+        this.alpha = alpha;
+    }
+
+    public double calculate(double sample) {
+        value = primed ? ControlMath.ema(value, sample, alpha) : sample;
+        primed = true;
+        return value;
+    }
+
+    public double get() {
+        return value;
+    }
+
+    /** Restart from {@code value} (e.g. 0, or the current measurement). */
+    public void reset(double value) {
+        this.value = value;
+        this.primed = true;
+    }
+
+    /** Restart so the next sample is taken as-is. */
+    public void reset() {
+        this.value = 0.0;
+        this.primed = false;
+    }
+}
@@ -0,0 +1,31 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/** Robot-centric mecanum mixing: (strafe, forward, rotate) -> four wheel powers in -1..1. */
+public final class MecanumMixer {
+    public static final int FRONT_LEFT = 0;
+    public static final int FRONT_RIGHT = 1;
+    public static final int BACK_LEFT = 2;
+    public static final int BACK_RIGHT = 3;
+
+    private MecanumMixer() {}
+
+    /**
+     * Write wheel powers into {@code out} (length >= 4), scaled down together so none exceeds 1.
+     * @param x  strafe
+     * @param y  forward
+     * @param rx rotation
+     */
+    public static void mix(double x, double y, double rx, double[] out) {
+        double fl = y + x + rx;
+        double fr = y - x - rx;
+        double bl = y - x + rx;
+        double br = y + x - rx;
+
+        double max = Math.max(1.0,
+                Math.max(Math.abs(fl), Math.max(Math.abs(fr), Math.max(Math.abs(bl), Math.abs(br)))));
+        out[FRONT_LEFT] = fl / max;
+        out[FRONT_RIGHT] = fr / max;
+        out[BACK_LEFT] = bl / max;
+        out[BACK_RIGHT] = br / max;
+    }
+}
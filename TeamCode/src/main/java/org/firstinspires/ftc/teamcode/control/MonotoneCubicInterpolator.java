@@ -0,0 +1,95 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Monotone cubic (Fritsch-Carlson / Fritsch-Butland) interpolation over a sorted table.
+ *
+ * Smooth like a spline, but never overshoots: between two points the curve stays within their
+ * values, and a monotone table gives a monotone curve. That matters for shot tables, where a
+ * plain cubic spline can command a hood angle or RPM outside anything that was measured.
+ *
+ * {@link #fit} copies the points and precomputes tangents; {@link #evaluate} is a binary search
+ * plus one Hermite cubic, with no allocation. Inputs outside the table clamp to the end values.
+ */
+public class MonotoneCubicInterpolator {
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] tangents = new double[0];
+    private int n = 0;
+
+    /**
+     * Use the first {@code count} points. {@code x} must be strictly increasing.
+     * @throws IllegalArgumentException if count < 1, the arrays are too short, or x isn't increasing
+     */
+    public void fit(double[] x, double[] y, int count) {
+        if (count < 1 || x.length < count || y.length < count) {
+            throw new IllegalArgumentException("need at least one point and count <= array lengths");
+        }
+        for (int i = 1; i < count; i++) {
+            if (!(x[i] > x[i - 1])) throw new IllegalArgumentException("x must be strictly increasing");
+        }
+        if (xs.length < count) {
+            xs = new double[count];
+            ys = new double[count];
+            tangents = new double[count];
+        }
+        System.arraycopy(x, 0, xs, 0, count);
+        System.arraycopy(y, 0, ys, 0, count);
+        n = count;
+        computeTangents();
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /** Interpolated y at {@code x}; NaN before the first fit(). */
+    public double evaluate(double x) {
+        if (n == 0) return Double.NaN;
+        if (n == 1 || x <= xs[0]) return ys[0];
+        if (x >= xs[n - 1]) return ys[n - 1];
+
+        // Last index with xs[i] <= x
+        int lo = 0;
+        int hi = n - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] <= x) lo = mid;
+            else hi = mid;
+        }
+
+        double h = xs[hi] - xs[lo];
+        double t = (x - xs[lo]) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double h00 = 2 * t3 - 3 * t2 + 1;
+        double h10 = t3 - 2 * t2 + t;
+        double h01 = -2 * t3 + 3 * t2;
+        double h11 = t3 - t2;
+        return h00 * ys[lo] + h10 * h * tangents[lo] + h01 * ys[hi] + h11 * h * tangents[hi];
+    }
+
+    private void computeTangents() {
+        if (n == 1) {
+            tangents[0] = 0.0;
+            return;
+        }
+        // Secant slopes on the ends, weighted harmonic mean inside (zero at local extrema)
+        tangents[0] = slope(0);
+        tangents[n - 1] = slope(n - 2);
+        for (int i = 1; i < n - 1; i++) {
+            double d0 = slope(i - 1);
+            double d1 = slope(i);
+            if (d0 * d1 <= 0.0) {
+                tangents[i] = 0.0;
+            } else {
+                double h0 = xs[i] - xs[i - 1];
+                double h1 = xs[i + 1] - xs[i];
+                tangents[i] = 3.0 * (h0 + h1) / ((2.0 * h1 + h0) / d0 + (h1 + 2.0 * h0) / d1);
+            }
+        }
+    }
+
+    private double slope(int i) {
+        return (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+    }
+}
@@ -0,0 +1,81 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Turret aim from odometry: the robot-relative angle to a fixed field goal, plus an offset
+ * learned from vision.
+ *
+ * Odometry alone drifts and doesn't know where the turret's zero really is; the camera alone
+ * only helps when the tag is in view. Here the pose gives the aim every loop, and each vision
+ * measurement of "where the turret should have pointed" nudges {@link #getOffsetDeg()} toward
+ * (measured - predicted). Angles in degrees, field positions in the pose's units.
+ */
+public class OdometryAim {
+    public double goalX, goalY;
+    /** +1 if a positive turret angle is counter-clockwise (same sense as robot heading), else -1. */
+    public double turretSign = 1.0;
+    /** Weight given to each new vision sample when updating the offset (0..1). */
+    public double offsetGain = 0.2;
+
+    private double offsetDeg = 0.0;
+    private int corrections = 0;
+
+    public OdometryAim(double goalX, double goalY) {
+        this.goalX = goalX;
+        this.goalY = goalY;
+    }
+
+    /** Turret angle that points at the goal from pose (x, y, heading in radians), offset applied. */
+    public double getTurretTargetDeg(double x, double y, double headingRad) {
+        return predictDeg(x, y, headingRad) + offsetDeg;
+    }
+
+    /**
+     * Turret angle that points at (aimX, aimY) instead of the goal, offset applied; e.g. a
+     * {@link ShotSolver} virtual goal. Vision corrections still refer to the real goal.
+     */
+    public double getTurretTargetDeg(double x, double y, double headingRad, double aimX, double aimY) {
+        return predictDeg(x, y, headingRad, aimX, aimY) + offsetDeg;
+    }
+
+    /**
+     * Fold in a vision measurement: at pose (x, y, heading) the turret should have been at
+     * {@code measuredTargetDeg} to center the goal (turret angle minus camera bearing).
+     */
+    public void correct(double x, double y, double headingRad, double measuredTargetDeg) {
+        double residual = wrapDeg(measuredTargetDeg - predictDeg(x, y, headingRad) - offsetDeg);
+        // First sample snaps, later ones are filtered
+        offsetDeg += (corrections == 0 ? 1.0 : offsetGain) * residual;
+        corrections++;
+    }
+
+    public double getOffsetDeg() {
+        return offsetDeg;
+    }
+
+    public int getCorrectionCount() {
+        return corrections;
+    }
+
+    public void resetOffset() {
+        offsetDeg = 0.0;
+        corrections = 0;
+    }
+
+    /** Robot-relative goal angle in turret degrees, wrapped to (-180, 180]; no offset. */
+    public double predictDeg(double x, double y, double headingRad) {
+        return predictDeg(x, y, headingRad, goalX, goalY);
+    }
+
+    private double predictDeg(double x, double y, double headingRad, double aimX, double aimY) {
+        double fieldBearing = Math.atan2(aimY - y, aimX - x);
+        return turretSign * wrapDeg(Math.toDegrees(fieldBearing - headingRad));
+    }
+
+    /** Wrap to (-180, 180]. */
+    public static double wrapDeg(double deg) {
+        double w = deg % 360.0;
+        if (w <= -180.0) w += 360.0;
+        else if (w > 180.0) w -= 360.0;
+        return w;
+    }
+}
@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * PID plus setpoint feedforward (kF * setpoint), with the pieces our loops kept re-implementing:
+ * - derivative on measurement by default, so setpoint jumps don't kick the output
+ * - optional low-pass on the derivative ({@link #derivativeFilterAlpha})
+ * - anti-windup: the integral is clamped to {@link #integralLimit} and stops growing while the
+ *   output is saturated in the direction of the error
+ * - output clamp ({@link #minOutput}/{@link #maxOutput}) and slew limit ({@link #maxOutputRatePerSec})
+ *
+ * Preallocated, nothing allocated per call. Units are the caller's: gains map measurement units
+ * to output units (power, volts...). Non-positive dt skips I and D for that step, and with a
+ * slew limit set the output holds its previous value (no change is allowed in zero time).
+ */
+public class PIDFController {
+    public double kP, kI, kD, kF;
+    public double integralLimit = Double.POSITIVE_INFINITY;
+    public double minOutput = Double.NEGATIVE_INFINITY;
+    public double maxOutput = Double.POSITIVE_INFINITY;
+    public double maxOutputRatePerSec = Double.POSITIVE_INFINITY;
+    /** EMA alpha for the derivative (0 = unfiltered, higher = smoother). */
+    public double derivativeFilterAlpha = 0.0;
+    /** false: derivative of the error instead (responds to setpoint changes too). */
+    public boolean derivativeOnMeasurement = true;
+
+    private final LowPassFilter derivativeFilter = new LowPassFilter(0.0);
+    private final SlewRateLimiter slew = new SlewRateLimiter(Double.POSITIVE_INFINITY);
+    private double integral = 0.0;
+    private double lastMeasurement = 0.0;
+    private double lastError = 0.0;
+    private double error = 0.0;
+    private double output = 0.0;
+    private boolean hasLast = false;
+
+    public PIDFController(double kP, double kI, double kD, double kF) {
+        setGains(kP, kI, kD, kF);
+    }
+
+    public PIDFController(double kP, double kI, double kD) {
+        this(kP, kI, kD, 0.0);
+    }
+
+    public void setGains(double kP, double kI, double kD, double kF) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+    }
+
+    public void setOutputLimits(double min, double max) {
+        minOutput = min;
+        maxOutput = max;
+    }
+
+    /** One step toward {@code setpoint}; {@code dtNanos} since the previous call. */
+    public double calculate(double measurement, double setpoint, long dtNanos) {
+        double dt = dtNanos / 1e9;
+        error = setpoint - measurement;
+
+        double derivative = 0.0;
+        if (dt > 0.0 && hasLast) {
+            double raw = derivativeOnMeasurement
+                    ? -(measurement - lastMeasurement) / dt
+                    : (error - lastError) / dt;
+            derivativeFilter.alpha = derivativeFilterAlpha;
+            derivative = derivativeFilter.calculate(raw);
+        }
+
+        double base = kP * error + kD * derivative + kF * setpoint;
+        if (kI != 0.0 && dt > 0.0) {
+            double candidate = ControlMath.clip(integral + error * dt, -integralLimit, integralLimit);
+            double unclamped = base + kI * candidate;
+            // Conditional integration: don't wind further into a saturated output
+            boolean pushingHigh = unclamped > maxOutput && error * kI > 0.0;
+            boolean pushingLow = unclamped < minOutput && error * kI < 0.0;
+            if (!pushingHigh && !pushingLow) integral = candidate;
+        }
+
+        double out = ControlMath.clip(base + kI * integral, minOutput, maxOutput);
+        if (hasLast) {
+            slew.maxRatePerSec = maxOutputRatePerSec;
+            out = slew.calculate(out, dtNanos);
+        } else {
+            slew.reset(out);
+        }
+
+        lastMeasurement = measurement;
+        lastError = error;
+        output = out;
+        hasLast = true;
+        return out;
+    }
+
+    /** Error from the last calculate(). */
+    public double getError() {
+        return error;
+    }
+
+    /** Output from the last calculate(). */
+    public double getOutput() {
+        return output;
+    }
+
+    public double getIntegral() {
+        return integral;
+    }
+
+    /** Scale the accumulated integral (e.g. 0.9 to bleed it off while the target is lost). */
+    public void decayIntegral(double factor) {
+        integral *= factor;
+    }
+
+    public void reset() {
+        integral = 0.0;
+        lastMeasurement = 0.0;
+        lastError = 0.0;
+        error = 0.0;
+        output = 0.0;
+        hasLast = false;
+        derivativeFilter.reset();
+    }
+
+    /**
+     * Reset, but seed the derivative with a known measurement so the first step already has a
+     * D term (derivative on measurement only); the output slews from 0.
+     */
+    public void reset(double measurement) {
+        reset();
+        lastMeasurement = measurement;
+        slew.reset(0.0);
+        hasLast = true;
+    }
+}
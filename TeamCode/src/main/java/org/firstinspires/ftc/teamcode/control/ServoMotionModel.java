@@ -0,0 +1,57 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Open-loop estimate of where a servo is. Servos report nothing back, so this assumes the horn
+ * moves toward each command at a constant {@link #unitsPerSec} (position units, 0..1 = full range)
+ * and then needs {@link #settleSec} to stop. Sequences can wait on {@link #isArrived(long)}
+ * instead of a fixed worst-case delay: a small move finishes sooner than a full stroke.
+ *
+ * Times are System.nanoTime() values passed in by the caller.
+ */
+public class ServoMotionModel {
+    public double unitsPerSec;
+    public double settleSec = 0.02;
+
+    private double startPosition = Double.NaN;
+    private double targetPosition = Double.NaN;
+    private long commandNanos = 0;
+
+    public ServoMotionModel(double unitsPerSec) {
+        this.unitsPerSec = unitsPerSec;
+    }
+
+    /** A new target was sent at {@code nowNanos}. Motion restarts from the current estimate. */
+    public void command(double position, long nowNanos) {
+        startPosition = Double.isNaN(targetPosition) ? position : estimate(nowNanos);
+        targetPosition = position;
+        commandNanos = nowNanos;
+    }
+
+    /** Estimated position at {@code nowNanos}; NaN before the first command. */
+    public double estimate(long nowNanos) {
+        if (Double.isNaN(targetPosition)) return Double.NaN;
+        double travel = (nowNanos - commandNanos) / 1e9 * Math.max(0.0, unitsPerSec);
+        double remaining = targetPosition - startPosition;
+        if (Math.abs(remaining) <= travel || Double.isInfinite(unitsPerSec)) return targetPosition;
+        return startPosition + Math.signum(remaining) * travel;
+    }
+
+    /** True once the estimated travel plus settle time has elapsed (or nothing was ever commanded). */
+    public boolean isArrived(long nowNanos) {
+        if (Double.isNaN(targetPosition)) return true;
+        return (nowNanos - commandNanos) / 1e9 >= getMoveTimeSec();
+    }
+
+    /** Duration of the current move from its start, settle time included. */
+    public double getMoveTimeSec() {
+        if (Double.isNaN(targetPosition)) return 0.0;
+        double travelSec = unitsPerSec > 0.0 && !Double.isInfinite(unitsPerSec)
+                ? Math.abs(targetPosition - startPosition) / unitsPerSec
+                : 0.0;
+        return travelSec + settleSec;
+    }
+
+    public double getTarget() {
+        return targetPosition;
+    }
+}
@@ -0,0 +1,99 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Picks which carousel slot to fire for each ball of a required color sequence, in the order that
+ * needs the least total carousel travel.
+ *
+ * Each shot moves the carousel from where it is to that slot's shooting preset, so the cost of
+ * an order is the sum of those moves, starting from the current goal (which may be a collection
+ * preset, offset from the shooting ones). With {@code ticksPerRev > 0} (the indexer's
+ * shortestPath mode) every move takes the short way around; otherwise it is the plain tick
+ * difference between presets.
+ *
+ * Colors are plain ints (e.g. an enum ordinal), so this stays free of SDK types. Search is a
+ * depth-first over slot assignments with pruning; for three slots that is at most 6 orders, and
+ * nothing is allocated per call. Results are read through getters.
+ */
+public class ShotOrderPlanner {
+    private final int slotCount;
+    private final boolean[] used;
+    private final int[] current;
+    private final int[] best;
+
+    private int[] colors;
+    private int[] presets;
+    private int[] sequence;
+    private int length;
+    private double ticksPerRev;
+
+    private int count = 0;
+    private double bestTicks;
+
+    public ShotOrderPlanner(int slotCount) {
+        this.slotCount = slotCount;
+        this.used = new boolean[slotCount];
+        this.current = new int[slotCount];
+        this.best = new int[slotCount];
+    }
+
+    /**
+     * Plan the first {@code sequenceLength} shots of {@code sequence}.
+     *
+     * @param slotColors  color in each slot
+     * @param presetTicks shooting preset of each slot, encoder ticks
+     * @param startTicks  where the carousel is (or is going) now
+     * @param ticksPerRev carousel ticks per turn for shortest-path moves, or <= 0 for plain moves
+     * @return true if every shot has a matching slot; false leaves {@link #getCount()} at 0
+     */
+    public boolean plan(int[] slotColors, int[] presetTicks, double startTicks,
+                        int[] sequence, int sequenceLength, double ticksPerRev) {
+        if (sequenceLength > slotCount) {
+            throw new IllegalArgumentException("more shots than slots");
+        }
+        this.colors = slotColors;
+        this.presets = presetTicks;
+        this.sequence = sequence;
+        this.length = sequenceLength;
+        this.ticksPerRev = ticksPerRev;
+        for (int i = 0; i < slotCount; i++) used[i] = false;
+        count = 0;
+        bestTicks = Double.POSITIVE_INFINITY;
+        search(0, startTicks, 0.0);
+        if (bestTicks == Double.POSITIVE_INFINITY) return false;
+        count = length;
+        return true;
+    }
+
+    private void search(int depth, double position, double ticks) {
+        if (ticks >= bestTicks) return;
+        if (depth == length) {
+            bestTicks = ticks;
+            System.arraycopy(current, 0, best, 0, length);
+            return;
+        }
+        for (int s = 0; s < slotCount; s++) {
+            if (used[s] || colors[s] != sequence[depth]) continue;
+            double delta = presets[s] - position;
+            if (ticksPerRev > 0) delta -= ticksPerRev * Math.round(delta / ticksPerRev);
+            used[s] = true;
+            current[depth] = s;
+            search(depth + 1, position + delta, ticks + Math.abs(delta));
+            used[s] = false;
+        }
+    }
+
+    /** Number of planned shots (0 if the last plan failed). */
+    public int getCount() {
+        return count;
+    }
+
+    /** Slot to fire for shot {@code i}, 0 <= i < getCount(). */
+    public int getSlot(int i) {
+        return best[i];
+    }
+
+    /** Total carousel travel of the plan, ticks. */
+    public double getTotalTicks() {
+        return count == 0 ? Double.NaN : bestTicks;
+    }
+}
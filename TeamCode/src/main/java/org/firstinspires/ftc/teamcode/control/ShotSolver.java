@@ -0,0 +1,85 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Shoot-on-the-move lead: where to aim so a shot fired from a moving robot lands in the goal.
+ *
+ * The ball leaves with the robot's field velocity added, so during its time of flight t it drifts
+ * by v * t. Aiming (and setting range) at a virtual goal = goal - v * t cancels that. t itself
+ * depends on the range to the virtual goal, so the solver iterates: range -> t -> virtual goal
+ * -> range ... until the virtual goal moves less than {@link #toleranceIn}. The map is a
+ * contraction whenever the robot is slower than the ball's average horizontal speed, so it
+ * converges in a few iterations.
+ *
+ * Units: inches, seconds. Results are fields read through getters; nothing is allocated per call.
+ */
+public class ShotSolver {
+    /** Stop when the virtual goal moves less than this between iterations. */
+    public double toleranceIn = 0.1;
+    public int maxIterations = 8;
+
+    private final DoubleUnaryOperator timeOfFlight;
+
+    private double virtualX, virtualY, range, flightTime;
+    private int iterations;
+    private boolean converged;
+
+    /** @param timeOfFlight seconds of flight for a range in inches (e.g. ShotTable::getTimeOfFlight) */
+    public ShotSolver(DoubleUnaryOperator timeOfFlight) {
+        this.timeOfFlight = timeOfFlight;
+    }
+
+    /**
+     * Solve for a shot from (x, y) moving at field velocity (vx, vy) toward goal (goalX, goalY).
+     * @return true if converged; otherwise the results hold the last iterate
+     */
+    public boolean solve(double x, double y, double vx, double vy, double goalX, double goalY) {
+        virtualX = goalX;
+        virtualY = goalY;
+        converged = false;
+        iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            range = Math.hypot(virtualX - x, virtualY - y);
+            flightTime = Math.max(0.0, timeOfFlight.applyAsDouble(range));
+            double nx = goalX - vx * flightTime;
+            double ny = goalY - vy * flightTime;
+            double moved = Math.hypot(nx - virtualX, ny - virtualY);
+            virtualX = nx;
+            virtualY = ny;
+            if (moved < toleranceIn) {
+                converged = true;
+                break;
+            }
+        }
+        range = Math.hypot(virtualX - x, virtualY - y);
+        return converged;
+    }
+
+    /** Aim point, field coordinates. */
+    public double getVirtualX() {
+        return virtualX;
+    }
+
+    public double getVirtualY() {
+        return virtualY;
+    }
+
+    /** Range to the virtual goal: look up hood and RPM with this, not the real range. */
+    public double getRange() {
+        return range;
+    }
+
+    public double getTimeOfFlight() {
+        return flightTime;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+}
@@ -0,0 +1,25 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Permanent-magnet DC motor feedforward: V = kS * sign(v) + kV * v + kA * a.
+ * Units are whatever the gains were fitted in (e.g. volts per RPM).
+ */
+public class SimpleMotorFeedforward {
+    public double kS, kV, kA;
+
+    public SimpleMotorFeedforward(double kS, double kV, double kA) {
+        this.kS = kS;
+        this.kV = kV;
+        this.kA = kA;
+    }
+
+    public void setGains(double kS, double kV, double kA) {
+        this.kS = kS;
+        this.kV = kV;
+        this.kA = kA;
+    }
+
+    public double calculate(double velocity, double acceleration) {
+        return kS * Math.signum(velocity) + kV * velocity + kA * acceleration;
+    }
+}
@@ -0,0 +1,41 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Limits how fast a command may change: the output moves toward the requested value by at most
+ * {@link #maxRatePerSec} per second. Use it for output slew (power/volts) or to ramp a setpoint.
+ */
+public class SlewRateLimiter {
+    public double maxRatePerSec;
+
+    private double value;
+
+    public SlewRateLimiter(double maxRatePerSec, double initialValue) {
+        this.maxRatePerSec = maxRatePerSec;
+        this.value = initialValue;
+    }
+
+    public SlewRateLimiter(double maxRatePerSec) {
+        this(maxRatePerSec, 0.0);
+    }
+
+    /**
+     * Step toward {@code target}. With a finite rate, {@code dtNanos} <= 0 allows no change and
+     * returns the current value; an infinite rate always passes {@code target} through.
+     */
+    public double calculate(double target, long dtNanos) {
+        if (Double.isInfinite(maxRatePerSec)) {
+            value = target;
+        } else if (dtNanos > 0) {
+            value = ControlMath.slewLimit(target, value, Math.abs(maxRatePerSec), dtNanos / 1e9);
+        }
+        return value;
+    }
+
+    public double get() {
+        return value;
+    }
+
+    public void reset(double value) {
+        this.value = value;
+    }
+}
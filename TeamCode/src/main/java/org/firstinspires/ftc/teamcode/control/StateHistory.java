@@ -0,0 +1,122 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Fixed-size ring buffer of timestamped state vectors (e.g. turret angle + robot pose), for
+ * looking up where the robot was when a delayed measurement was taken. A camera frame describes
+ * the world at its acquisition time, typically 30-100 ms before the detection reaches the loop.
+ *
+ * Timestamps are System.nanoTime() units and must be recorded in increasing order. Lookups
+ * interpolate linearly between the two samples around the requested time; slots marked with
+ * {@link #setAngularRadians(int)} interpolate the short way around the circle. Nothing is
+ * allocated after construction.
+ */
+public class StateHistory {
+    private final int capacity;
+    private final int width;
+    private final long[] times;
+    private final double[] values; // capacity rows of width values
+    private final boolean[] angular;
+
+    private int head = 0;  // index of the next write
+    private int count = 0;
+
+    /**
+     * @param capacity number of samples kept (size it for the longest latency at the loop rate)
+     * @param width    values per sample
+     */
+    public StateHistory(int capacity, int width) {
+        if (capacity < 2 || width < 1) throw new IllegalArgumentException("capacity >= 2, width >= 1");
+        this.capacity = capacity;
+        this.width = width;
+        this.times = new long[capacity];
+        this.values = new double[capacity * width];
+        this.angular = new boolean[width];
+    }
+
+    /** Interpolate {@code slot} as an angle in radians (wraps across +-pi). */
+    public void setAngularRadians(int slot) {
+        angular[slot] = true;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    /** Append a sample; {@code state} must have at least width() values. Overwrites the oldest when full. */
+    public void record(long timeNanos, double[] state) {
+        if (count > 0 && timeNanos < times[index(count - 1)]) return; // out of order: drop
+        times[head] = timeNanos;
+        System.arraycopy(state, 0, values, head * width, width);
+        head = (head + 1) % capacity;
+        if (count < capacity) count++;
+    }
+
+    /**
+     * State at {@code timeNanos}, written to {@code out}. Times before the oldest sample or after
+     * the newest are clamped to that sample.
+     * @return false if the history is empty (out untouched)
+     */
+    public boolean lookup(long timeNanos, double[] out) {
+        if (count == 0) return false;
+        int newest = count - 1;
+        if (timeNanos >= times[index(newest)]) {
+            copyRow(index(newest), out);
+            return true;
+        }
+        if (timeNanos <= times[index(0)]) {
+            copyRow(index(0), out);
+            return true;
+        }
+
+        // Binary search for the last sample at or before timeNanos (logical order, oldest = 0)
+        int lo = 0;
+        int hi = newest;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (times[index(mid)] <= timeNanos) lo = mid;
+            else hi = mid;
+        }
+
+        int a = index(lo);
+        int b = index(hi);
+        long span = times[b] - times[a];
+        double t = span <= 0 ? 1.0 : (double) (timeNanos - times[a]) / span;
+        for (int i = 0; i < width; i++) {
+            double va = values[a * width + i];
+            double vb = values[b * width + i];
+            double d = vb - va;
+            if (angular[i]) d = Math.atan2(Math.sin(d), Math.cos(d));
+            out[i] = va + t * d;
+        }
+        return true;
+    }
+
+    /** Timestamp of the newest sample, 0 if empty. */
+    public long getNewestTimeNanos() {
+        return count == 0 ? 0L : times[index(count - 1)];
+    }
+
+    /** Timestamp of the oldest sample still held, 0 if empty. */
+    public long getOldestTimeNanos() {
+        return count == 0 ? 0L : times[index(0)];
+    }
+
+    // Logical index (0 = oldest) to buffer row
+    private int index(int logical) {
+        int start = count < capacity ? 0 : head;
+        return (start + logical) % capacity;
+    }
+
+    private void copyRow(int row, double[] out) {
+        System.arraycopy(values, row * width, out, 0, width);
+    }
+}
@@ -0,0 +1,87 @@
+package org.firstinspires.ftc.teamcode.control;
+
+/**
+ * Online trapezoidal motion profile. Each {@link #step(double, double)} advances the setpoint
+ * toward the goal with bounded velocity and acceleration, braking in time to stop exactly on the
+ * goal. Because it works from the current setpoint, the goal can change every loop (e.g. a
+ * moving aim target) without restarting the profile or jumping the setpoint.
+ *
+ * Units are whatever maxVelocity/maxAcceleration are given in (e.g. degrees and seconds).
+ */
+public class TrapezoidProfile {
+    public double maxVelocity;
+    public double maxAcceleration;
+
+    private double position = 0.0;
+    private double velocity = 0.0;
+    private double acceleration = 0.0;
+
+    public TrapezoidProfile(double maxVelocity, double maxAcceleration) {
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+    }
+
+    /** Restart from a measured state (e.g. when entering position control). */
+    public void reset(double position, double velocity) {
+        this.position = position;
+        this.velocity = velocity;
+        this.acceleration = 0.0;
+    }
+
+    /** Advance the setpoint by {@code dt} seconds toward {@code goal}. */
+    public void step(double goal, double dt) {
+        if (dt <= 0.0) return;
+        double distance = goal - position;
+        double aMax = Math.abs(maxAcceleration);
+        double vMax = Math.abs(maxVelocity);
+
+        // Fastest speed from which the discrete loop still stops on the goal: moving v * dt this
+        // step and braking by aMax * dt per step after covers v^2 / (2 aMax) + v * dt / 2
+        double aDt = aMax * dt;
+        double vBrake = aDt > 0.0
+                ? aDt * (Math.sqrt(0.25 + 2.0 * Math.abs(distance) / (aDt * dt)) - 0.5)
+                : 0.0;
+        // ...and never more than reaches the goal this step
+        double vDesired = Math.signum(distance)
+                * Math.min(Math.min(vMax, vBrake), Math.abs(distance) / dt);
+
+        double prevVelocity = velocity;
+        velocity = ControlMath.slewLimit(vDesired, velocity, aMax, dt);
+        double next = position + velocity * dt;
+
+        // Landing: a step that reaches the goal at a speed braked away in one step ends exactly on
+        // it, and the step after stops there. Slack covers rounding in the velocity sums. Faster
+        // than that (the goal moved closer than braking allows) the setpoint passes the goal and
+        // comes back.
+        double stoppable = aDt * (1.0 + 1e-9);
+        if (distance == 0.0 && Math.abs(prevVelocity) <= stoppable) {
+            velocity = 0.0;
+            next = goal;
+        } else if (velocity * distance > 0.0 && Math.abs(velocity) * dt >= Math.abs(distance)
+                && Math.abs(velocity) <= stoppable) {
+            next = goal;
+        }
+        acceleration = (velocity - prevVelocity) / dt;
+        position = next;
+    }
+
+    public double getPosition() {
+        return position;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * True once the setpoint has stopped on {@code goal}. Exact: {@link #step} lands on the goal
+     * and then brakes to 0 there, one step after arriving.
+     */
+    public boolean isFinished(double goal) {
+        return position == goal && velocity == 0.0;
+    }
+}
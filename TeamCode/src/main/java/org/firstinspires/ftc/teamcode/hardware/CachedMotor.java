@@ -0,0 +1,167 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.MotorIO;
+
+/**
+ * Write-coalescing wrapper around a motor ({@link MotorIO}: a real DcMotorEx or a sim).
+ *
+ * Every setPower/setMode/setTargetPosition on a Lynx motor is a blocking hub transaction,
+ * even when the value didn't change. This wrapper remembers the last value actually sent and
+ * drops writes that are within {@link #setPowerEpsilon(double) epsilon} (power) or identical
+ * (mode, target, zero power behavior). Getters for those values return the cached command, so
+ * they cost nothing; encoder/velocity/busy reads pass through (and hit the bulk cache).
+ */
+public class CachedMotor {
+    public static final double DEFAULT_POWER_EPSILON = 0.005;
+
+    // Skipped-write counters shared by all CachedMotors (rolled over by HardwareCache.clear())
+    private static int skippedThisLoop = 0;
+    private static int skippedLastLoop = 0;
+    private static long skippedTotal = 0;
+
+    private final MotorIO motor;
+    private double powerEpsilon = DEFAULT_POWER_EPSILON;
+
+    // Last values actually sent to the hub (NaN / null = unknown, always write)
+    private double lastPower = Double.NaN;
+    private DcMotor.RunMode lastMode = null;
+    private DcMotor.ZeroPowerBehavior lastZeroPowerBehavior = null;
+    private boolean targetKnown = false;
+    private int lastTarget = 0;
+
+    public CachedMotor(MotorIO motor) {
+        this.motor = motor;
+    }
+
+    public CachedMotor(DcMotorEx motor) {
+        this(new HardwareMotorIO(motor));
+    }
+
+    public CachedMotor(HardwareMap hardwareMap, String name) {
+        this(HardwareMotorIO.get(hardwareMap, name));
+    }
+
+    /** Power changes smaller than this are not sent. An exact 0 is always sent to stop the motor. */
+    public void setPowerEpsilon(double epsilon) {
+        powerEpsilon = Math.max(0.0, epsilon);
+    }
+
+    // ---- Coalesced writes ----
+
+    public void setPower(double power) {
+        if (!Double.isNaN(lastPower)) {
+            boolean stopping = power == 0.0 && lastPower != 0.0;
+            if (!stopping && Math.abs(power - lastPower) < powerEpsilon) {
+                skip();
+                return;
+            }
+        }
+        lastPower = power;
+        motor.setPower(power);
+    }
+
+    public void setMode(DcMotor.RunMode mode) {
+        // STOP_AND_RESET_ENCODER is an action, not a state: always send it
+        if (mode == lastMode && mode != DcMotor.RunMode.STOP_AND_RESET_ENCODER) {
+            skip();
+            return;
+        }
+        lastMode = mode;
+        motor.setMode(mode);
+        // The hub may zero the power on a mode change; resend the next power command
+        lastPower = Double.NaN;
+    }
+
+    public void setTargetPosition(int target) {
+        if (targetKnown && target == lastTarget) {
+            skip();
+            return;
+        }
+        targetKnown = true;
+        lastTarget = target;
+        motor.setTargetPosition(target);
+    }
+
+    public void setZeroPowerBehavior(DcMotor.ZeroPowerBehavior behavior) {
+        if (behavior == lastZeroPowerBehavior) {
+            skip();
+            return;
+        }
+        lastZeroPowerBehavior = behavior;
+        motor.setZeroPowerBehavior(behavior);
+    }
+
+    /** Direction is configuration; set once at init so it is not coalesced. */
+    public void setDirection(DcMotorSimple.Direction direction) {
+        motor.setDirection(direction);
+    }
+
+    public void setTargetPositionTolerance(int tolerance) {
+        motor.setTargetPositionTolerance(tolerance);
+    }
+
+    // ---- Cached command getters (no hub transaction) ----
+
+    /** Last power sent, 0 if none yet. */
+    public double getPower() {
+        return Double.isNaN(lastPower) ? 0.0 : lastPower;
+    }
+
+    /** Last mode sent, or null before the first setMode. */
+    public DcMotor.RunMode getMode() {
+        return lastMode;
+    }
+
+    public int getTargetPosition() {
+        return lastTarget;
+    }
+
+    // ---- Sensor reads (served by the bulk cache) ----
+
+    public int getCurrentPosition() {
+        return motor.getCurrentPosition();
+    }
+
+    /** Encoder ticks per second. */
+    public double getVelocity() {
+        return motor.getVelocity();
+    }
+
+    public boolean isBusy() {
+        return motor.isBusy();
+    }
+
+    /** Underlying motor for anything not wrapped here (bypasses write coalescing). */
+    public MotorIO getMotor() {
+        return motor;
+    }
+
+    // ---- Counters ----
+
+    /** Writes dropped by all CachedMotors during the previous loop. */
+    public static int getSkippedLastLoop() {
+        return skippedLastLoop;
+    }
+
+    /** Writes dropped by all CachedMotors since the app started. */
+    public static long getSkippedTotal() {
+        return skippedTotal;
+    }
+
+    /** Roll the per-loop counter over. Called once per loop by HardwareCache.clear(). */
+    static void endLoop() {
+        skippedLastLoop = skippedThisLoop;
+        skippedThisLoop = 0;
+    }
+
+    private static void skip() {
+        skippedThisLoop++;
+        skippedTotal++;
+    }
+}
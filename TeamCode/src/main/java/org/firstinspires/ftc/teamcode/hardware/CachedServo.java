@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+
+import org.firstinspires.ftc.teamcode.control.ServoMotionModel;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareServoIO;
+import org.firstinspires.ftc.teamcode.hardware.io.ServoIO;
+
+/**
+ * Write-coalescing wrapper around a servo ({@link ServoIO}: a real Servo or a sim).
+ *
+ * setPosition is a blocking hub transaction; subsystems that "maintain" a position every loop
+ * would otherwise resend the same value forever. Positions within
+ * {@link #setPositionEpsilon(double) epsilon} of the last sent value are dropped.
+ *
+ * Each sent position also feeds a {@link ServoMotionModel}, so callers can ask where the servo
+ * probably is ({@link #estimatedPosition()}) and wait on {@link #isArrived()} instead of a
+ * fixed timer. Set the speed from calibration with {@link #setSpeed(double)}.
+ */
+public class CachedServo {
+    public static final double DEFAULT_POSITION_EPSILON = 0.001;
+
+    // Skipped-write counters shared by all CachedServos (rolled over by HardwareCache.clear())
+    private static int skippedThisLoop = 0;
+    private static int skippedLastLoop = 0;
+    private static long skippedTotal = 0;
+
+    private final ServoIO servo;
+    private double positionEpsilon = DEFAULT_POSITION_EPSILON;
+
+    // Last position actually sent (NaN = unknown, always write)
+    private double lastPosition = Double.NaN;
+    private final ServoMotionModel motion = new ServoMotionModel(ServoSpeeds.DEFAULT_UNITS_PER_SEC);
+
+    public CachedServo(ServoIO servo) {
+        this.servo = servo;
+    }
+
+    public CachedServo(Servo servo) {
+        this(new HardwareServoIO(servo));
+    }
+
+    public CachedServo(HardwareMap hardwareMap, String name) {
+        this(HardwareServoIO.get(hardwareMap, name));
+    }
+
+    public void setPositionEpsilon(double epsilon) {
+        positionEpsilon = Math.max(0.0, epsilon);
+    }
+
+    public void setPosition(double position) {
+        if (!Double.isNaN(lastPosition) && Math.abs(position - lastPosition) < positionEpsilon) {
+            skip();
+            return;
+        }
+        lastPosition = position;
+        servo.setPosition(position);
+        motion.command(position, System.nanoTime());
+    }
+
+    /** Travel speed for the motion model, position units per second (full range = 1.0). */
+    public void setSpeed(double unitsPerSec) {
+        motion.unitsPerSec = unitsPerSec;
+    }
+
+    public double getSpeed() {
+        return motion.unitsPerSec;
+    }
+
+    /** Where the servo should be by now according to the motion model; NaN before the first command. */
+    public double estimatedPosition() {
+        return motion.estimate(System.nanoTime());
+    }
+
+    /** Whether the last command should have finished moving (true before any command). */
+    public boolean isArrived() {
+        return motion.isArrived(System.nanoTime());
+    }
+
+    /** Direction is configuration; changing it re-maps the output, so resend the next position. */
+    public void setDirection(Servo.Direction direction) {
+        servo.setDirection(direction);
+        lastPosition = Double.NaN;
+    }
+
+    /** Last commanded position (servos have no feedback), NaN before the first command. */
+    public double getPosition() {
+        return lastPosition;
+    }
+
+    public ServoIO getServo() {
+        return servo;
+    }
+
+    // ---- Counters ----
+
+    /** Writes dropped by all CachedServos during the previous loop. */
+    public static int getSkippedLastLoop() {
+        return skippedLastLoop;
+    }
+
+    /** Writes dropped by all CachedServos since the app started. */
+    public static long getSkippedTotal() {
+        return skippedTotal;
+    }
+
+    /** Roll the per-loop counter over. Called once per loop by HardwareCache.clear(). */
+    static void endLoop() {
+        skippedLastLoop = skippedThisLoop;
+        skippedThisLoop = 0;
+    }
+
+    private static void skip() {
+        skippedThisLoop++;
+        skippedTotal++;
+    }
+}
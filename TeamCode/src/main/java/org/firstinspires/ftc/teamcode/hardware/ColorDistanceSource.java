@@ -0,0 +1,50 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/**
+ * Samples a color sensor (REV Color Sensor V3 or similar): normalized RGBA plus distance when the
+ * device also implements DistanceSensor. Each sample is a few I2C transactions (~2-4 ms), which
+ * is why it belongs on the {@link SensorSampler} thread rather than in the OpMode loop.
+ *
+ * Values: [DISTANCE_MM, RED, GREEN, BLUE, ALPHA]; DISTANCE_MM is NaN without a distance channel.
+ */
+public class ColorDistanceSource implements SensorSampler.Source {
+    public static final int DISTANCE_MM = 0;
+    public static final int RED = 1;
+    public static final int GREEN = 2;
+    public static final int BLUE = 3;
+    public static final int ALPHA = 4;
+
+    private final NormalizedColorSensor color;
+    private final DistanceSensor distance; // null = color only
+
+    public ColorDistanceSource(HardwareMap hardwareMap, String name) {
+        this(hardwareMap.get(NormalizedColorSensor.class, name));
+    }
+
+    public ColorDistanceSource(NormalizedColorSensor color) {
+        this.color = color;
+        this.distance = color instanceof DistanceSensor ? (DistanceSensor) color : null;
+    }
+
+    @Override
+    public int size() {
+        return 5;
+    }
+
+    @Override
+    public void sample(double[] out) {
+        NormalizedRGBA rgba = color.getNormalizedColors();
+        out[RED] = rgba.red;
+        out[GREEN] = rgba.green;
+        out[BLUE] = rgba.blue;
+        out[ALPHA] = rgba.alpha;
+        out[DISTANCE_MM] = distance == null ? Double.NaN : distance.getDistance(DistanceUnit.MM);
+    }
+}
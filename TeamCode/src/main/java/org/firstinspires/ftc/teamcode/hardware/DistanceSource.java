@@ -0,0 +1,32 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/**
+ * Samples only the distance channel of a distance (or color/distance) sensor. Presence checks
+ * don't need the color channels, so this skips the RGBA read {@link ColorDistanceSource} does
+ * on every sample and keeps the I2C bus free for the rest of the sampler's sources.
+ *
+ * Values: [DISTANCE_MM], the same slot as {@link ColorDistanceSource#DISTANCE_MM}.
+ */
+public class DistanceSource implements SensorSampler.Source {
+    public static final int DISTANCE_MM = ColorDistanceSource.DISTANCE_MM;
+
+    private final DistanceSensor sensor;
+
+    public DistanceSource(DistanceSensor sensor) {
+        this.sensor = sensor;
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public void sample(double[] out) {
+        out[DISTANCE_MM] = sensor.getDistance(DistanceUnit.MM);
+    }
+}
@@ -0,0 +1,98 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.List;
+
+/**
+ * Shared bulk-read cache for every Lynx hub (Control Hub + Expansion Hub).
+ *
+ * Puts all hubs into MANUAL bulk caching (see ConceptMotorBulkRead) so every encoder, velocity,
+ * busy and digital read in a loop is served from ONE bulk transaction per hub.
+ * Call {@link #clear()} exactly once at the top of each loop, before any subsystem reads.
+ * A {@link HubInputSource} sampling the same hub from another thread refreshes that cache
+ * mid-loop, so a loop is only guaranteed one snapshot per hub without one.
+ *
+ * Comparison mode: {@link #setBulkCaching(boolean)} switches the hubs back to OFF (one
+ * transaction per read) so the two loop rates can be compared on telemetry.
+ */
+public class HardwareCache {
+    // Loop-time smoothing (higher = smoother/slower)
+    private static final double LOOP_FILTER_ALPHA = 0.9;
+
+    private final List<LynxModule> hubs;
+    private boolean bulkCaching;
+
+    // Loop timing (ms, low-pass filtered) for cached / uncached modes
+    private long lastClearNanos = 0;
+    private double cachedLoopMs = 0.0;
+    private double uncachedLoopMs = 0.0;
+
+    public HardwareCache(HardwareMap hardwareMap) {
+        this.hubs = hardwareMap.getAll(LynxModule.class);
+        setBulkCaching(true);
+    }
+
+    /** true = MANUAL bulk caching (fast), false = OFF (legacy per-read transactions). */
+    public void setBulkCaching(boolean enabled) {
+        bulkCaching = enabled;
+        LynxModule.BulkCachingMode mode = enabled
+                ? LynxModule.BulkCachingMode.MANUAL
+                : LynxModule.BulkCachingMode.OFF;
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).setBulkCachingMode(mode);
+        }
+        // Don't count the loop that straddles the switch
+        lastClearNanos = 0;
+    }
+
+    public boolean isBulkCaching() {
+        return bulkCaching;
+    }
+
+    /**
+     * Call once at the top of every loop. Invalidates the bulk cache, records loop time and
+     * rolls over the CachedMotor/CachedServo skipped-write counters.
+     */
+    public void clear() {
+        if (bulkCaching) {
+            for (int i = 0; i < hubs.size(); i++) {
+                hubs.get(i).clearBulkCache();
+            }
+        }
+        CachedMotor.endLoop();
+        CachedServo.endLoop();
+
+        long now = System.nanoTime();
+        if (lastClearNanos != 0) {
+            double loopMs = (now - lastClearNanos) / 1e6;
+            if (bulkCaching) {
+                cachedLoopMs = filter(cachedLoopMs, loopMs);
+            } else {
+                uncachedLoopMs = filter(uncachedLoopMs, loopMs);
+            }
+        }
+        lastClearNanos = now;
+    }
+
+    /** Filtered loop time (ms) for the requested mode, 0 if that mode hasn't run yet. */
+    public double getLoopMs(boolean cached) {
+        return cached ? cachedLoopMs : uncachedLoopMs;
+    }
+
+    /** Filtered loop rate (Hz) for the requested mode, 0 if that mode hasn't run yet. */
+    public double getLoopHz(boolean cached) {
+        double ms = getLoopMs(cached);
+        return ms > 0.0 ? 1000.0 / ms : 0.0;
+    }
+
+    public List<LynxModule> getHubs() {
+        return hubs;
+    }
+
+    private static double filter(double prev, double sample) {
+        if (prev <= 0.0) return sample;
+        return LOOP_FILTER_ALPHA * prev + (1.0 - LOOP_FILTER_ALPHA) * sample;
+    }
+}
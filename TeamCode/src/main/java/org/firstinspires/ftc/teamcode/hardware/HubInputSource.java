@@ -0,0 +1,86 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+/**
+ * Samples encoder positions/velocities and digital inputs of one Lynx hub with a single
+ * bulk read per sample.
+ *
+ * Values, in order:
+ *   [0, n)      encoder position (ticks) of each requested motor port
+ *   [n, 2n)     encoder velocity (ticks/s) of each requested motor port
+ *   [2n, 2n+m)  raw digital state (1 = high, 0 = low) of each requested channel
+ * Note REV touch/magnetic limit switches read LOW when pressed.
+ *
+ * Position/velocity are raw encoder counts; motor direction is not applied.
+ *
+ * Shared bulk cache: LynxModule.getBulkData() sends a new bulk transaction and also stores the
+ * result as the hub's cached bulk data, under the hub's own lock. With the hub in MANUAL caching
+ * ({@link HardwareCache}), reads the OpMode thread makes after a sample are served from the
+ * sampler's newer snapshot, not the one its clear() started the loop with. Each read is still a
+ * whole transaction, never stale, but two reads of the same hub in one loop can differ by up to a
+ * sample period of motion. Code that needs one consistent snapshot per loop should read its
+ * values once at the top of the loop, or the sampled inputs should live on a hub the loop
+ * doesn't read.
+ */
+public class HubInputSource implements SensorSampler.Source {
+    private final LynxModule hub;
+    private final int[] motorPorts;
+    private final int[] digitalChannels;
+
+    /**
+     * @param hubName         configured name of the hub, e.g. "Control Hub"
+     * @param motorPorts      motor ports 0-3 to sample (see {@link #portOf(DcMotor)})
+     * @param digitalChannels digital channels 0-7 to sample
+     */
+    public HubInputSource(HardwareMap hardwareMap, String hubName, int[] motorPorts, int[] digitalChannels) {
+        this(hardwareMap.get(LynxModule.class, hubName), motorPorts, digitalChannels);
+    }
+
+    public HubInputSource(LynxModule hub, int[] motorPorts, int[] digitalChannels) {
+        this.hub = hub;
+        this.motorPorts = motorPorts.clone();
+        this.digitalChannels = digitalChannels.clone();
+    }
+
+    /** Index of a motor's position in the sampled values. */
+    public int positionIndex(int portIndex) {
+        return portIndex;
+    }
+
+    /** Index of a motor's velocity in the sampled values. */
+    public int velocityIndex(int portIndex) {
+        return motorPorts.length + portIndex;
+    }
+
+    /** Index of a digital channel's state in the sampled values. */
+    public int digitalIndex(int channelIndex) {
+        return 2 * motorPorts.length + channelIndex;
+    }
+
+    /** Hub port of a configured motor, for building the port list. */
+    public static int portOf(DcMotor motor) {
+        return motor.getPortNumber();
+    }
+
+    @Override
+    public int size() {
+        return 2 * motorPorts.length + digitalChannels.length;
+    }
+
+    @Override
+    public void sample(double[] out) {
+        // A fresh bulk transaction that also replaces the hub's bulk cache (see class doc)
+        LynxModule.BulkData data = hub.getBulkData();
+        int n = motorPorts.length;
+        for (int i = 0; i < n; i++) {
+            out[i] = data.getMotorCurrentPosition(motorPorts[i]);
+            out[n + i] = data.getMotorVelocity(motorPorts[i]);
+        }
+        for (int i = 0; i < digitalChannels.length; i++) {
+            out[2 * n + i] = data.getDigitalChannelState(digitalChannels[i]) ? 1.0 : 0.0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional background thread that polls slow sensors (I2C, bulk reads) at its own rate and
+ * publishes the results as {@link SensorSnapshot}s, so the OpMode loop never waits on them.
+ *
+ * Usage:
+ *   init:  sampler = new SensorSampler();
+ *          SensorSnapshot idx = sampler.addSource(new HubInputSource(...), 5);
+ *          sampler.start();
+ *   loop:  long t = idx.read(values);  // lock-free, never blocks
+ *   stop:  sampler.stop();
+ *
+ * Sources are only touched by the sampler thread once it is started; don't also read the same
+ * device from the OpMode thread or both threads will pay for the bus transactions.
+ *
+ * A source only needed now and then (e.g. a color sensor read when the carousel stops) can be
+ * added disabled and switched with {@link #setEnabled}; while disabled it costs no bus time, and
+ * once enabled it is sampled on the next pass.
+ */
+public class SensorSampler implements Runnable {
+
+    /** Something the sampler polls. Called only from the sampler thread. */
+    public interface Source {
+        /** Number of values written by sample(). */
+        int size();
+
+        /** Read the hardware and write size() values into {@code out}. */
+        void sample(double[] out);
+    }
+
+    private static final long IDLE_SLEEP_MS = 1;
+    // Shorter periods would only spin the thread; no hub or I2C read completes faster
+    public static final long MIN_PERIOD_MS = 1;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile boolean running = false;
+    private volatile int errorCount = 0;
+    private Thread thread;
+
+    private static final class Entry {
+        final Source source;
+        final long periodNanos;
+        final double[] scratch;
+        final SensorSnapshot snapshot;
+        volatile boolean enabled;
+        long nextDueNanos = 0; // sampler thread only
+
+        Entry(Source source, long periodMs, boolean enabled) {
+            this.source = source;
+            this.enabled = enabled;
+            this.periodNanos = Math.max(MIN_PERIOD_MS, periodMs) * 1_000_000L;
+            this.scratch = new double[source.size()];
+            this.snapshot = new SensorSnapshot(source.size());
+        }
+    }
+
+    /** Register a source polled every {@code periodMs} (at least MIN_PERIOD_MS). Must be called before start(). */
+    public SensorSnapshot addSource(Source source, long periodMs) {
+        return addSource(source, periodMs, true);
+    }
+
+    /** Like {@link #addSource(Source, long)}, starting disabled if {@code enabled} is false. */
+    public SensorSnapshot addSource(Source source, long periodMs, boolean enabled) {
+        if (running) throw new IllegalStateException("add sources before start()");
+        Entry e = new Entry(source, periodMs, enabled);
+        entries.add(e);
+        return e.snapshot;
+    }
+
+    /**
+     * Start or pause polling the source behind {@code snapshot} (as returned by addSource).
+     * Safe to call from the OpMode thread every loop; the snapshot keeps its last sample while
+     * paused.
+     */
+    public void setEnabled(SensorSnapshot snapshot, boolean enabled) {
+        for (int i = 0; i < entries.size(); i++) {
+            Entry e = entries.get(i);
+            if (e.snapshot == snapshot) {
+                e.enabled = enabled;
+                return;
+            }
+        }
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "SensorSampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop polling and wait until the thread has exited, so no sample() is still talking to the
+     * hardware when the OpMode ends. Call from OpMode.stop(). At most one in-flight sample()
+     * (a few ms) is waited for.
+     */
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+        thread.interrupt();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true; // keep waiting; restore the flag below
+            }
+        }
+        thread = null;
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Number of sample() calls that threw (the previous snapshot is kept when a read fails). */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    @Override
+    public void run() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            long now = System.nanoTime();
+            long nextWake = Long.MAX_VALUE;
+
+            for (int i = 0; i < entries.size(); i++) {
+                Entry e = entries.get(i);
+                if (!e.enabled) {
+                    e.nextDueNanos = now; // due as soon as it is enabled again
+                    continue;
+                }
+                if (now - e.nextDueNanos >= 0) {
+                    try {
+                        e.source.sample(e.scratch);
+                        long sampledAt = System.nanoTime();
+                        e.snapshot.publish(e.scratch, sampledAt);
+                    } catch (RuntimeException ex) {
+                        errorCount++;
+                    }
+                    e.nextDueNanos = now + e.periodNanos;
+                }
+                nextWake = Math.min(nextWake, e.nextDueNanos);
+            }
+
+            // Round up so a sub-millisecond wait sleeps instead of spinning on yield()
+            long sleepMs = nextWake == Long.MAX_VALUE
+                    ? IDLE_SLEEP_MS
+                    : Math.max(0L, (nextWake - System.nanoTime() + 999_999L) / 1_000_000L);
+            try {
+                if (sleepMs > 0) Thread.sleep(sleepMs);
+                else Thread.yield();
+            } catch (InterruptedException ignored) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, single-writer snapshot of a few primitive sensor values plus the time they were sampled.
+ *
+ * Written by the {@link SensorSampler} thread, read by the OpMode thread. Uses a sequence lock:
+ * the writer bumps the sequence to odd, stores the values, then bumps it back to even; readers
+ * retry until they see the same even sequence before and after copying. All slots are volatile
+ * (AtomicLongArray), so a reader never blocks the writer and never sees a torn set of values.
+ */
+public final class SensorSnapshot {
+    private final int size;
+    // slot 0 = sequence, slot 1 = timestamp (System.nanoTime), slots 2.. = value bits
+    private final AtomicLongArray slots;
+
+    SensorSnapshot(int size) {
+        this.size = size;
+        this.slots = new AtomicLongArray(size + 2);
+    }
+
+    /** Number of values in this snapshot. */
+    public int size() {
+        return size;
+    }
+
+    // ---- Writer side (sampler thread only) ----
+
+    void publish(double[] values, long timestampNanos) {
+        long seq = slots.get(0);
+        slots.set(0, seq + 1); // odd: write in progress
+        slots.set(1, timestampNanos);
+        for (int i = 0; i < size; i++) {
+            slots.set(i + 2, Double.doubleToRawLongBits(values[i]));
+        }
+        slots.set(0, seq + 2); // even: consistent
+    }
+
+    // ---- Reader side ----
+
+    /**
+     * Copy the latest values into {@code out} (length >= size()).
+     * @return sample timestamp in System.nanoTime() units, or 0 if nothing has been published yet
+     */
+    public long read(double[] out) {
+        while (true) {
+            long before = slots.get(0);
+            if ((before & 1L) != 0) continue; // writer mid-update; it finishes in microseconds
+            long timestamp = slots.get(1);
+            for (int i = 0; i < size; i++) {
+                out[i] = Double.longBitsToDouble(slots.get(i + 2));
+            }
+            if (slots.get(0) == before) return timestamp;
+        }
+    }
+
+    /** Timestamp of the latest sample, 0 if none. */
+    public long getTimestampNanos() {
+        return slots.get(1);
+    }
+
+    /** Age of the latest sample in ms, or +Infinity if nothing has been published yet. */
+    public double getAgeMs() {
+        long t = slots.get(1);
+        if (t == 0) return Double.POSITIVE_INFINITY;
+        return (System.nanoTime() - t) / 1e6;
+    }
+
+    /** Whether a sample exists and is no older than {@code maxAgeMs}. */
+    public boolean isFresh(double maxAgeMs) {
+        return getAgeMs() <= maxAgeMs;
+    }
+}
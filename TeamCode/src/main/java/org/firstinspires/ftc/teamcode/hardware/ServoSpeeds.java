@@ -0,0 +1,61 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.util.ReadWriteFile;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measured servo speeds (position units per second, full range = 1.0) by hardware map name,
+ * persisted in {@link #SPEEDS_FILE} by the Servo Speed Calibration OpMode. Subsystems look their
+ * servos up at construction; servos that were never calibrated use the caller's default.
+ */
+public final class ServoSpeeds {
+    // In the RC settings folder; one "name=unitsPerSec" per line
+    public static final String SPEEDS_FILE = "servo_speeds.txt";
+
+    // Typical 60 deg in ~0.15 s over a ~270 deg range
+    public static final double DEFAULT_UNITS_PER_SEC = 1.5;
+
+    private static Map<String, Double> speeds;
+
+    private ServoSpeeds() {}
+
+    /** Saved speed for {@code name}, else {@code fallback}. Reads the file on first use. */
+    public static synchronized double get(String name, double fallback) {
+        if (speeds == null) speeds = load();
+        Double v = speeds.get(name);
+        return v == null ? fallback : v;
+    }
+
+    /** Record and persist a measured speed. */
+    public static synchronized void save(String name, double unitsPerSec) {
+        if (speeds == null) speeds = load();
+        speeds.put(name, unitsPerSec);
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Double> e : speeds.entrySet()) {
+            sb.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+        }
+        ReadWriteFile.writeFile(AppUtil.getInstance().getSettingsFile(SPEEDS_FILE), sb.toString());
+    }
+
+    private static Map<String, Double> load() {
+        Map<String, Double> map = new HashMap<>();
+        try {
+            File file = AppUtil.getInstance().getSettingsFile(SPEEDS_FILE);
+            if (!file.exists()) return map;
+            for (String line : ReadWriteFile.readFile(file).split("\n")) {
+                String[] kv = line.trim().split("=");
+                if (kv.length != 2) continue;
+                double value = Double.parseDouble(kv[1].trim());
+                if (value > 0.0) map.put(kv[0].trim(), value);
+            }
+        } catch (RuntimeException e) {
+            // Corrupt file: fall back to defaults rather than failing init
+        }
+        return map;
+    }
+}
@@ -0,0 +1,79 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Shared battery voltage, sampled at a low fixed rate and low-pass filtered.
+ *
+ * A VoltageSensor read is its own hub transaction (it is not part of the bulk read), so it is
+ * only taken every {@link #DEFAULT_PERIOD_MS}; {@link #update()} is cheap to call every loop.
+ * Subsystems command in volts through {@link #powerForVolts(double)}, so the same command
+ * produces the same motor effort at 13.5 V and at 12 V.
+ *
+ * Usage:
+ *   init:  battery = new VoltageService(hardwareMap); flywheel.setVoltageService(battery); ...
+ *   loop:  battery.update();   // right after hardwareCache.clear()
+ */
+public class VoltageService {
+    /** Voltage the duty-cycle based tunings were made at; volts = power * NOMINAL_VOLTS. */
+    public static final double NOMINAL_VOLTS = 12.0;
+    public static final long DEFAULT_PERIOD_MS = 250;
+    // Filter weight on the previous value (higher = smoother/slower)
+    private static final double FILTER_ALPHA = 0.7;
+    // Readings outside this are sensor glitches, not the battery
+    private static final double MIN_VALID_VOLTS = 6.0;
+    private static final double MAX_VALID_VOLTS = 16.0;
+
+    private final DoubleSupplier source;
+    private final long periodNanos;
+    private double filteredVolts = NOMINAL_VOLTS;
+    private boolean hasSample = false;
+    private long lastSampleNanos = 0;
+
+    public VoltageService(HardwareMap hardwareMap) {
+        this(firstSensor(hardwareMap)::getVoltage, DEFAULT_PERIOD_MS);
+    }
+
+    /** Custom source (e.g. a simulated battery) and sample period. */
+    public VoltageService(DoubleSupplier voltageSource, long periodMs) {
+        this.source = voltageSource;
+        this.periodNanos = Math.max(0L, periodMs) * 1_000_000L;
+    }
+
+    /** Fixed {@link #NOMINAL_VOLTS} with no sensor: commands in volts behave like plain duty cycle. */
+    public static VoltageService nominal() {
+        return new VoltageService(null, 0);
+    }
+
+    /** Call once per loop. Reads the sensor only when the sample period has elapsed. */
+    public void update() {
+        if (source == null) return;
+        long now = System.nanoTime();
+        if (hasSample && now - lastSampleNanos < periodNanos) return;
+        lastSampleNanos = now;
+
+        double v = source.getAsDouble();
+        if (v < MIN_VALID_VOLTS || v > MAX_VALID_VOLTS) return;
+        filteredVolts = hasSample ? FILTER_ALPHA * filteredVolts + (1.0 - FILTER_ALPHA) * v : v;
+        hasSample = true;
+    }
+
+    /** Filtered battery voltage ({@link #NOMINAL_VOLTS} until the first valid sample). */
+    public double getVoltage() {
+        return filteredVolts;
+    }
+
+    /** Duty cycle (-1..1) that applies {@code volts} at the current battery voltage. */
+    public double powerForVolts(double volts) {
+        double power = volts / filteredVolts;
+        return Math.max(-1.0, Math.min(1.0, power));
+    }
+
+    private static VoltageSensor firstSensor(HardwareMap hardwareMap) {
+        // Every hub reports the same battery; one sensor is enough
+        return hardwareMap.voltageSensor.iterator().next();
+    }
+}
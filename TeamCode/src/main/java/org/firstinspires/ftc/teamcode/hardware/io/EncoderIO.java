@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+/** Quadrature encoder: a motor port's encoder or a standalone one. */
+public interface EncoderIO {
+    /** Encoder position in ticks (motor direction applied). */
+    int getCurrentPosition();
+
+    /** Encoder velocity in ticks per second. */
+    double getVelocity();
+}
@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/** {@link ImuIO} backed by a real IMU. The IMU must already be initialize()d with its orientation. */
+public class HardwareImuIO implements ImuIO {
+    private final IMU imu;
+
+    public HardwareImuIO(IMU imu) {
+        this.imu = imu;
+    }
+
+    public static HardwareImuIO get(HardwareMap hardwareMap, String name) {
+        return new HardwareImuIO(hardwareMap.get(IMU.class, name));
+    }
+
+    @Override
+    public double getHeadingRadians() {
+        return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+    }
+
+    @Override
+    public double getYawRateRadiansPerSec() {
+        return imu.getRobotAngularVelocity(AngleUnit.RADIANS).zRotationRate;
+    }
+
+    @Override
+    public void resetYaw() {
+        imu.resetYaw();
+    }
+}
@@ -0,0 +1,68 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+/** {@link MotorIO} backed by a real DcMotorEx. Straight passthrough, no caching. */
+public class HardwareMotorIO implements MotorIO {
+    private final DcMotorEx motor;
+
+    public HardwareMotorIO(DcMotorEx motor) {
+        this.motor = motor;
+    }
+
+    public static HardwareMotorIO get(HardwareMap hardwareMap, String name) {
+        return new HardwareMotorIO(hardwareMap.get(DcMotorEx.class, name));
+    }
+
+    @Override
+    public void setPower(double power) {
+        motor.setPower(power);
+    }
+
+    @Override
+    public void setMode(DcMotor.RunMode mode) {
+        motor.setMode(mode);
+    }
+
+    @Override
+    public void setTargetPosition(int target) {
+        motor.setTargetPosition(target);
+    }
+
+    @Override
+    public void setTargetPositionTolerance(int tolerance) {
+        motor.setTargetPositionTolerance(tolerance);
+    }
+
+    @Override
+    public void setZeroPowerBehavior(DcMotor.ZeroPowerBehavior behavior) {
+        motor.setZeroPowerBehavior(behavior);
+    }
+
+    @Override
+    public void setDirection(DcMotorSimple.Direction direction) {
+        motor.setDirection(direction);
+    }
+
+    @Override
+    public boolean isBusy() {
+        return motor.isBusy();
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        return motor.getCurrentPosition();
+    }
+
+    @Override
+    public double getVelocity() {
+        return motor.getVelocity();
+    }
+
+    public DcMotorEx getMotor() {
+        return motor;
+    }
+}
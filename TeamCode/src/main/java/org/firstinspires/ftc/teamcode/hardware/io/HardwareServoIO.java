@@ -0,0 +1,31 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+
+/** {@link ServoIO} backed by a real Servo. */
+public class HardwareServoIO implements ServoIO {
+    private final Servo servo;
+
+    public HardwareServoIO(Servo servo) {
+        this.servo = servo;
+    }
+
+    public static HardwareServoIO get(HardwareMap hardwareMap, String name) {
+        return new HardwareServoIO(hardwareMap.get(Servo.class, name));
+    }
+
+    @Override
+    public void setPosition(double position) {
+        servo.setPosition(position);
+    }
+
+    @Override
+    public void setDirection(Servo.Direction direction) {
+        servo.setDirection(direction);
+    }
+
+    public Servo getServo() {
+        return servo;
+    }
+}
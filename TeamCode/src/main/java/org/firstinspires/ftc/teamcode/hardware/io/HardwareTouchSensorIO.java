@@ -0,0 +1,22 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.TouchSensor;
+
+/** {@link TouchSensorIO} backed by a real TouchSensor. */
+public class HardwareTouchSensorIO implements TouchSensorIO {
+    private final TouchSensor sensor;
+
+    public HardwareTouchSensorIO(TouchSensor sensor) {
+        this.sensor = sensor;
+    }
+
+    public static HardwareTouchSensorIO get(HardwareMap hardwareMap, String name) {
+        return new HardwareTouchSensorIO(hardwareMap.get(TouchSensor.class, name));
+    }
+
+    @Override
+    public boolean isPressed() {
+        return sensor.isPressed();
+    }
+}
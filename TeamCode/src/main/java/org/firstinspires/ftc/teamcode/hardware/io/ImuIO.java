@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+/** Robot yaw from an IMU, counter-clockwise positive. */
+public interface ImuIO {
+    double getHeadingRadians();
+
+    double getYawRateRadiansPerSec();
+
+    void resetYaw();
+}
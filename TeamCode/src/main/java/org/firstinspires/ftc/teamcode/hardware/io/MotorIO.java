@@ -0,0 +1,25 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+/**
+ * The subset of DcMotorEx the subsystems use. Implemented by {@link HardwareMotorIO} on the
+ * robot and {@link SimMotorIO} off-robot.
+ */
+public interface MotorIO extends EncoderIO {
+    void setPower(double power);
+
+    void setMode(DcMotor.RunMode mode);
+
+    void setTargetPosition(int target);
+
+    void setTargetPositionTolerance(int tolerance);
+
+    void setZeroPowerBehavior(DcMotor.ZeroPowerBehavior behavior);
+
+    void setDirection(DcMotorSimple.Direction direction);
+
+    /** True while RUN_TO_POSITION has not reached the target. */
+    boolean isBusy();
+}
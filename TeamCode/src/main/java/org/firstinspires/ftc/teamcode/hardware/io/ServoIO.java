@@ -0,0 +1,10 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.Servo;
+
+/** Positional servo (0..1). */
+public interface ServoIO {
+    void setPosition(double position);
+
+    void setDirection(Servo.Direction direction);
+}
@@ -0,0 +1,36 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+/** In-memory IMU: heading integrates the yaw rate set by the simulation. */
+public class SimImuIO implements ImuIO {
+    private double headingRad = 0.0;
+    private double yawRateRadPerSec = 0.0;
+
+    public void setHeadingRadians(double headingRad) {
+        this.headingRad = headingRad;
+    }
+
+    public void setYawRateRadiansPerSec(double yawRateRadPerSec) {
+        this.yawRateRadPerSec = yawRateRadPerSec;
+    }
+
+    /** Advance the heading by {@code dtSec}, wrapped to +-pi like the real IMU. */
+    public void update(double dtSec) {
+        headingRad += yawRateRadPerSec * dtSec;
+        headingRad = Math.atan2(Math.sin(headingRad), Math.cos(headingRad));
+    }
+
+    @Override
+    public double getHeadingRadians() {
+        return headingRad;
+    }
+
+    @Override
+    public double getYawRateRadiansPerSec() {
+        return yawRateRadPerSec;
+    }
+
+    @Override
+    public void resetYaw() {
+        headingRad = 0.0;
+    }
+}
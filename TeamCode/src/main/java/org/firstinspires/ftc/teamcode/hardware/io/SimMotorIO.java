@@ -0,0 +1,142 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+/**
+ * In-memory motor for off-robot runs. Velocity follows power with a first-order lag toward
+ * {@code power * freeSpeed}; encoder ticks integrate velocity. Call {@link #update(double)}
+ * once per simulated loop.
+ *
+ * RUN_TO_POSITION is modeled as a proportional controller capped at |power|, like the hub's.
+ * FLOAT coasts down {@link #COAST_FACTOR} times slower than BRAKE. An optional static friction
+ * (as power) is subtracted from the applied power, so a kS feedforward has something to cancel.
+ */
+public class SimMotorIO implements MotorIO {
+    public static final double COAST_FACTOR = 5.0;
+    // Power per tick of error in RUN_TO_POSITION
+    private static final double RUN_TO_POSITION_GAIN = 0.01;
+
+    private final double freeSpeedTicksPerSec;
+    private final double timeConstantSec;
+    private final double frictionPower;
+
+    private double power = 0.0;
+    private DcMotor.RunMode mode = DcMotor.RunMode.RUN_WITHOUT_ENCODER;
+    private DcMotor.ZeroPowerBehavior zeroPowerBehavior = DcMotor.ZeroPowerBehavior.BRAKE;
+    private double sign = 1.0; // -1 when REVERSE
+    private int target = 0;
+    private int tolerance = 5;
+
+    // Physical state (FORWARD frame)
+    private double positionTicks = 0.0;
+    private double velocityTicksPerSec = 0.0;
+
+    /**
+     * @param freeSpeedTicksPerSec encoder ticks/s at full power, no load
+     * @param timeConstantSec      time to reach ~63% of a velocity step
+     */
+    public SimMotorIO(double freeSpeedTicksPerSec, double timeConstantSec) {
+        this(freeSpeedTicksPerSec, timeConstantSec, 0.0);
+    }
+
+    /**
+     * @param frictionPower power lost to static friction (e.g. kS / 12 V); less than this
+     *                      does not move the mechanism
+     */
+    public SimMotorIO(double freeSpeedTicksPerSec, double timeConstantSec, double frictionPower) {
+        this.freeSpeedTicksPerSec = freeSpeedTicksPerSec;
+        this.timeConstantSec = Math.max(1e-6, timeConstantSec);
+        this.frictionPower = Math.max(0.0, frictionPower);
+    }
+
+    /** Advance the model by {@code dtSec}. */
+    public void update(double dtSec) {
+        if (dtSec <= 0.0) return;
+
+        double applied; // FORWARD-frame power
+        if (mode == DcMotor.RunMode.RUN_TO_POSITION) {
+            double error = sign * target - positionTicks;
+            double cap = Math.abs(power);
+            applied = Math.abs(error) <= tolerance ? 0.0
+                    : Math.max(-cap, Math.min(cap, error * RUN_TO_POSITION_GAIN));
+        } else {
+            applied = sign * power;
+        }
+
+        double tau = timeConstantSec;
+        if (applied == 0.0 && zeroPowerBehavior == DcMotor.ZeroPowerBehavior.FLOAT) {
+            tau *= COAST_FACTOR;
+        }
+        double effective = Math.signum(applied) * Math.max(0.0, Math.abs(applied) - frictionPower);
+        double desired = effective * freeSpeedTicksPerSec;
+        velocityTicksPerSec += (desired - velocityTicksPerSec) * (1.0 - Math.exp(-dtSec / tau));
+        positionTicks += velocityTicksPerSec * dtSec;
+    }
+
+    @Override
+    public void setPower(double power) {
+        this.power = Math.max(-1.0, Math.min(1.0, power));
+    }
+
+    @Override
+    public void setMode(DcMotor.RunMode mode) {
+        if (mode == DcMotor.RunMode.STOP_AND_RESET_ENCODER) {
+            positionTicks = 0.0;
+            velocityTicksPerSec = 0.0;
+            power = 0.0;
+        }
+        this.mode = mode;
+    }
+
+    @Override
+    public void setTargetPosition(int target) {
+        this.target = target;
+    }
+
+    @Override
+    public void setTargetPositionTolerance(int tolerance) {
+        this.tolerance = Math.max(0, tolerance);
+    }
+
+    @Override
+    public void setZeroPowerBehavior(DcMotor.ZeroPowerBehavior behavior) {
+        this.zeroPowerBehavior = behavior;
+    }
+
+    @Override
+    public void setDirection(DcMotorSimple.Direction direction) {
+        sign = direction == DcMotorSimple.Direction.REVERSE ? -1.0 : 1.0;
+    }
+
+    @Override
+    public boolean isBusy() {
+        return mode == DcMotor.RunMode.RUN_TO_POSITION
+                && Math.abs(target - sign * positionTicks) > tolerance;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        return (int) Math.round(sign * positionTicks);
+    }
+
+    @Override
+    public double getVelocity() {
+        return sign * velocityTicksPerSec;
+    }
+
+    // ---- Test hooks ----
+
+    public double getPower() {
+        return power;
+    }
+
+    public DcMotor.RunMode getMode() {
+        return mode;
+    }
+
+    /** Move the mechanism by hand (e.g. to start a test at a given position). */
+    public void setPositionTicks(double ticks) {
+        positionTicks = sign * ticks;
+    }
+}
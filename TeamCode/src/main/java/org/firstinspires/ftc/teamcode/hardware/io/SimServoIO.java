@@ -0,0 +1,29 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import com.qualcomm.robotcore.hardware.Servo;
+
+/** In-memory servo: reaches the commanded position instantly. */
+public class SimServoIO implements ServoIO {
+    private double commanded = Double.NaN;
+    private Servo.Direction direction = Servo.Direction.FORWARD;
+
+    @Override
+    public void setPosition(double position) {
+        commanded = Math.max(0.0, Math.min(1.0, position));
+    }
+
+    @Override
+    public void setDirection(Servo.Direction direction) {
+        this.direction = direction;
+    }
+
+    /** Last commanded position (0..1, in the servo's own frame), NaN before the first command. */
+    public double getPosition() {
+        return commanded;
+    }
+
+    /** Physical output position with direction applied (REVERSE maps p to 1 - p). */
+    public double getOutputPosition() {
+        return direction == Servo.Direction.REVERSE ? 1.0 - commanded : commanded;
+    }
+}
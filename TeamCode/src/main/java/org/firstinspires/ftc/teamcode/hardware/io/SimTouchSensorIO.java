@@ -0,0 +1,15 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+/** In-memory switch, set by the test/simulation. */
+public class SimTouchSensorIO implements TouchSensorIO {
+    private boolean pressed = false;
+
+    public void setPressed(boolean pressed) {
+        this.pressed = pressed;
+    }
+
+    @Override
+    public boolean isPressed() {
+        return pressed;
+    }
+}
@@ -0,0 +1,6 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+/** Digital limit/touch/magnetic switch. */
+public interface TouchSensorIO {
+    boolean isPressed();
+}
@@ -1,12 +1,31 @@
 package org.firstinspires.ftc.teamcode.pedroPathing;
 
 import com.pedropathing.follower.Follower;
+import com.pedropathing.geometry.Pose;
 import com.pedropathing.paths.PathChain;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Follows a list of PathChains one after another, advancing when the follower stops being busy.
+ *
+ * Path events run mechanism actions while a path is being driven instead of between paths
+ * (spin up the flywheel, rotate the indexer, deploy the intake). They attach to the most recently
+ * added path and fire once per run of it:
+ * <ul>
+ *   <li>{@link #atT}: at a path t-value; t counts segments, so 0.5 is halfway along the
+ *       chain's first path and 1.5 halfway along its second</li>
+ *   <li>{@link #atDistanceRemaining}: once the distance left drops to a number of inches</li>
+ *   <li>{@link #atTime}: a number of seconds after the path started</li>
+ *   <li>{@link #onEnterRegion}: the first tick the robot is inside a field rectangle</li>
+ * </ul>
+ * t, distance and time events are sorted per path at {@link #start()}, so each tick only
+ * compares against the next pending threshold of each kind. Region events are checked while
+ * pending (a handful per path). Threshold events the path finished without reaching fire as it
+ * ends, in order; region events the robot never entered do not.
+ */
 public class AutoPathStateMachine {
 
     public enum State {
@@ -17,47 +36,112 @@ public class AutoPathStateMachine {
 
     private final Follower follower;
     private final List<PathChain> paths = new ArrayList<>();
+    private final List<PathEvents> events = new ArrayList<>();
     private int index = -1;
     private State state = State.IDLE;
+    private long pathStartNanos = 0;
 
     public AutoPathStateMachine(Follower follower) {
         this.follower = follower;
     }
 
     public AutoPathStateMachine add(PathChain path) {
-        if (path != null) paths.add(path);
+        if (path != null) {
+            paths.add(path);
+            events.add(new PathEvents());
+        }
         return this;
     }
 
     public AutoPathStateMachine addAll(List<PathChain> pathList) {
-        if (pathList != null) paths.addAll(pathList);
+        if (pathList != null) {
+            for (PathChain path : pathList) add(path);
+        }
+        return this;
+    }
+
+    /** Run {@code action} once the last added path reaches t-value {@code t} (segments; see class doc). */
+    public AutoPathStateMachine atT(double t, Runnable action) {
+        lastEvents().t.add(t, action);
+        return this;
+    }
+
+    /** Run {@code action} once the last added path has {@code inches} or less left to drive. */
+    public AutoPathStateMachine atDistanceRemaining(double inches, Runnable action) {
+        // Remaining distance falls as the path runs; negate it so every kind fires on a rising value
+        lastEvents().distance.add(-inches, action);
+        return this;
+    }
+
+    /** Run {@code action} {@code seconds} after the last added path starts. */
+    public AutoPathStateMachine atTime(double seconds, Runnable action) {
+        lastEvents().time.add(seconds, action);
+        return this;
+    }
+
+    /** Run {@code action} the first tick the robot is inside the rectangle during the last added path. */
+    public AutoPathStateMachine onEnterRegion(double minX, double minY, double maxX, double maxY, Runnable action) {
+        PathEvents e = lastEvents();
+        e.regions.add(new double[] {
+                Math.min(minX, maxX), Math.min(minY, maxY), Math.max(minX, maxX), Math.max(minY, maxY)});
+        e.regionActions.add(action);
         return this;
     }
 
+    private PathEvents lastEvents() {
+        if (events.isEmpty()) throw new IllegalStateException("add a path before its events");
+        return events.get(events.size() - 1);
+    }
+
     public void start() {
         if (paths.isEmpty()) {
             state = State.COMPLETE;
             return;
         }
+        for (PathEvents e : events) e.compile();
         index = 0;
-        follower.followPath(paths.get(index));
+        followCurrent();
         state = State.RUNNING;
     }
 
     public void update() {
         if (state != State.RUNNING) return;
 
+        PathEvents e = events.get(index);
         if (!follower.isBusy()) {
+            e.finish();
             index++;
             if (index < paths.size()) {
-                follower.followPath(paths.get(index));
+                followCurrent();
             } else {
                 state = State.COMPLETE;
             }
+            return;
+        }
+
+        if (e.t.hasPending()) {
+            e.t.fireUpTo(follower.getChainIndex() + follower.getCurrentTValue());
         }
+        if (e.distance.hasPending()) {
+            e.distance.fireUpTo(-follower.getDistanceRemaining());
+        }
+        if (e.time.hasPending()) {
+            e.time.fireUpTo((System.nanoTime() - pathStartNanos) / 1e9);
+        }
+        if (e.regionsPending > 0) {
+            e.checkRegions(follower.getPose());
+        }
+    }
+
+    private void followCurrent() {
+        events.get(index).rewind();
+        pathStartNanos = System.nanoTime();
+        follower.followPath(paths.get(index));
     }
 
+    /** Back to IDLE with every path's events pending again, so the next {@link #start()} fires them all. */
     public void reset() {
+        for (PathEvents e : events) e.rewind();
         index = -1;
         state = State.IDLE;
     }
@@ -81,4 +165,101 @@ public class AutoPathStateMachine {
     public List<PathChain> getPaths() {
         return Collections.unmodifiableList(paths);
     }
+
+    /** One kind of threshold event for one path: fires in threshold order as a value rises. */
+    private static final class Thresholds {
+        private final List<Double> pendingKeys = new ArrayList<>();
+        private final List<Runnable> pendingActions = new ArrayList<>();
+        private double[] keys = new double[0];
+        private Runnable[] actions = new Runnable[0];
+        private int next = 0;
+
+        void add(double key, Runnable action) {
+            pendingKeys.add(key);
+            pendingActions.add(action);
+        }
+
+        /** Sort by threshold (stable, so equal thresholds fire in the order added). */
+        void compile() {
+            int n = pendingKeys.size();
+            keys = new double[n];
+            actions = new Runnable[n];
+            for (int i = 0; i < n; i++) {
+                double k = pendingKeys.get(i);
+                Runnable a = pendingActions.get(i);
+                int j = i;
+                for (; j > 0 && keys[j - 1] > k; j--) {
+                    keys[j] = keys[j - 1];
+                    actions[j] = actions[j - 1];
+                }
+                keys[j] = k;
+                actions[j] = a;
+            }
+            next = 0;
+        }
+
+        boolean hasPending() {
+            return next < keys.length;
+        }
+
+        void fireUpTo(double value) {
+            while (next < keys.length && value >= keys[next]) {
+                actions[next++].run();
+            }
+        }
+
+        void fireAll() {
+            while (next < keys.length) {
+                actions[next++].run();
+            }
+        }
+    }
+
+    /** Events attached to one path. */
+    private static final class PathEvents {
+        final Thresholds t = new Thresholds();
+        final Thresholds distance = new Thresholds();
+        final Thresholds time = new Thresholds();
+        final List<double[]> regions = new ArrayList<>();
+        final List<Runnable> regionActions = new ArrayList<>();
+        private boolean[] regionFired = new boolean[0];
+        int regionsPending = 0;
+
+        void compile() {
+            t.compile();
+            distance.compile();
+            time.compile();
+            regionFired = new boolean[regions.size()];
+        }
+
+        void rewind() {
+            t.next = 0;
+            distance.next = 0;
+            time.next = 0;
+            for (int i = 0; i < regionFired.length; i++) regionFired[i] = false;
+            regionsPending = regionFired.length;
+        }
+
+        void checkRegions(Pose pose) {
+            if (pose == null) return;
+            double x = pose.getX();
+            double y = pose.getY();
+            for (int i = 0; i < regionFired.length; i++) {
+                if (regionFired[i]) continue;
+                double[] r = regions.get(i);
+                if (x >= r[0] && y >= r[1] && x <= r[2] && y <= r[3]) {
+                    regionFired[i] = true;
+                    regionsPending--;
+                    regionActions.get(i).run();
+                }
+            }
+        }
+
+        void finish() {
+            t.fireAll();
+            distance.fireAll();
+            time.fireAll();
+            regionsPending = 0;
+        }
+    }
 }
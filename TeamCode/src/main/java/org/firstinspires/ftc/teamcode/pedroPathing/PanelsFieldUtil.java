@@ -8,6 +8,8 @@ import com.pedropathing.geometry.Pose;
 import com.pedropathing.paths.Path;
 import com.pedropathing.paths.PathChain;
 
+import org.firstinspires.ftc.teamcode.control.ControlMath;
+
 /**
  * Public utility for drawing paths and robot pose on Panels Field.
  * Use from any OpMode to visualize planned paths and current robot pose.
@@ -66,11 +68,6 @@ public class PanelsFieldUtil {
     }
 
     private static void sanitize(double[][] points) {
-        if (points == null) return;
-        for (int i = 0; i < points[0].length; i++) {
-            for (int j = 0; j < points.length; j++) {
-                if (Double.isNaN(points[j][i])) points[j][i] = 0;
-            }
-        }
+        ControlMath.zeroNaN(points);
     }
 }
@@ -25,6 +25,16 @@ import com.pedropathing.util.*;
 import com.qualcomm.robotcore.eventloop.opmode.Disabled;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import com.qualcomm.robotcore.util.ReadWriteFile;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.control.FeedforwardFit;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.subsystems.FlywheelSubsystem;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -63,6 +73,7 @@ public class Tuning extends SelectableOpMode {
                 a.add("Lateral Velocity Tuner", LateralVelocityTuner::new);
                 a.add("Forward Zero Power Acceleration Tuner", ForwardZeroPowerAccelerationTuner::new);
                 a.add("Lateral Zero Power Acceleration Tuner", LateralZeroPowerAccelerationTuner::new);
+                a.add("Flywheel Feedforward Tuner", FlywheelFeedforwardTuner::new);
             });
             s.folder("Manual", p -> {
                 p.add("Translational Tuner", TranslationalTuner::new);
@@ -1214,6 +1225,185 @@ class Circle extends OpMode {
     }
 }
 
+/**
+ * This is the FlywheelFeedforwardTuner OpMode. It characterizes the shooter flywheel instead of
+ * the drivetrain: a quasistatic voltage ramp (acceleration ~ 0, finds kS and kV), a coast-down,
+ * then a voltage step (large acceleration, finds kA). Velocity is logged against applied voltage
+ * every loop and kS, kV and kA are fitted by least squares in the units FlywheelSubsystem uses
+ * (volts, volts per RPM, volts per RPM/s). The raw log is written to
+ * flywheel_characterization.csv in the RC settings folder. Press A at the end to save the fit;
+ * FlywheelSubsystem loads it at startup.
+ *
+ * The flywheel must be free to spin; remove any balls first.
+ */
+class FlywheelFeedforwardTuner extends OpMode {
+    public static String MOTOR_NAME = "flywheel";
+    public static double RAMP_VOLTS_PER_SEC = 0.75;
+    public static double MAX_QUASISTATIC_VOLTS = 10.0;
+    public static double COAST_SECONDS = 4.0;
+    public static double STEP_VOLTS = 8.0;
+    public static double STEP_SECONDS = 2.0;
+    public static double MIN_RPM = 30.0; // below this sign(v) is ambiguous; sample skipped
+
+    private static final int MAX_SAMPLES = 20000;
+    private static final double ACCEL_FILTER_ALPHA = 0.5;
+
+    private enum Phase { QUASISTATIC, COAST, STEP, DONE }
+
+    private final FeedforwardFit fit = new FeedforwardFit();
+    private final ElapsedTime phaseTimer = new ElapsedTime();
+    private final ElapsedTime runTimer = new ElapsedTime();
+    private final double[] logT = new double[MAX_SAMPLES];
+    private final double[] logVolts = new double[MAX_SAMPLES];
+    private final double[] logRpm = new double[MAX_SAMPLES];
+    private final double[] logAccel = new double[MAX_SAMPLES];
+    private int logCount = 0;
+
+    private DcMotorEx motor;
+    private VoltageService battery;
+
+    private Phase phase = Phase.QUASISTATIC;
+    private double appliedVolts = 0.0;
+    private double lastRpm = 0.0;
+    private double lastT = 0.0;
+    private double accel = 0.0;
+    private boolean solved = false;
+    private boolean saved = false;
+
+    @Override
+    public void init() {
+        motor = hardwareMap.get(DcMotorEx.class, MOTOR_NAME);
+        // Same setup as FlywheelSubsystem so the fitted signs match
+        motor.setDirection(DcMotorSimple.Direction.REVERSE);
+        motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.FLOAT);
+        battery = new VoltageService(hardwareMap);
+    }
+
+    /** This initializes the Panels telemetry and explains the test. */
+    @Override
+    public void init_loop() {
+        telemetryM.debug("The flywheel '" + MOTOR_NAME + "' will ramp to " + MAX_QUASISTATIC_VOLTS + " V at "
+                + RAMP_VOLTS_PER_SEC + " V/s, coast for " + COAST_SECONDS + " s, then step to " + STEP_VOLTS + " V.");
+        telemetryM.debug("Make sure it is free to spin and clear of balls.");
+        telemetryM.debug("Press B on game pad 1 to stop.");
+        telemetryM.update(telemetry);
+    }
+
+    @Override
+    public void start() {
+        runTimer.reset();
+        startPhase(Phase.QUASISTATIC);
+    }
+
+    /**
+     * This runs the OpMode. Each loop records the voltage applied last loop against the velocity
+     * it produced, then sets the next voltage for the current phase.
+     */
+    @Override
+    public void loop() {
+        if (gamepad1.bWasPressed()) {
+            motor.setPower(0);
+            requestOpModeStop();
+        }
+
+        double t = runTimer.seconds();
+        battery.update();
+
+        double rpm = motor.getVelocity() * 60.0 / FlywheelSubsystem.TICKS_PER_REV;
+        double dt = t - lastT;
+        if (dt > 0) {
+            accel = ACCEL_FILTER_ALPHA * accel + (1.0 - ACCEL_FILTER_ALPHA) * (rpm - lastRpm) / dt;
+        }
+        lastRpm = rpm;
+        lastT = t;
+
+        // Coast has no applied voltage (FLOAT leaves the terminals open), so it isn't fitted
+        if ((phase == Phase.QUASISTATIC || phase == Phase.STEP) && Math.abs(rpm) >= MIN_RPM) {
+            fit.addSample(appliedVolts, rpm, accel);
+            if (logCount < MAX_SAMPLES) {
+                logT[logCount] = t;
+                logVolts[logCount] = appliedVolts;
+                logRpm[logCount] = rpm;
+                logAccel[logCount] = accel;
+                logCount++;
+            }
+        }
+
+        double phaseT = phaseTimer.seconds();
+        switch (phase) {
+            case QUASISTATIC:
+                appliedVolts = RAMP_VOLTS_PER_SEC * phaseT;
+                if (appliedVolts > MAX_QUASISTATIC_VOLTS) startPhase(Phase.COAST);
+                break;
+            case COAST:
+                appliedVolts = 0.0;
+                if (phaseT > COAST_SECONDS) startPhase(Phase.STEP);
+                break;
+            case STEP:
+                appliedVolts = STEP_VOLTS;
+                if (phaseT > STEP_SECONDS) startPhase(Phase.DONE);
+                break;
+            case DONE:
+            default:
+                appliedVolts = 0.0;
+                break;
+        }
+        motor.setPower(battery.powerForVolts(appliedVolts));
+
+        telemetryM.debug("Phase: " + phase + "  samples: " + fit.getSampleCount());
+        telemetryM.debug("Applied (V): " + appliedVolts + "  RPM: " + rpm);
+        if (phase == Phase.DONE) {
+            if (solved) {
+                telemetryM.debug("kS: " + fit.getKS());
+                telemetryM.debug("kV: " + fit.getKV());
+                telemetryM.debug("kA: " + fit.getKA());
+                telemetryM.debug("R^2: " + fit.getRSquared());
+                telemetryM.debug(saved ? "Saved to " + FlywheelSubsystem.FEEDFORWARD_FILE
+                        : "Press A to save these for FlywheelSubsystem.");
+            } else {
+                telemetryM.debug("Fit failed: not enough distinct samples. Check the motor name and encoder.");
+            }
+        }
+        telemetryM.update(telemetry);
+
+        if (phase == Phase.DONE && solved && !saved && gamepad1.aWasPressed()) {
+            FlywheelSubsystem.saveFeedforward(fit.getKS(), fit.getKV(), fit.getKA());
+            saved = true;
+            changes.add("Flywheel kS: " + fit.getKS() + " kV: " + fit.getKV() + " kA: " + fit.getKA());
+        }
+    }
+
+    @Override
+    public void stop() {
+        motor.setPower(0);
+    }
+
+    private void startPhase(Phase next) {
+        phase = next;
+        phaseTimer.reset();
+        if (next == Phase.DONE) {
+            motor.setPower(0);
+            solved = fit.solve();
+            writeLog();
+        }
+    }
+
+    private void writeLog() {
+        StringBuilder sb = new StringBuilder(logCount * 40 + 32);
+        sb.append("t_s,volts,rpm,rpm_per_s\n");
+        for (int i = 0; i < logCount; i++) {
+            sb.append(logT[i]).append(',').append(logVolts[i]).append(',')
+                    .append(logRpm[i]).append(',').append(logAccel[i]).append('\n');
+        }
+        try {
+            ReadWriteFile.writeFile(AppUtil.getInstance().getSettingsFile("flywheel_characterization.csv"), sb.toString());
+        } catch (RuntimeException ignore) {
+            // Logging is best-effort; the fit is already in memory
+        }
+    }
+}
+
 /**
  * This is the Drawing class. It handles the drawing of stuff on Panels Dashboard, like the robot.
  *
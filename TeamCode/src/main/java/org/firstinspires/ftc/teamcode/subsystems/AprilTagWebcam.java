@@ -8,6 +8,7 @@ import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.control.ControlMath;
 import org.firstinspires.ftc.vision.VisionPortal;
 import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
 import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
@@ -97,9 +98,7 @@ public class AprilTagWebcam {
      * bearingDeg ≈ ((cx - imageCenterX) / imageCenterX) * (HFOV/2)
      */
     public static double estimateBearingFromPixels(double centerXpx, int imageWidthPx, double hfovDeg) {
-        double cx = imageWidthPx * 0.5;
-        double norm = (centerXpx - cx) / cx; // -1..1
-        return norm * (hfovDeg * 0.5);
+        return ControlMath.bearingFromPixels(centerXpx, imageWidthPx, hfovDeg);
     }
 
     /** Telemetry for a single detection. */
@@ -0,0 +1,157 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.configurables.annotations.IgnoreConfigurable;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+
+import org.firstinspires.ftc.teamcode.hardware.ColorDistanceSource;
+import org.firstinspires.ftc.teamcode.hardware.DistanceSource;
+import org.firstinspires.ftc.teamcode.hardware.SensorSampler;
+import org.firstinspires.ftc.teamcode.hardware.SensorSnapshot;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+/**
+ * Ball presence in the intake path from a color/distance sensor.
+ *
+ * A ball is "present" when the distance drops below {@link #presentMm} (or, for color-only
+ * sensors, the reflected brightness rises above {@link #presentAlpha}) and clears again with
+ * hysteresis. It is "seated" once it has been present for {@link #seatedSamples} consecutive
+ * samples, which filters out a ball bouncing past the sensor.
+ *
+ * Sampling runs at {@link #SAMPLE_PERIOD_MS}: on a {@link SensorSampler} thread after
+ * {@link #attach(SensorSampler)} (the loop never waits on I2C), otherwise directly from
+ * {@link #update()} but only once per period. Devices with a distance channel are read through
+ * {@link DistanceSource} (distance only); color-only devices fall back to the full RGBA read.
+ *
+ * The sensor is optional: if it isn't in the configuration, no ball is ever reported.
+ */
+@Configurable
+public class BallSensor {
+    public static double presentMm = 40.0;
+    public static double clearMm = 55.0;
+    public static double presentAlpha = 0.35; // color-only sensors
+    public static double clearAlpha = 0.25;
+    public static int seatedSamples = 3;
+    // Presence doesn't need a faster read, and each one holds the I2C bus the sampler shares
+    public static long SAMPLE_PERIOD_MS = 50;
+    public static final long MIN_SAMPLE_PERIOD_MS = 50;
+
+    @IgnoreConfigurable
+    private final SensorSampler.Source source; // null = no sensor configured
+    @IgnoreConfigurable
+    private SensorSnapshot snapshot; // null = sample inline
+    @IgnoreConfigurable
+    private final double[] values;
+    @IgnoreConfigurable
+    private long lastSampleNanos = 0;
+
+    @IgnoreConfigurable
+    private boolean present = false;
+    @IgnoreConfigurable
+    private int presentCount = 0;
+
+    public BallSensor(HardwareMap hardwareMap, String sensorName) {
+        this(openSource(hardwareMap, sensorName));
+    }
+
+    /**
+     * Any source laid out like {@link DistanceSource} or {@link ColorDistanceSource} (real device
+     * or sim), or null for no sensor.
+     */
+    public BallSensor(SensorSampler.Source source) {
+        this.source = source;
+        this.values = new double[source == null ? 1 : source.size()];
+        values[ColorDistanceSource.DISTANCE_MM] = Double.NaN;
+    }
+
+    private static SensorSampler.Source openSource(HardwareMap hardwareMap, String name) {
+        try {
+            return new DistanceSource(hardwareMap.get(DistanceSensor.class, name));
+        } catch (Exception ignore) {
+            // No distance channel: color-only sensor, or not configured at all
+        }
+        try {
+            return new ColorDistanceSource(hardwareMap.get(NormalizedColorSensor.class, name));
+        } catch (Exception ignore) {
+            return null;
+        }
+    }
+
+    /** Poll the sensor on {@code sampler}'s thread. Call before sampler.start(). */
+    public void attach(SensorSampler sampler) {
+        if (source != null) snapshot = sampler.addSource(source, samplePeriodMs());
+    }
+
+    private static long samplePeriodMs() {
+        return Math.max(MIN_SAMPLE_PERIOD_MS, SAMPLE_PERIOD_MS);
+    }
+
+    /** False if the sensor isn't configured; the ball is then never present. */
+    public boolean isConnected() {
+        return source != null;
+    }
+
+    /** Call once per loop. Never blocks when attached to a sampler. */
+    public void update() {
+        if (source == null) return;
+        long t;
+        if (snapshot != null) {
+            t = snapshot.read(values);
+            if (t == 0 || t == lastSampleNanos) return; // nothing new
+        } else {
+            t = System.nanoTime();
+            if (lastSampleNanos != 0 && t - lastSampleNanos < samplePeriodMs() * 1_000_000L) return;
+            source.sample(values);
+        }
+        lastSampleNanos = t;
+        onSample();
+    }
+
+    private void onSample() {
+        double mm = values[ColorDistanceSource.DISTANCE_MM];
+        if (!Double.isNaN(mm)) {
+            present = present ? mm < clearMm : mm < presentMm;
+        } else if (values.length > ColorDistanceSource.ALPHA) {
+            double alpha = values[ColorDistanceSource.ALPHA];
+            present = present ? alpha > clearAlpha : alpha > presentAlpha;
+        } else {
+            present = false; // no reading
+        }
+        if (!present) presentCount = 0;
+        else if (presentCount < seatedSamples) presentCount++;
+    }
+
+    /** Something is in front of the sensor (latest sample, with hysteresis). */
+    public boolean isBallPresent() {
+        return present;
+    }
+
+    /** A ball has stayed in front of the sensor for seatedSamples samples in a row. */
+    public boolean isBallSeated() {
+        return presentCount >= seatedSamples;
+    }
+
+    /** Forget the current ball (e.g. after it has been indexed away). */
+    public void reset() {
+        present = false;
+        presentCount = 0;
+    }
+
+    public double getDistanceMm() {
+        return values[ColorDistanceSource.DISTANCE_MM];
+    }
+
+    /** Latest normalized color; see ColorDistanceSource.RED/GREEN/BLUE/ALPHA. NaN if not sampled. */
+    public double getChannel(int index) {
+        return index < values.length ? values[index] : Double.NaN;
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields. */
+    public StringBuilder appendStatus(StringBuilder sb) {
+        if (source == null) return sb.append("no sensor");
+        sb.append("present=").append(present).append(" seated=").append(isBallSeated()).append(" mm=");
+        return TelemetryFormatter.appendFixed(sb, getDistanceMm(), 0);
+    }
+}
@@ -1,26 +1,221 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.configurables.annotations.IgnoreConfigurable;
 import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.util.ReadWriteFile;
 
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import org.firstinspires.ftc.teamcode.control.PIDFController;
+import org.firstinspires.ftc.teamcode.control.SimpleMotorFeedforward;
+import org.firstinspires.ftc.teamcode.control.SlewRateLimiter;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.MotorIO;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+import java.io.File;
+
+/**
+ * Shooter flywheel. Two modes:
+ * - open loop: {@link #setPower(double)} (raw duty cycle, as before)
+ * - velocity:  {@link #setTargetRpm(double)} + {@link #update()} every loop. Feedforward
+ *   (kS/kV/kA, in volts) plus PID on the RPM error; the setpoint ramps at maxAccelRpmPerSec so
+ *   kA has an acceleration to work with.
+ *
+ * {@link #isAtSpeed(double)} tells the feed when the wheel has recovered after a shot.
+ *
+ * kS/kV/kA are loaded at startup from {@link #FEEDFORWARD_FILE} when the Tuning "Flywheel
+ * Feedforward Tuner" has saved one; otherwise the defaults below are used.
+ */
+@Configurable
 public class FlywheelSubsystem {
-    private final DcMotorEx flywheel;
+    // Encoder ticks per flywheel revolution (bare goBILDA/REV HD motor at 1:1)
+    public static double TICKS_PER_REV = 28.0;
+
+    // Feedforward: volts, volts per RPM, volts per RPM/s
+    public static double kS = 0.30;
+    public static double kV = 0.0021;
+    public static double kA = 0.0;
+    // PID on RPM error, volts per RPM
+    public static double kP = 0.004;
+    public static double kI = 0.0;
+    public static double kD = 0.0;
+    public static double maxAccelRpmPerSec = 8000.0;
+
+    // Written by the flywheel characterization tuner, in the RC settings folder
+    public static final String FEEDFORWARD_FILE = "flywheel_feedforward.txt";
+
+    @IgnoreConfigurable
+    private final CachedMotor flywheel;
+    @IgnoreConfigurable
+    private final SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(kS, kV, kA);
+    @IgnoreConfigurable
+    private final PIDFController pid = new PIDFController(kP, kI, kD);
+    @IgnoreConfigurable
+    private final SlewRateLimiter setpointRamp = new SlewRateLimiter(maxAccelRpmPerSec);
+    @IgnoreConfigurable
+    private VoltageService battery = VoltageService.nominal();
+
+    @IgnoreConfigurable
+    private boolean velocityMode = false;
+    @IgnoreConfigurable
+    private double targetRpm = 0.0;
+    @IgnoreConfigurable
+    private double setpointRpm = 0.0; // ramped toward targetRpm
+    @IgnoreConfigurable
+    private double velocityRpm = 0.0; // read once per update()
+    @IgnoreConfigurable
+    private long lastUpdateNanos = 0;
+
     public FlywheelSubsystem(HardwareMap hardwareMap, String flywheelName) {
-        this.flywheel = hardwareMap.get(DcMotorEx.class, flywheelName);
+        this(HardwareMotorIO.get(hardwareMap, flywheelName));
+        loadFeedforward();
+    }
+
+    /** Hardware-agnostic constructor (real motor or sim). */
+    public FlywheelSubsystem(MotorIO flywheelMotor) {
+        this.flywheel = new CachedMotor(flywheelMotor);
         // Flywheel typically allowed to coast
         this.flywheel.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.FLOAT);
+        // Velocity loop runs here, not on the hub; the encoder still counts in this mode
         this.flywheel.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         this.flywheel.setDirection(DcMotorSimple.Direction.REVERSE);
     }
 
+    /** Battery compensation; defaults to {@link VoltageService#nominal()} (plain duty cycle). */
+    public void setVoltageService(VoltageService battery) {
+        this.battery = battery == null ? VoltageService.nominal() : battery;
+    }
+
+    /** Open-loop volts, compensated for battery voltage; leaves velocity mode. */
+    public void setVoltage(double volts) {
+        velocityMode = false;
+        targetRpm = 0.0;
+        flywheel.setPower(battery.powerForVolts(volts));
+    }
+
+    /** Open-loop duty cycle; leaves velocity mode. */
     public void setPower(double power) {
+        velocityMode = false;
+        targetRpm = 0.0;
         power = Math.max(-1.0, Math.min(1.0, power));
         flywheel.setPower(power);
     }
 
+    /**
+     * Closed-loop target; 0 lets the wheel coast down. Takes effect in update(). A NaN or
+     * infinite target (e.g. from a broken shot table) is ignored and the previous one kept.
+     */
+    public void setTargetRpm(double rpm) {
+        if (!Double.isFinite(rpm)) return;
+        if (!velocityMode) {
+            // Start the ramp from wherever the wheel is
+            setpointRpm = velocityRpm;
+            pid.reset();
+            lastUpdateNanos = 0;
+        }
+        velocityMode = true;
+        targetRpm = Math.max(0.0, rpm);
+    }
+
+    /** Call once per loop. Reads the encoder velocity and, in velocity mode, writes the motor. */
+    public void update() {
+        velocityRpm = flywheel.getVelocity() * 60.0 / TICKS_PER_REV;
+
+        long now = System.nanoTime();
+        long dtNanos = lastUpdateNanos == 0 ? 0 : now - lastUpdateNanos;
+        lastUpdateNanos = now;
+
+        if (!velocityMode) return;
+
+        if (targetRpm <= 0.0) {
+            setpointRpm = 0.0;
+            pid.reset();
+            flywheel.setPower(0.0);
+            return;
+        }
+
+        double prevSetpoint = setpointRpm;
+        setpointRamp.maxRatePerSec = maxAccelRpmPerSec;
+        setpointRamp.reset(setpointRpm);
+        setpointRpm = setpointRamp.calculate(targetRpm, dtNanos);
+        double accel = dtNanos > 0 ? (setpointRpm - prevSetpoint) / (dtNanos / 1e9) : 0.0;
+
+        feedforward.setGains(kS, kV, kA);
+        pid.setGains(kP, kI, kD, 0.0);
+        double volts = feedforward.calculate(setpointRpm, accel) + pid.calculate(velocityRpm, setpointRpm, dtNanos);
+        flywheel.setPower(Math.max(0.0, battery.powerForVolts(volts)));
+    }
+
+    /** True when in velocity mode with a non-zero target and the wheel within tolerance of it. */
+    public boolean isAtSpeed(double toleranceRpm) {
+        return velocityMode && targetRpm > 0.0 && Math.abs(velocityRpm - targetRpm) <= toleranceRpm;
+    }
+
+    public double getTargetRpm() {
+        return targetRpm;
+    }
+
+    /** Measured velocity from the last update(). */
+    public double getVelocityRpm() {
+        return velocityRpm;
+    }
+
+    // ---- Persisted characterization ----
+
+    /** Load kS/kV/kA from {@link #FEEDFORWARD_FILE} into the static gains. Returns false if absent/invalid. */
+    public static boolean loadFeedforward() {
+        try {
+            File file = AppUtil.getInstance().getSettingsFile(FEEDFORWARD_FILE);
+            if (!file.exists()) return false;
+            double s = Double.NaN, v = Double.NaN, a = Double.NaN;
+            for (String line : ReadWriteFile.readFile(file).split("\n")) {
+                String[] kv = line.trim().split("=");
+                if (kv.length != 2) continue;
+                double value = Double.parseDouble(kv[1].trim());
+                switch (kv[0].trim()) {
+                    case "kS": s = value; break;
+                    case "kV": v = value; break;
+                    case "kA": a = value; break;
+                    default: break;
+                }
+            }
+            if (Double.isNaN(s) || Double.isNaN(v) || Double.isNaN(a)) return false;
+            kS = s;
+            kV = v;
+            kA = a;
+            return true;
+        } catch (RuntimeException e) {
+            // Corrupt file: keep the defaults rather than failing init
+            return false;
+        }
+    }
+
+    /** Persist gains (volts, volts/RPM, volts/(RPM/s)) for the next startup and apply them now. */
+    public static void saveFeedforward(double newKS, double newKV, double newKA) {
+        kS = newKS;
+        kV = newKV;
+        kA = newKA;
+        File file = AppUtil.getInstance().getSettingsFile(FEEDFORWARD_FILE);
+        ReadWriteFile.writeFile(file, "kS=" + newKS + "\nkV=" + newKV + "\nkA=" + newKA + "\n");
+    }
+
     public String getStatus() {
-        return String.format("flywheelPower=%.2f", flywheel.getPower());
+        return appendStatus(new StringBuilder()).toString();
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields. */
+    public StringBuilder appendStatus(StringBuilder sb) {
+        sb.append("flywheelPower=");
+        TelemetryFormatter.appendFixed(sb, flywheel.getPower(), 2);
+        sb.append(" rpm=");
+        TelemetryFormatter.appendFixed(sb, velocityRpm, 0);
+        sb.append('/');
+        return TelemetryFormatter.appendFixed(sb, targetRpm, 0);
     }
 }
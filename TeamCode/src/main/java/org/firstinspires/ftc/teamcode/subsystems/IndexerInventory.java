@@ -0,0 +1,300 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.configurables.annotations.IgnoreConfigurable;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.teamcode.hardware.ColorDistanceSource;
+import org.firstinspires.ftc.teamcode.hardware.SensorSampler;
+import org.firstinspires.ftc.teamcode.hardware.SensorSnapshot;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+/**
+ * What is in each of the three carousel slots, from a color sensor at the shooting position.
+ *
+ * The sensor is only read when the indexer has just settled on a shooting preset: up to
+ * {@link #samplesPerVisit} samples, {@link #SAMPLE_PERIOD_MS} apart, vote on the slot's color,
+ * and the winning share of the votes becomes the slot's confidence. Between visits the model is
+ * plain fields, so {@link #getColor}, {@link #getConfidence} and {@link #findSlot} never touch
+ * hardware. Collection and shooting code keep it current with {@link #markCollected} and
+ * {@link #markShot}.
+ *
+ * Hue is classified through a lookup table over quantized, max-normalized RGB (hue and
+ * saturation only depend on channel ratios), built once and rebuilt only when the hue bands
+ * are edited in Panels. A classification is one table read instead of Color.colorToHSV.
+ *
+ * Like {@link BallSensor}, sampling runs on a {@link SensorSampler} thread after
+ * {@link #attach(SensorSampler)}, otherwise inline from {@link #update()}. On the sampler the
+ * source is only enabled for the length of a visit (the first sample taken after settling is
+ * used), so the sensor costs no I2C time while the carousel moves or sits at collection.
+ *
+ * The sensor is optional: without it every slot stays UNKNOWN until marked by
+ * {@link #markShot}, and {@link #findSlot} finds nothing.
+ */
+@Configurable
+public class IndexerInventory {
+    public enum BallColor { EMPTY, BLUE, PURPLE, UNKNOWN }
+
+    // Hue bands in degrees; anything else, or too grey (saturation below minSaturation), is UNKNOWN
+    public static double blueHueMin = 200.0;
+    public static double blueHueMax = 260.0;
+    public static double purpleHueMin = 260.0;
+    public static double purpleHueMax = 340.0;
+    public static double minSaturation = 0.2;
+    // Nothing in the slot beyond this distance (or below emptyAlpha on color-only sensors)
+    public static double emptyMm = 60.0;
+    public static double emptyAlpha = 0.1;
+    public static int samplesPerVisit = 3;
+    public static long SAMPLE_PERIOD_MS = 20;
+    // findSlot ignores slots whose color is less certain than this
+    public static double minConfidence = 0.6;
+
+    // Quantization per channel: 32 levels -> 32^3 = 32 KB table
+    private static final int BITS = 5;
+    private static final int LEVELS = 1 << BITS;
+    private static final BallColor[] COLORS = BallColor.values();
+
+    @IgnoreConfigurable
+    private final SensorSampler.Source source; // null = no sensor configured
+    @IgnoreConfigurable
+    private final IndexerSubsystem indexer;
+    @IgnoreConfigurable
+    private SensorSampler sampler;
+    @IgnoreConfigurable
+    private SensorSnapshot snapshot; // null = sample inline
+    @IgnoreConfigurable
+    private final double[] values;
+    @IgnoreConfigurable
+    private long lastSampleNanos = 0;
+
+    @IgnoreConfigurable
+    private final byte[] hueTable = new byte[LEVELS * LEVELS * LEVELS];
+    @IgnoreConfigurable
+    private final double[] builtBands = new double[5];
+
+    // Slot model, indexed by IndexerSubsystem.Selection ordinal
+    @IgnoreConfigurable
+    private final BallColor[] slots = {BallColor.UNKNOWN, BallColor.UNKNOWN, BallColor.UNKNOWN};
+    @IgnoreConfigurable
+    private final double[] confidence = new double[3];
+
+    // Current visit
+    @IgnoreConfigurable
+    private boolean wasSettled = false;
+    @IgnoreConfigurable
+    private int visitSlot = -1; // -1 = not sampling
+    @IgnoreConfigurable
+    private long visitStartNanos = 0;
+    @IgnoreConfigurable
+    private int visitSamples = 0;
+    @IgnoreConfigurable
+    private final int[] votes = new int[COLORS.length];
+
+    public IndexerInventory(HardwareMap hardwareMap, String sensorName, IndexerSubsystem indexer) {
+        this(openSource(hardwareMap, sensorName), indexer);
+    }
+
+    /** Any source laid out like {@link ColorDistanceSource} (real device or sim), or null for none. */
+    public IndexerInventory(SensorSampler.Source source, IndexerSubsystem indexer) {
+        this.source = source;
+        this.indexer = indexer;
+        this.values = new double[source == null ? 5 : source.size()];
+        buildHueTable();
+    }
+
+    private static SensorSampler.Source openSource(HardwareMap hardwareMap, String name) {
+        try {
+            return new ColorDistanceSource(hardwareMap, name);
+        } catch (Exception ignore) {
+            return null;
+        }
+    }
+
+    /** Sample on {@code sampler}'s thread, during visits only. Call before sampler.start(). */
+    public void attach(SensorSampler sampler) {
+        if (source == null) return;
+        this.sampler = sampler;
+        snapshot = sampler.addSource(source, SAMPLE_PERIOD_MS, false);
+    }
+
+    /** False if the color sensor isn't configured. */
+    public boolean isConnected() {
+        return source != null;
+    }
+
+    /** Call once per loop, after indexer.update(). Reads the sensor only during a visit. */
+    public void update() {
+        if (bandsChanged()) buildHueTable();
+
+        boolean settled = indexer.isSettled();
+        if (source == null) {
+            wasSettled = settled;
+            return;
+        }
+        if (settled && !wasSettled && indexer.isAtShootingPreset()) {
+            visitSlot = indexer.getSelection().ordinal();
+            visitStartNanos = System.nanoTime();
+            visitSamples = 0;
+            for (int i = 0; i < votes.length; i++) votes[i] = 0;
+            if (snapshot != null) sampler.setEnabled(snapshot, true);
+        } else if (!settled && visitSlot >= 0) {
+            // Moved away mid-visit: keep what we saw
+            finishVisit();
+        }
+        wasSettled = settled;
+
+        if (visitSlot < 0) return;
+        if (!sample()) return;
+        votes[classify(values).ordinal()]++;
+        visitSamples++;
+        if (visitSamples >= samplesPerVisit) finishVisit();
+    }
+
+    /** Fetch a fresh sample taken after the visit began; false if none is due yet. */
+    private boolean sample() {
+        long t;
+        if (snapshot != null) {
+            t = snapshot.read(values);
+            if (t == 0 || t == lastSampleNanos || t < visitStartNanos) return false;
+        } else {
+            t = System.nanoTime();
+            if (visitSamples > 0 && t - lastSampleNanos < SAMPLE_PERIOD_MS * 1_000_000L) return false;
+            source.sample(values);
+        }
+        lastSampleNanos = t;
+        return true;
+    }
+
+    private void finishVisit() {
+        if (visitSamples > 0) {
+            int best = 0;
+            for (int i = 1; i < votes.length; i++) {
+                if (votes[i] > votes[best]) best = i;
+            }
+            slots[visitSlot] = COLORS[best];
+            confidence[visitSlot] = (double) votes[best] / visitSamples;
+        }
+        visitSlot = -1;
+        if (snapshot != null) sampler.setEnabled(snapshot, false);
+    }
+
+    /** Classify one sample laid out like {@link ColorDistanceSource}. */
+    public BallColor classify(double[] sample) {
+        double mm = sample[ColorDistanceSource.DISTANCE_MM];
+        if (Double.isNaN(mm) ? sample[ColorDistanceSource.ALPHA] < emptyAlpha : mm > emptyMm) {
+            return BallColor.EMPTY;
+        }
+        double r = sample[ColorDistanceSource.RED];
+        double g = sample[ColorDistanceSource.GREEN];
+        double b = sample[ColorDistanceSource.BLUE];
+        double max = Math.max(r, Math.max(g, b));
+        if (!(max > 0.0)) return BallColor.UNKNOWN;
+        double scale = (LEVELS - 1) / max;
+        int ri = (int) (r * scale + 0.5);
+        int gi = (int) (g * scale + 0.5);
+        int bi = (int) (b * scale + 0.5);
+        return COLORS[hueTable[(ri << (2 * BITS)) | (gi << BITS) | bi]];
+    }
+
+    private boolean bandsChanged() {
+        return builtBands[0] != blueHueMin || builtBands[1] != blueHueMax
+                || builtBands[2] != purpleHueMin || builtBands[3] != purpleHueMax
+                || builtBands[4] != minSaturation;
+    }
+
+    private void buildHueTable() {
+        builtBands[0] = blueHueMin;
+        builtBands[1] = blueHueMax;
+        builtBands[2] = purpleHueMin;
+        builtBands[3] = purpleHueMax;
+        builtBands[4] = minSaturation;
+        for (int ri = 0; ri < LEVELS; ri++) {
+            for (int gi = 0; gi < LEVELS; gi++) {
+                for (int bi = 0; bi < LEVELS; bi++) {
+                    hueTable[(ri << (2 * BITS)) | (gi << BITS) | bi] = (byte) hueClass(ri, gi, bi).ordinal();
+                }
+            }
+        }
+    }
+
+    /** Same hue/saturation as Color.colorToHSV, on quantized channels. */
+    private static BallColor hueClass(int r, int g, int b) {
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        if (max == 0 || (double) (max - min) / max < minSaturation) return BallColor.UNKNOWN;
+        double d = max - min;
+        double hue;
+        if (max == r) hue = 60.0 * (((g - b) / d) % 6.0);
+        else if (max == g) hue = 60.0 * ((b - r) / d + 2.0);
+        else hue = 60.0 * ((r - g) / d + 4.0);
+        if (hue < 0.0) hue += 360.0;
+        if (hue >= blueHueMin && hue < blueHueMax) return BallColor.BLUE;
+        if (hue >= purpleHueMin && hue < purpleHueMax) return BallColor.PURPLE;
+        return BallColor.UNKNOWN;
+    }
+
+    public BallColor getColor(IndexerSubsystem.Selection slot) {
+        return slots[slot.ordinal()];
+    }
+
+    /** Share of the last visit's samples that agreed on the slot's color (0..1). */
+    public double getConfidence(IndexerSubsystem.Selection slot) {
+        return confidence[slot.ordinal()];
+    }
+
+    /** The slot most confidently holding {@code color} (at least minConfidence), or null. */
+    public IndexerSubsystem.Selection findSlot(BallColor color) {
+        int best = -1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == color && confidence[i] >= minConfidence
+                    && (best < 0 || confidence[i] > confidence[best])) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : IndexerSubsystem.Selection.values()[best];
+    }
+
+    /**
+     * Slot colors as BallColor ordinals for planners (e.g. ShotOrderPlanner), with slots less
+     * certain than minConfidence reported as UNKNOWN.
+     */
+    public void getConfidentColors(int[] out) {
+        for (int i = 0; i < slots.length; i++) {
+            out[i] = (confidence[i] >= minConfidence ? slots[i] : BallColor.UNKNOWN).ordinal();
+        }
+    }
+
+    /** A ball went into {@code slot}; its color is unknown until the slot is next seen. */
+    public void markCollected(IndexerSubsystem.Selection slot) {
+        slots[slot.ordinal()] = BallColor.UNKNOWN;
+        confidence[slot.ordinal()] = 0.0;
+    }
+
+    /** The ball in {@code slot} was fired. */
+    public void markShot(IndexerSubsystem.Selection slot) {
+        slots[slot.ordinal()] = BallColor.EMPTY;
+        confidence[slot.ordinal()] = 1.0;
+    }
+
+    /** Forget everything (e.g. after the carousel was loaded by hand). */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = BallColor.UNKNOWN;
+            confidence[i] = 0.0;
+        }
+        visitSlot = -1;
+        if (snapshot != null) sampler.setEnabled(snapshot, false);
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields. */
+    public StringBuilder appendStatus(StringBuilder sb) {
+        if (source == null) sb.append("no sensor ");
+        for (int i = 0; i < slots.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(i + 1).append('=').append(slots[i].name()).append('(');
+            TelemetryFormatter.appendFixed(sb, confidence[i], 2).append(')');
+        }
+        if (visitSlot >= 0) sb.append(" sampling");
+        return sb;
+    }
+}
@@ -4,41 +4,97 @@ import com.bylazar.configurables.annotations.Configurable;
 import com.bylazar.configurables.annotations.IgnoreConfigurable;
 
 import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.Servo;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.CommandScheduler;
+import org.firstinspires.ftc.teamcode.command.ConditionalCommand;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.ParallelRaceGroup;
+import org.firstinspires.ftc.teamcode.command.SequentialCommandGroup;
+import org.firstinspires.ftc.teamcode.command.StartEndCommand;
+import org.firstinspires.ftc.teamcode.command.Subsystem;
+import org.firstinspires.ftc.teamcode.command.WaitCommand;
+import org.firstinspires.ftc.teamcode.command.WaitUntilCommand;
+import org.firstinspires.ftc.teamcode.control.TrapezoidProfile;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
+import org.firstinspires.ftc.teamcode.hardware.SensorSnapshot;
+import org.firstinspires.ftc.teamcode.hardware.ServoSpeeds;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareServoIO;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareTouchSensorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.MotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.ServoIO;
+import org.firstinspires.ftc.teamcode.hardware.io.TouchSensorIO;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Carousel indexer + feed lever.
+ *
+ * Preset moves are profiled position control run from {@link #update()}: a trapezoidal profile
+ * sized for the carousel's inertia, kS/kV/kA feedforward and encoder PD on the profile setpoint,
+ * in volts. {@link #isSettled()} reports arrival from position and velocity error, so callers
+ * can continue the moment the carousel stops instead of waiting a fixed time.
+ *
+ * With {@link #shortestPath} on, presets are carousel angles: each one is taken modulo
+ * {@link #carouselTicksPerRev} and the carousel turns whichever way is shorter. The encoder
+ * itself stays unwrapped (it keeps counting across turns); magnet homing compares positions
+ * modulo one turn so it keeps working after any number of revolutions.
+ */
 @Configurable
-public class IndexerSubsystem {
+public class IndexerSubsystem implements Subsystem {
     public enum Selection {
         POSITION_1, POSITION_2, POSITION_3
     }
 
     @IgnoreConfigurable
-    private final DcMotorEx indexerMotor; // motor with encoder controlling indexer
+    private final CachedMotor indexerMotor; // motor with encoder controlling indexer
     @IgnoreConfigurable
-    private final Servo feedLeverServo; // lever that feeds balls into intake
+    private final CachedServo feedLeverServo; // lever that feeds balls into intake
     @IgnoreConfigurable
-    private final TouchSensor magnetSensor;
+    private final TouchSensorIO magnetSensor; // null = no magnet homing
     // Manual mode removed
 
     // Magnet sensor logic
 
-    // switch to true if we start the robot with the magnet, needs to be accurate
-    private static boolean previousMagnetState = false;
     // current encoder value needs to be +- this amount to expected to regester the
     // magnet, approx value
     public static final int approxEncoderAccuracy = 50;
-    public static int magnetBasedOffset;
 
-    // default value in case we start on the magnet, may be slightly inaccurate, but
-    // should fix itself after 1 rotation
+    // interpolated encoder tick of the last accepted rising edge (for telemetry)
     public static int magnetRisingEdgePosition = 0;
 
-    // magnet positions in encoder ticks(note: define this position as the encoder
-    // tick when the magnet is centered)
-    // !!Warning!! these are guessed values, need to update before using
+    // Edge detector state: one (encoder, switch) sample per loop
+    @IgnoreConfigurable
+    private boolean haveMagnetSample = false;
+    @IgnoreConfigurable
+    private int prevMagnetTicks;
+    @IgnoreConfigurable
+    private boolean prevMagnetPressed;
+    @IgnoreConfigurable
+    private double risingEdgeTicks = Double.NaN;
+    // Encoder ticks where the magnets were found, minus where the presets expect them. Added to
+    // every preset; the static presets themselves never change, so re-homing can't compound.
+    @IgnoreConfigurable
+    private int magnetOffset = 0;
+
+    // Optional sampler-thread input (see useInputSnapshot)
+    @IgnoreConfigurable
+    private SensorSnapshot inputSnapshot;
+    @IgnoreConfigurable
+    private double[] inputValues;
+    @IgnoreConfigurable
+    private int snapshotPositionIndex, snapshotSwitchIndex;
+    @IgnoreConfigurable
+    private double snapshotMaxAgeMs;
+    @IgnoreConfigurable
+    private long lastSnapshotNanos = 0;
+
     public static int magnetPosition1 = 0;
     public static int magnetPosition2 = 192;
 
@@ -52,16 +108,48 @@ public class IndexerSubsystem {
     public static int COLLECTION_2 = 332;
     public static int COLLECTION_3 = 241;
 
+    // ===== Position control (ticks, seconds, volts) =====
+    public static double kS = 0.6;
+    public static double kV = 0.0043;   // ~12 V / 2800 ticks/s free speed
+    public static double kA = 0.0003;
+    public static double kP = 0.05;     // volts per tick of position error
+    public static double kD = 0.002;    // volts per tick/s of velocity error
+    public static double maxVelTicksPerSec = 1500.0;
+    public static double maxAccelTicksPerSec2 = 6000.0;
+    // Settled = profile done and within both tolerances
+    public static double settleToleranceTicks = 6.0;
+    public static double settleVelocityTicksPerSec = 40.0;
+    public static double maxPower = 0.8;
+
+    // ===== Carousel wrap =====
+    // Encoder ticks for one full carousel turn, from the presets above: the shooting presets are
+    // ~96 ticks apart (0, 94, 192), so 3 slots = 288 per turn, and each collection preset sits
+    // half a turn (144) from its shooting preset (429, 332, 241 = 0, 192, 94 + 144 mod 288).
+    // Re-measure if the gearing changes before relying on shortestPath.
+    public static double carouselTicksPerRev = 288.0;
+    // Presets are positions modulo one turn; move the shorter way around
+    public static boolean shortestPath = false;
+
     @IgnoreConfigurable
-    private Selection selection = Selection.POSITION_2; // default to middle
+    private final TrapezoidProfile profile = new TrapezoidProfile(maxVelTicksPerSec, maxAccelTicksPerSec2);
+    @IgnoreConfigurable
+    private boolean positionControl = false;
+    @IgnoreConfigurable
+    private int goalTicks = 0;
+    @IgnoreConfigurable
+    private long lastControlNanos = 0;
+    @IgnoreConfigurable
+    private VoltageService battery = VoltageService.nominal();
 
-    // Lever pulse config
     @IgnoreConfigurable
-    private final ElapsedTime leverTimer = new ElapsedTime();
+    private Selection selection = Selection.POSITION_2; // default to middle
     @IgnoreConfigurable
-    private boolean leverPulsing = false;
+    private boolean shootingPreset = false; // last preset move was setSelection (not collection)
+
+    // Lever pulse config. Stroke timing comes from the lever's servo motion model
+    // (CachedServo.isArrived); leverHoldMs is optional extra dwell at the engaged position.
     @IgnoreConfigurable
-    private long leverPulseMs = 200;
+    private long leverHoldMs = 0;
     @IgnoreConfigurable
     private double leverIdlePos = 0.2;
     @IgnoreConfigurable
@@ -69,72 +157,145 @@ public class IndexerSubsystem {
     @IgnoreConfigurable
     private double leverMaxPos = 0.6; // cap the physical max position
 
+    // The lever is its own requirement so it can fire while a macro owns the carousel
+    @IgnoreConfigurable
+    private final Subsystem lever = new Subsystem() {};
+    @IgnoreConfigurable
+    private final Command leverPulse;
+    @IgnoreConfigurable
+    private BooleanSupplier feedGate; // null = fire immediately
+    @IgnoreConfigurable
+    private BooleanSupplier feedArmed; // null = a waiting pulse is never dropped
+    @IgnoreConfigurable
+    private boolean pulseArmed; // feedArmed when the pulse started waiting
+    @IgnoreConfigurable
+    private boolean pulseDropped;
+    @IgnoreConfigurable
+    private boolean leverPulsing; // a stroke is out or returning, whichever command runs it
+
+    /** Without a magnet sensor: presets are never re-homed. */
     public IndexerSubsystem(HardwareMap hardwareMap, String indexerMotorName, String feedLeverServoName) {
-        this.indexerMotor = hardwareMap.get(DcMotorEx.class, indexerMotorName);
+        this(hardwareMap, indexerMotorName, feedLeverServoName, null);
+    }
+
+    public IndexerSubsystem(HardwareMap hardwareMap, String indexerMotorName, String feedLeverServoName,
+                            String magnetSensorName) {
+        this(HardwareMotorIO.get(hardwareMap, indexerMotorName),
+                HardwareServoIO.get(hardwareMap, feedLeverServoName),
+                magnetSensorName == null ? null : HardwareTouchSensorIO.get(hardwareMap, magnetSensorName));
+        this.feedLeverServo.setSpeed(ServoSpeeds.get(feedLeverServoName, ServoSpeeds.DEFAULT_UNITS_PER_SEC));
+    }
+
+    /** Hardware-agnostic constructor (real devices or sims). {@code magnetSensor} may be null. */
+    public IndexerSubsystem(MotorIO indexerMotor, ServoIO feedLeverServo, TouchSensorIO magnetSensor) {
+        this.magnetSensor = magnetSensor;
+
+        this.indexerMotor = new CachedMotor(indexerMotor);
         this.indexerMotor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        this.indexerMotor.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+        // Position control is done here (update()), not by the hub's RUN_TO_POSITION
+        this.indexerMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         this.indexerMotor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
         this.indexerMotor.setPower(0.0);
 
-        this.feedLeverServo = hardwareMap.get(Servo.class, feedLeverServoName);
+        this.feedLeverServo = new CachedServo(feedLeverServo);
         this.feedLeverServo.setDirection(Servo.Direction.REVERSE);
         this.feedLeverServo.setPosition(Math.min(leverIdlePos, leverMaxPos));
+
+        this.leverPulse = createLeverPulse();
     }
 
+    /**
+     * Read the magnet switch from a {@link org.firstinspires.ftc.teamcode.hardware.SensorSampler}
+     * snapshot instead of the OpMode thread. The snapshot must hold the indexer's raw encoder
+     * position and the switch's raw digital state (REV magnetic switches read LOW at the magnet),
+     * e.g. a HubInputSource on the indexer's hub. Falls back to direct reads when the snapshot is
+     * older than {@code maxAgeMs}.
+     */
+    public void useInputSnapshot(SensorSnapshot snapshot, int positionIndex, int switchIndex, double maxAgeMs) {
+        this.inputSnapshot = snapshot;
+        this.inputValues = snapshot == null ? null : new double[snapshot.size()];
+        this.snapshotPositionIndex = positionIndex;
+        this.snapshotSwitchIndex = switchIndex;
+        this.snapshotMaxAgeMs = maxAgeMs;
+        this.lastSnapshotNanos = 0;
+        this.haveMagnetSample = false;
+    }
+
+    /**
+     * Magnet homing. Takes one (encoder, switch) sample per call and looks for edges against the
+     * previous sample. The switch flipped somewhere between the two encoder readings, so the edge
+     * tick is interpolated as their midpoint; the magnet center is the midpoint of the rising and
+     * falling edges. Accuracy no longer depends on how far the carousel moved during the loop.
+     */
     public void updateMagnet() {
-        // rising edge
-        if (!previousMagnetState && magnetSensor.isPressed()) {
-            // at magnet 1 or 2
-            if ((indexerMotor.getCurrentPosition() > magnetPosition1 - approxEncoderAccuracy)
-                    && (indexerMotor.getCurrentPosition() < magnetPosition1 + approxEncoderAccuracy)
-                    || (indexerMotor.getCurrentPosition() > magnetPosition2 - approxEncoderAccuracy)
-                            && (indexerMotor.getCurrentPosition() < magnetPosition2 + approxEncoderAccuracy)) {
-                magnetRisingEdgePosition = indexerMotor.getCurrentPosition();
-            }
+        if (inputSnapshot != null && inputSnapshot.isFresh(snapshotMaxAgeMs)) {
+            long t = inputSnapshot.read(inputValues);
+            if (t == lastSnapshotNanos) return; // no new sample since last loop
+            lastSnapshotNanos = t;
+            onMagnetSample((int) inputValues[snapshotPositionIndex], inputValues[snapshotSwitchIndex] < 0.5);
+        } else if (magnetSensor != null) {
+            onMagnetSample(indexerMotor.getCurrentPosition(), magnetSensor.isPressed());
         }
+    }
 
-        // falling edge
-        else if (previousMagnetState && !magnetSensor.isPressed()) {
-            // at magnet 1
-            if ((indexerMotor.getCurrentPosition() > magnetPosition1 - approxEncoderAccuracy)
-                    && (indexerMotor.getCurrentPosition() < magnetPosition1 + approxEncoderAccuracy)) {
-                // calculate average to find encoder position of the magnet, not the
-                // rising/falling edge of it
-                int average = (int) ((magnetRisingEdgePosition + indexerMotor.getCurrentPosition()) / 2.0);
-                magnetBasedOffset = magnetPosition1 - average;
-                POSITION_1 += magnetBasedOffset;
-                POSITION_2 += magnetBasedOffset;
-                POSITION_3 += magnetBasedOffset;
-                COLLECTION_1 += magnetBasedOffset;
-                COLLECTION_2 += magnetBasedOffset;
-                COLLECTION_3 += magnetBasedOffset;
-                magnetPosition1 += magnetBasedOffset;
-                magnetPosition2 += magnetBasedOffset;
-            }
+    private void onMagnetSample(int ticks, boolean pressed) {
+        if (!haveMagnetSample) {
+            // first sample (possibly already on the magnet): nothing to compare against yet
+            haveMagnetSample = true;
+            prevMagnetTicks = ticks;
+            prevMagnetPressed = pressed;
+            return;
+        }
 
-            // at magnet 2
-            else if ((indexerMotor.getCurrentPosition() > magnetPosition2 - approxEncoderAccuracy)
-                    && (indexerMotor.getCurrentPosition() < magnetPosition2 + approxEncoderAccuracy)) {
-                // calculate average to find encoder position of the magnet, not the
-                // rising/falling edge of it
-                int average = (int) ((magnetRisingEdgePosition + indexerMotor.getCurrentPosition()) / 2.0);
-                magnetBasedOffset = magnetPosition2 - average;
-                POSITION_1 += magnetBasedOffset;
-                POSITION_2 += magnetBasedOffset;
-                POSITION_3 += magnetBasedOffset;
-                COLLECTION_1 += magnetBasedOffset;
-                COLLECTION_2 += magnetBasedOffset;
-                COLLECTION_3 += magnetBasedOffset;
-                magnetPosition1 += magnetBasedOffset;
-                magnetPosition2 += magnetBasedOffset;
+        if (pressed != prevMagnetPressed) {
+            double edgeTicks = (prevMagnetTicks + ticks) / 2.0;
+            if (pressed) {
+                // rising edge: only trust it near magnet 1 or 2
+                if (nearestMagnet(edgeTicks) != 0) {
+                    risingEdgeTicks = edgeTicks;
+                    magnetRisingEdgePosition = (int) Math.round(edgeTicks);
+                } else {
+                    risingEdgeTicks = Double.NaN;
+                }
+            } else if (!Double.isNaN(risingEdgeTicks)) {
+                // falling edge: magnet center is halfway between the two edges
+                double center = (risingEdgeTicks + edgeTicks) / 2.0;
+                int magnet = nearestMagnet(center);
+                // Offsets are modulo one turn: presets stay in carousel angle, not turn count
+                if (magnet == 1) {
+                    magnetOffset = (int) Math.round(wrapTicks(center - magnetPosition1));
+                } else if (magnet == 2) {
+                    magnetOffset = (int) Math.round(wrapTicks(center - magnetPosition2));
+                }
+                risingEdgeTicks = Double.NaN;
             }
         }
-        // update previous state for falling/rising edge
-        previousMagnetState = magnetSensor.isPressed();
+
+        prevMagnetTicks = ticks;
+        prevMagnetPressed = pressed;
     }
 
-    public void setLeverConfig(long pulseMs, double idle, double engaged) {
-        leverPulseMs = pulseMs;
+    /** 1 or 2 if {@code ticks} is within approxEncoderAccuracy of where that magnet is expected, else 0. */
+    private int nearestMagnet(double ticks) {
+        if (Math.abs(wrapTicks(ticks - magnetPosition1 - magnetOffset)) < approxEncoderAccuracy) return 1;
+        if (Math.abs(wrapTicks(ticks - magnetPosition2 - magnetOffset)) < approxEncoderAccuracy) return 2;
+        return 0;
+    }
+
+    /** In shortestPath mode, {@code delta} wrapped to half a carousel turn either way; else unchanged. */
+    private static double wrapTicks(double delta) {
+        if (!shortestPath || carouselTicksPerRev <= 0) return delta;
+        return delta - carouselTicksPerRev * Math.round(delta / carouselTicksPerRev);
+    }
+
+    /** Homing correction added to every preset, encoder ticks (0 until a magnet has been passed). */
+    public int getMagnetOffset() {
+        return magnetOffset;
+    }
+
+    /** {@code holdMs}: extra time at the engaged position after the modeled stroke (0 = none). */
+    public void setLeverConfig(long holdMs, double idle, double engaged) {
+        leverHoldMs = holdMs;
         leverIdlePos = Math.min(idle, leverMaxPos);
         leverEngagedPos = Math.min(engaged, leverMaxPos);
     }
@@ -152,26 +313,26 @@ public class IndexerSubsystem {
     /** Choose which preset aligns with the turret. */
     public void setSelection(Selection sel) {
         this.selection = sel;
-        int target;
+        this.shootingPreset = true;
+        moveToSlot(getShootingPresetTicks(sel));
+    }
+
+    /** Encoder ticks of {@code sel}'s shooting preset, homing offset included. */
+    public int getShootingPresetTicks(Selection sel) {
         switch (sel) {
             case POSITION_1:
-                target = POSITION_1;
-                break;
+                return POSITION_1 + magnetOffset;
             case POSITION_2:
-                target = POSITION_2;
-                break;
+                return POSITION_2 + magnetOffset;
             case POSITION_3:
             default:
-                target = POSITION_3;
-                break;
+                return POSITION_3 + magnetOffset;
         }
-        indexerMotor.setTargetPosition(target);
-        indexerMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        indexerMotor.setPower(0.6); // move power; tune as needed
     }
 
     /** Choose which collection preset to move to. */
     public void setCollectionSelection(Selection sel) {
+        shootingPreset = false;
         int target;
         switch (sel) {
             case POSITION_1:
@@ -185,49 +346,180 @@ public class IndexerSubsystem {
                 target = COLLECTION_3;
                 break;
         }
-        indexerMotor.setTargetPosition(target);
-        indexerMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        indexerMotor.setPower(0.6);
+        moveToSlot(target + magnetOffset);
     }
 
     public Selection getSelection() {
         return selection;
     }
 
+    /** True if the last preset move was {@link #setSelection}, i.e. getSelection() faces the turret. */
+    public boolean isAtShootingPreset() {
+        return shootingPreset;
+    }
+
     // Manual mode APIs removed
 
-    /** Call once per loop to maintain lever pulse timing. */
+    /** Battery compensation; defaults to {@link VoltageService#nominal()} (plain duty cycle). */
+    public void setVoltageService(VoltageService battery) {
+        this.battery = battery == null ? VoltageService.nominal() : battery;
+    }
+
+    /** Call once per loop: magnet homing and the carousel position loop. Lever timing is handled by the CommandScheduler. */
     public void update() {
-        updateLever();
+        update(System.nanoTime());
+    }
+
+    /** {@link #update()} at loop time {@code nowNanos} (e.g. a simulated clock in host tests). */
+    public void update(long nowNanos) {
         updateMagnet();
+        if (positionControl) {
+            updatePositionControl(nowNanos);
+        }
     }
 
-    /** Trigger feed lever pulse on button press (e.g., gamepad2.y). */
-    public void handleLeverButton(boolean pressed) {
-        if (pressed && !leverPulsing) {
-            leverPulsing = true;
-            leverTimer.reset();
-            feedLeverServo.setPosition(Math.min(leverEngagedPos, leverMaxPos));
+    private void updatePositionControl(long now) {
+        double dt = lastControlNanos == 0 ? 0.0 : (now - lastControlNanos) / 1e9;
+        lastControlNanos = now;
+
+        // PD compares the measurement with the setpoint for this instant; feedforward drives
+        // toward the next one, which is where the profile will be when this power is replaced
+        double measuredSpPos = profile.getPosition();
+        double measuredSpVel = profile.getVelocity();
+        profile.maxVelocity = maxVelTicksPerSec;
+        profile.maxAcceleration = maxAccelTicksPerSec2;
+        profile.step(goalTicks, dt);
+
+        double spVel = profile.getVelocity();
+        double pos = indexerMotor.getCurrentPosition();
+        double volts = kV * spVel + kA * profile.getAcceleration()
+                + kP * (measuredSpPos - pos) + kD * (measuredSpVel - indexerMotor.getVelocity());
+        // Static friction: push while moving or still outside tolerance, not while holding
+        if (spVel != 0.0) {
+            volts += kS * Math.signum(spVel);
+        } else if (Math.abs(goalTicks - pos) > settleToleranceTicks) {
+            volts += kS * Math.signum(goalTicks - pos);
         }
+        double power = battery.powerForVolts(volts);
+        indexerMotor.setPower(Math.max(-maxPower, Math.min(maxPower, power)));
     }
 
-    /** Non-blocking lever update, return to idle after pulse. */
-    public void updateLever() {
-        if (leverPulsing && leverTimer.milliseconds() >= leverPulseMs) {
-            feedLeverServo.setPosition(Math.min(leverIdlePos, leverMaxPos));
-            leverPulsing = false;
+    /**
+     * Gate the feed lever: each pulse waits until {@code ready} is true before engaging, so a held
+     * button fires as soon as the flywheel has recovered instead of on a fixed delay.
+     * Pass null to fire immediately.
+     */
+    public void setFeedGate(BooleanSupplier ready) {
+        setFeedGate(ready, null);
+    }
+
+    /**
+     * Like {@link #setFeedGate(BooleanSupplier)}, and a pulse that starts waiting while
+     * {@code armed} is true (e.g. flywheel target above zero) is dropped if {@code armed} turns
+     * false before {@code ready} does, instead of firing into a wheel that is coasting down.
+     */
+    public void setFeedGate(BooleanSupplier ready, BooleanSupplier armed) {
+        feedGate = ready;
+        feedArmed = armed;
+    }
+
+    /** Lever pulse wait step: true once the gate opens or the pulse has been dropped. */
+    private boolean feedGateDecided() {
+        if (pulseArmed && feedArmed != null && !feedArmed.getAsBoolean()) {
+            pulseDropped = true;
+            return true;
+        }
+        return feedGate == null || feedGate.getAsBoolean();
+    }
+
+    /**
+     * New feed lever pulse: wait for the feed gate, engage until the lever is estimated to have
+     * arrived (+ leverHoldMs), then always return to idle (also if interrupted) and wait for the
+     * return stroke so a held button doesn't re-fire from half way. A pulse whose gate was
+     * disarmed while it waited ends without moving the lever. Requires
+     * {@link #getLeverRequirement()}, so only one pulse runs at a time.
+     *
+     * Build one per place it is used (each macro step, say) at init: a command instance can
+     * only belong to one group.
+     */
+    public Command createLeverPulse() {
+        CachedServo leverServo = feedLeverServo;
+        Command stroke = new ParallelRaceGroup(
+                new StartEndCommand(() -> leverPulsing = true, () -> leverPulsing = false),
+                new SequentialCommandGroup(
+                        new ParallelRaceGroup(
+                                new StartEndCommand(
+                                        () -> leverServo.setPosition(Math.min(leverEngagedPos, leverMaxPos)),
+                                        () -> leverServo.setPosition(Math.min(leverIdlePos, leverMaxPos))),
+                                new SequentialCommandGroup(
+                                        new WaitUntilCommand(leverServo::isArrived),
+                                        new WaitCommand(() -> leverHoldMs))),
+                        new WaitUntilCommand(leverServo::isArrived)));
+        return new SequentialCommandGroup(
+                new InstantCommand(() -> {
+                    pulseArmed = feedArmed != null && feedArmed.getAsBoolean();
+                    pulseDropped = false;
+                }),
+                new WaitUntilCommand(this::feedGateDecided),
+                new ConditionalCommand(stroke, new InstantCommand(null), () -> !pulseDropped))
+                .requires(lever);
+    }
+
+    /** The lever pulse {@link #handleLeverButton} schedules. Use {@link #createLeverPulse()} in groups. */
+    public Command getLeverPulse() {
+        return leverPulse;
+    }
+
+    /**
+     * True while the lever is out on a stroke or returning from one, whether the stroke belongs
+     * to {@link #getLeverPulse()} or to a pulse inside a macro. A pulse still waiting on the
+     * feed gate, or one that was dropped, does not count.
+     */
+    public boolean isLeverPulsing() {
+        return leverPulsing;
+    }
+
+    /** Requirement token for anything that drives the feed lever. */
+    public Subsystem getLeverRequirement() {
+        return lever;
+    }
+
+    /** Trigger feed lever pulse on button press (e.g., gamepad2.y). Held = repeat after each pulse. */
+    public void handleLeverButton(CommandScheduler scheduler, boolean pressed) {
+        if (pressed && !leverPulse.isScheduled() && !leverPulsing) {
+            scheduler.schedule(leverPulse);
         }
     }
 
     public String getStatus() {
-        boolean busy = indexerMotor.getMode() == DcMotor.RunMode.RUN_TO_POSITION && indexerMotor.isBusy();
-        return String.format("indexerSel=%s mode=%s busy=%s leverPulsing=%s",
-                selection, indexerMotor.getMode(), busy, leverPulsing);
+        return appendStatus(new StringBuilder()).toString();
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields. */
+    public StringBuilder appendStatus(StringBuilder sb) {
+        DcMotor.RunMode mode = indexerMotor.getMode();
+        return sb.append("indexerSel=").append(selection.name())
+                .append(" mode=").append(mode == null ? "null" : mode.name())
+                .append(" settled=").append(isSettled())
+                .append(" magnetOffset=").append(magnetOffset)
+                .append(" leverPulsing=").append(leverPulsing);
+    }
+
+    /**
+     * True once the last preset move has arrived: profile finished, position within
+     * settleToleranceTicks and speed under settleVelocityTicksPerSec. Also true when no move
+     * has been commanded. Reads are served from the bulk cache.
+     */
+    public boolean isSettled() {
+        if (!positionControl) return true;
+        return profile.isFinished(goalTicks)
+                && Math.abs(goalTicks - indexerMotor.getCurrentPosition()) <= settleToleranceTicks
+                && Math.abs(indexerMotor.getVelocity()) <= settleVelocityTicksPerSec;
     }
 
     /** Whether the indexer is currently moving toward a target position. */
     public boolean isMoving() {
-        return indexerMotor.getMode() == DcMotor.RunMode.RUN_TO_POSITION && indexerMotor.isBusy();
+        return !isSettled();
     }
 
     /** Current encoder position of the indexer motor. */
@@ -235,27 +527,41 @@ public class IndexerSubsystem {
         return indexerMotor.getCurrentPosition();
     }
 
-    /** Target encoder position when running to position. */
+    /** Goal of the current (or last) preset move, in encoder ticks. */
     public int getTargetPosition() {
-        return indexerMotor.getTargetPosition();
+        return goalTicks;
     }
 
     /** Nudge the indexer target by a number of encoder ticks. */
     public void nudgeTicks(int deltaTicks) {
-        int base;
-        if (indexerMotor.getMode() == DcMotor.RunMode.RUN_TO_POSITION) {
-            base = indexerMotor.getTargetPosition();
-        } else {
-            base = indexerMotor.getCurrentPosition();
+        int base = positionControl ? goalTicks : indexerMotor.getCurrentPosition();
+        runToPosition(base + deltaTicks);
+    }
+
+    /**
+     * Move to a preset. In shortestPath mode the preset is a carousel angle: of its equivalents
+     * preset + k * carouselTicksPerRev, the one nearest the current goal (or position) is used.
+     */
+    private void moveToSlot(int presetTicks) {
+        if (!shortestPath) {
+            runToPosition(presetTicks);
+            return;
         }
-        int target = base + deltaTicks;
-        indexerMotor.setTargetPosition(target);
-        try {
-            indexerMotor.setTargetPositionTolerance(1);
-        } catch (Exception ignore) {
+        double from = positionControl ? goalTicks : indexerMotor.getCurrentPosition();
+        runToPosition((int) Math.round(from + wrapTicks(presetTicks - from)));
+    }
+
+    /**
+     * Start (or retarget) a profiled move. A move already in progress continues from its
+     * current setpoint, so repeated or changed presets don't jerk the carousel.
+     */
+    private void runToPosition(int target) {
+        if (!positionControl) {
+            profile.reset(indexerMotor.getCurrentPosition(), indexerMotor.getVelocity());
+            lastControlNanos = 0;
+            positionControl = true;
         }
-        indexerMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        indexerMotor.setPower(0.3);
+        goalTicks = target;
     }
 
     // Tuning helpers removed
@@ -1,15 +1,25 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
 import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.util.ElapsedTime;
 
-public class IntakeSubsystem {
-    private final DcMotorEx intakeMotor; // Core Hex motor
-    private final Servo intakeAngleServo; // rotates intake
+import org.firstinspires.ftc.teamcode.command.Subsystem;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
+import org.firstinspires.ftc.teamcode.hardware.ServoSpeeds;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareServoIO;
+import org.firstinspires.ftc.teamcode.hardware.io.MotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.ServoIO;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+public class IntakeSubsystem implements Subsystem {
+    private final CachedMotor intakeMotor; // Core Hex motor
+    private final CachedServo intakeAngleServo; // rotates intake
+    private VoltageService battery = VoltageService.nominal();
 
     // Holds the last commanded intake angle position (0..1)
     private double intakeAnglePos = 0.5;
@@ -22,17 +32,33 @@ public class IntakeSubsystem {
     private boolean prevStageButton = false;
 
     public IntakeSubsystem(HardwareMap hardwareMap, String intakeMotorName, String intakeAngleServoName) {
-        this.intakeMotor = hardwareMap.get(DcMotorEx.class, intakeMotorName);
+        this(HardwareMotorIO.get(hardwareMap, intakeMotorName), HardwareServoIO.get(hardwareMap, intakeAngleServoName));
+        intakeAngleServo.setSpeed(ServoSpeeds.get(intakeAngleServoName, ServoSpeeds.DEFAULT_UNITS_PER_SEC));
+    }
+
+    /** Hardware-agnostic constructor (real devices or sims). */
+    public IntakeSubsystem(MotorIO intakeMotor, ServoIO intakeAngleServo) {
+        this.intakeMotor = new CachedMotor(intakeMotor);
         this.intakeMotor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
         this.intakeMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         this.intakeMotor.setDirection(DcMotorSimple.Direction.FORWARD);
 
-        this.intakeAngleServo = hardwareMap.get(Servo.class, intakeAngleServoName);
+        this.intakeAngleServo = new CachedServo(intakeAngleServo);
         this.intakeAngleServo.setPosition(intakeAnglePos);
     }
 
+    /** Battery compensation; defaults to {@link VoltageService#nominal()} (plain duty cycle). */
+    public void setVoltageService(VoltageService battery) {
+        this.battery = battery == null ? VoltageService.nominal() : battery;
+    }
+
+    /** Run the intake at {@code volts}, independent of battery charge. */
+    public void setVoltage(double volts) {
+        intakeMotor.setPower(battery.powerForVolts(volts));
+    }
+
     /**
-     * Update intake motor based on trigger inputs.
+     * Update intake motor based on trigger inputs. Trigger travel maps to 0..NOMINAL_VOLTS.
      * @param inTrigger right trigger (intake forward)
      * @param outTrigger left trigger (reverse)
      */
@@ -45,7 +71,7 @@ public class IntakeSubsystem {
         } else {
             power = 0.0;
         }
-        intakeMotor.setPower(power);
+        setVoltage(power * VoltageService.NOMINAL_VOLTS);
     }
 
     /**
@@ -88,9 +114,16 @@ public class IntakeSubsystem {
     }
 
     public String getStatus() {
-        return String.format(
-                "intakePower=%.2f, intakeAngle=%.2f, requestStage=%s",
-                intakeMotor.getPower(), intakeAnglePos, requestStageFlag);
+        return appendStatus(new StringBuilder()).toString();
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields. */
+    public StringBuilder appendStatus(StringBuilder sb) {
+        sb.append("intakePower=");
+        TelemetryFormatter.appendFixed(sb, intakeMotor.getPower(), 2);
+        sb.append(", intakeAngle=");
+        TelemetryFormatter.appendFixed(sb, intakeAnglePos, 2);
+        return sb.append(", requestStage=").append(requestStageFlag);
     }
 
     /** Enable or disable holding the intake angle in the up position. */
@@ -104,4 +137,9 @@ public class IntakeSubsystem {
 
     /** Whether the intake angle is currently being held up. */
     public boolean isHoldUp() { return holdUp; }
+
+    /** Whether the angle servo should have reached its last command (servo motion model). */
+    public boolean isAngleArrived() {
+        return intakeAngleServo.isArrived();
+    }
 }
@@ -0,0 +1,233 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import com.bylazar.configurables.annotations.Configurable;
+import com.bylazar.configurables.annotations.IgnoreConfigurable;
+import com.qualcomm.robotcore.util.ReadWriteFile;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import org.firstinspires.ftc.teamcode.control.MonotoneCubicInterpolator;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Range-keyed shot setup: target range (inches, from AprilTag ftcPose.range or odometry) to hood
+ * servo position, flywheel RPM and ball time of flight (for {@link
+ * org.firstinspires.ftc.teamcode.control.ShotSolver} lead), by monotone cubic interpolation
+ * between measured rows.
+ *
+ * The rows are the static arrays below, editable live in Panels. {@link #update()} (once per
+ * loop) notices edits and refits; set {@link #saveRequested} in Panels to write the table to
+ * {@link #TABLE_FILE}, which {@link #load()} reads back at the next init. Rows may be entered in
+ * any order; they are sorted by range on refit. An invalid edit (mismatched lengths, repeated
+ * range, a non-finite value) keeps the previous table and shows the reason in
+ * {@link #getError()}; an invalid file is ignored in favor of the built-in rows.
+ */
+@Configurable
+public class ShotTable {
+    // Rows: range (in), hood servo position (0..1), flywheel RPM, time of flight (s). Tune on the field.
+    public static double[] RANGE_IN = {24.0, 48.0, 72.0, 96.0, 120.0, 144.0};
+    public static double[] HOOD_POS = {0.20, 0.32, 0.42, 0.50, 0.56, 0.60};
+    public static double[] FLYWHEEL_RPM = {3000.0, 3400.0, 3800.0, 4200.0, 4600.0, 5000.0};
+    // Launch to goal; measure from slow-motion video (frames between exit and score / fps)
+    public static double[] TOF_SEC = {0.45, 0.55, 0.65, 0.75, 0.85, 0.95};
+
+    // Built-in rows, restored by load() when TABLE_FILE can't be used
+    private static final double[] DEFAULT_RANGE_IN = RANGE_IN.clone();
+    private static final double[] DEFAULT_HOOD_POS = HOOD_POS.clone();
+    private static final double[] DEFAULT_FLYWHEEL_RPM = FLYWHEEL_RPM.clone();
+    private static final double[] DEFAULT_TOF_SEC = TOF_SEC.clone();
+
+    // Set true in Panels to save the current rows; resets itself once written
+    public static boolean saveRequested = false;
+
+    // Written on request, in the RC settings folder; one "range,hood,rpm,tof" row per line
+    public static final String TABLE_FILE = "shot_table.csv";
+
+    @IgnoreConfigurable
+    private final MonotoneCubicInterpolator hood = new MonotoneCubicInterpolator();
+    @IgnoreConfigurable
+    private final MonotoneCubicInterpolator rpm = new MonotoneCubicInterpolator();
+    @IgnoreConfigurable
+    private final MonotoneCubicInterpolator tof = new MonotoneCubicInterpolator();
+
+    // Copies of the rows last fitted, to detect Panels edits
+    @IgnoreConfigurable
+    private double[] fittedRange = new double[0];
+    @IgnoreConfigurable
+    private double[] fittedHood = new double[0];
+    @IgnoreConfigurable
+    private double[] fittedRpm = new double[0];
+    @IgnoreConfigurable
+    private double[] fittedTof = new double[0];
+    @IgnoreConfigurable
+    private String error = null;
+
+    public ShotTable() {
+        refit();
+    }
+
+    /** Call once per loop: refits after Panels edits and handles save requests. Allocation-free when nothing changed. */
+    public void update() {
+        if (!Arrays.equals(RANGE_IN, fittedRange) || !Arrays.equals(HOOD_POS, fittedHood)
+                || !Arrays.equals(FLYWHEEL_RPM, fittedRpm) || !Arrays.equals(TOF_SEC, fittedTof)) {
+            refit();
+        }
+        if (saveRequested) {
+            saveRequested = false;
+            if (error == null) save();
+        }
+    }
+
+    /** Hood servo position for a target {@code rangeIn} inches away (clamped to the table's ends). */
+    public double getHoodPosition(double rangeIn) {
+        return hood.evaluate(rangeIn);
+    }
+
+    /** Flywheel RPM for a target {@code rangeIn} inches away (clamped to the table's ends). */
+    public double getRpm(double rangeIn) {
+        return rpm.evaluate(rangeIn);
+    }
+
+    /** Ball time of flight in seconds for a target {@code rangeIn} inches away. */
+    public double getTimeOfFlight(double rangeIn) {
+        return tof.evaluate(rangeIn);
+    }
+
+    /** Why the last edit was rejected, or null if the live rows are in use. */
+    public String getError() {
+        return error;
+    }
+
+    private void refit() {
+        // Remember what we tried even if it fails, so a bad edit isn't retried every loop
+        fittedRange = copy(RANGE_IN);
+        fittedHood = copy(HOOD_POS);
+        fittedRpm = copy(FLYWHEEL_RPM);
+        fittedTof = copy(TOF_SEC);
+
+        int n = fittedRange.length;
+        error = validate(fittedRange, fittedHood, fittedRpm, fittedTof, n);
+        if (error != null) return;
+
+        // Sort rows by range (insertion sort; tables are a handful of rows)
+        double[] r = copy(fittedRange);
+        double[] h = copy(fittedHood);
+        double[] w = copy(fittedRpm);
+        double[] t = copy(fittedTof);
+        for (int i = 1; i < n; i++) {
+            for (int j = i; j > 0 && r[j] < r[j - 1]; j--) {
+                swap(r, j); swap(h, j); swap(w, j); swap(t, j);
+            }
+        }
+        try {
+            hood.fit(r, h, n);
+            rpm.fit(r, w, n);
+            tof.fit(r, t, n);
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+    }
+
+    /** Why the first {@code n} rows can't be fitted, or null if they can. */
+    private static String validate(double[] r, double[] h, double[] w, double[] t, int n) {
+        if (n == 0 || r.length < n || h.length != r.length || w.length != r.length || t.length != r.length) {
+            return "RANGE_IN, HOOD_POS, FLYWHEEL_RPM and TOF_SEC need the same, nonzero length";
+        }
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(r[i]) || !Double.isFinite(h[i]) || !Double.isFinite(w[i]) || !Double.isFinite(t[i])) {
+                return "row " + (i + 1) + " has a non-finite value";
+            }
+            for (int j = 0; j < i; j++) {
+                if (r[j] == r[i]) return "ranges must be distinct";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load rows from {@link #TABLE_FILE} into the static arrays. Returns false if absent or
+     * invalid; an invalid or unreadable file restores the built-in rows, so a bad save can't
+     * leave rows from an earlier load in place.
+     */
+    public static boolean load() {
+        try {
+            File file = AppUtil.getInstance().getSettingsFile(TABLE_FILE);
+            if (!file.exists()) return false;
+            String[] lines = ReadWriteFile.readFile(file).split("\n");
+            double[] r = new double[lines.length];
+            double[] h = new double[lines.length];
+            double[] w = new double[lines.length];
+            double[] t = new double[lines.length];
+            int n = 0;
+            for (String line : lines) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                String[] cols = trimmed.split(",");
+                if (cols.length != 4) {
+                    restoreDefaults();
+                    return false;
+                }
+                r[n] = Double.parseDouble(cols[0].trim());
+                h[n] = Double.parseDouble(cols[1].trim());
+                w[n] = Double.parseDouble(cols[2].trim());
+                t[n] = Double.parseDouble(cols[3].trim());
+                n++;
+            }
+            if (validate(r, h, w, t, n) != null) {
+                restoreDefaults();
+                return false;
+            }
+            RANGE_IN = Arrays.copyOf(r, n);
+            HOOD_POS = Arrays.copyOf(h, n);
+            FLYWHEEL_RPM = Arrays.copyOf(w, n);
+            TOF_SEC = Arrays.copyOf(t, n);
+            return true;
+        } catch (RuntimeException e) {
+            // Corrupt file: use the defaults rather than failing init
+            restoreDefaults();
+            return false;
+        }
+    }
+
+    private static void restoreDefaults() {
+        RANGE_IN = DEFAULT_RANGE_IN.clone();
+        HOOD_POS = DEFAULT_HOOD_POS.clone();
+        FLYWHEEL_RPM = DEFAULT_FLYWHEEL_RPM.clone();
+        TOF_SEC = DEFAULT_TOF_SEC.clone();
+    }
+
+    /** Write the current static rows to {@link #TABLE_FILE}. */
+    public static void save() {
+        StringBuilder sb = new StringBuilder("# range_in,hood_pos,flywheel_rpm,tof_sec\n");
+        int n = Math.min(Math.min(RANGE_IN.length, HOOD_POS.length), Math.min(FLYWHEEL_RPM.length, TOF_SEC.length));
+        for (int i = 0; i < n; i++) {
+            sb.append(RANGE_IN[i]).append(',').append(HOOD_POS[i]).append(',')
+                    .append(FLYWHEEL_RPM[i]).append(',').append(TOF_SEC[i]).append('\n');
+        }
+        ReadWriteFile.writeFile(AppUtil.getInstance().getSettingsFile(TABLE_FILE), sb.toString());
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields: the setup for {@code rangeIn}. */
+    public StringBuilder appendStatus(StringBuilder sb, double rangeIn) {
+        if (error != null) return sb.append("table error: ").append(error);
+        sb.append("range=");
+        TelemetryFormatter.appendFixed(sb, rangeIn, 1);
+        sb.append(" hood=");
+        TelemetryFormatter.appendFixed(sb, getHoodPosition(rangeIn), 3);
+        sb.append(" rpm=");
+        return TelemetryFormatter.appendFixed(sb, getRpm(rangeIn), 0);
+    }
+
+    private static double[] copy(double[] a) {
+        return a == null ? new double[0] : a.clone();
+    }
+
+    private static void swap(double[] a, int j) {
+        double t = a[j];
+        a[j] = a[j - 1];
+        a[j - 1] = t;
+    }
+}
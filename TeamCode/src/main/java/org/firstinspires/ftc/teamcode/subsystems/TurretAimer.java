@@ -0,0 +1,204 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import com.pedropathing.geometry.Pose;
+
+import org.firstinspires.ftc.teamcode.control.OdometryAim;
+import org.firstinspires.ftc.teamcode.control.StateHistory;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+
+/**
+ * Keeps the turret on the goal from the Pedro pose every loop, using AprilTag detections only to
+ * correct the odometry offset (see {@link OdometryAim}). Aim never waits for a camera frame and
+ * doesn't have to reacquire when the tag leaves the view.
+ *
+ * Each camera frame corrects the offset once: the webcam keeps returning the same detection
+ * until the next frame is processed, and loops in between only re-aim from odometry.
+ *
+ * Camera latency: every update() records the turret angle and pose in a {@link StateHistory}.
+ * A detection is evaluated against the state at its frame acquisition time, not the current
+ * one, so turret motion and driving during the frame's processing don't show up as aim error.
+ *
+ * Usage (per loop, after follower.update()):
+ *   aimer.update(follower.getPose(), webcam.getTargetTag());
+ *   turret.update();
+ */
+public class TurretAimer {
+    private final TurretSubsystem turret;
+    private final OdometryAim aim;
+
+    // History has to span the oldest frame we still act on at the fastest loop rate; frames
+    // older than that clamp to the oldest sample. Webcam detections arrive 30-150 ms after
+    // capture (allow 250 ms) and bulk-cached loops can reach ~500 Hz: 0.25 s * 500 Hz = 125
+    // samples, plus one so the oldest frame still has a sample on each side to interpolate.
+    private static final double MAX_FRAME_LATENCY_SEC = 0.25;
+    private static final double MAX_LOOP_HZ = 500.0;
+    private static final int HISTORY_SIZE = historySize(MAX_FRAME_LATENCY_SEC, MAX_LOOP_HZ);
+    private static final int TURRET = 0, X = 1, Y = 2, HEADING = 3;
+    private final StateHistory history = new StateHistory(HISTORY_SIZE, 4);
+    private final double[] now = new double[4];
+    private final double[] past = new double[4];
+    // Flip if a positive camera bearing should decrease the turret angle the other way
+    private double bearingSign = 1.0;
+    private int imageWidthPx = 640;
+    private double cameraHfovDeg = 70.0;
+
+    private double lastTargetDeg = 0.0;
+    private boolean sawTagThisLoop = false;
+    // Last detection used for an offset correction; the same frame is returned every loop until
+    // the camera delivers the next one, and must only be counted once
+    private AprilTagDetection lastCorrectedTag;
+    private long lastCorrectedFrameNanos = 0;
+
+    /**
+     * @param goalX goal position on the field, Pedro coordinates (inches)
+     * @param goalY goal position on the field, Pedro coordinates (inches)
+     */
+    public TurretAimer(TurretSubsystem turret, double goalX, double goalY) {
+        this.turret = turret;
+        this.aim = new OdometryAim(goalX, goalY);
+        history.setAngularRadians(HEADING);
+    }
+
+    /** Same meaning as MOTOR_SIGN in AprilTagWebcamExample: target = angle - sign * bearing. */
+    public void setBearingSign(double sign) {
+        bearingSign = sign >= 0 ? 1.0 : -1.0;
+    }
+
+    /** +1 if a positive turret angle is counter-clockwise seen from above. */
+    public void setTurretSign(double sign) {
+        aim.turretSign = sign >= 0 ? 1.0 : -1.0;
+    }
+
+    /** Pixel fallback parameters for detections without ftcPose. */
+    public void setCamera(int imageWidthPx, double hfovDeg) {
+        this.imageWidthPx = imageWidthPx;
+        this.cameraHfovDeg = hfovDeg;
+    }
+
+    public void setGoal(double goalX, double goalY) {
+        aim.goalX = goalX;
+        aim.goalY = goalY;
+    }
+
+    /** Vision weight per detection (0..1); lower = smoother, slower to correct. */
+    public void setOffsetGain(double gain) {
+        aim.offsetGain = Math.max(0.0, Math.min(1.0, gain));
+    }
+
+    /**
+     * Aim for this loop. {@code tag} is the locked goal tag, or null if not in view.
+     * Calls turret.setTargetAngleDeg(); the caller still runs turret.update().
+     */
+    public void update(Pose pose, AprilTagDetection tag) {
+        update(pose, tag, aim.goalX, aim.goalY);
+    }
+
+    /**
+     * Like {@link #update(Pose, AprilTagDetection)}, but point the turret at (aimX, aimY), e.g. a
+     * {@link org.firstinspires.ftc.teamcode.control.ShotSolver} virtual goal while moving. The
+     * tag still corrects the offset against the real goal.
+     */
+    public void update(Pose pose, AprilTagDetection tag, double aimX, double aimY) {
+        if (pose == null) return;
+        record(pose);
+
+        sawTagThisLoop = tag != null;
+        if (tag != null && isNewFrame(tag)) {
+            stateAt(tag.frameAcquisitionNanoTime);
+            aim.correct(past[X], past[Y], past[HEADING], past[TURRET] - bearingSign * bearingDeg(tag));
+        }
+
+        lastTargetDeg = aim.getTurretTargetDeg(now[X], now[Y], now[HEADING], aimX, aimY);
+        turret.setTargetAngleDeg(lastTargetDeg);
+    }
+
+    /**
+     * Camera-only aim with latency compensation: the turret angle that centers the tag now,
+     * from a detection taken at its frame time. The measured target (turret angle then minus
+     * bearing) is moved forward by how much the robot-relative goal direction changed since.
+     * Call {@link #record(Pose)} every loop (tag or not) before this; it uses the latest state
+     * as "now" and doesn't use or change the vision offset.
+     */
+    public double projectTargetDeg(AprilTagDetection tag) {
+        return projectTargetDeg(tag.frameAcquisitionNanoTime, bearingDeg(tag));
+    }
+
+    // projectTargetDeg(tag) for a frame captured at frameNanos (0 = unknown, use now)
+    double projectTargetDeg(long frameNanos, double bearingDeg) {
+        stateAt(frameNanos);
+        double measuredThen = past[TURRET] - bearingSign * bearingDeg;
+        double goalMotion = OdometryAim.wrapDeg(aim.predictDeg(now[X], now[Y], now[HEADING])
+                - aim.predictDeg(past[X], past[Y], past[HEADING]));
+        return measuredThen + goalMotion;
+    }
+
+    /** Frame age of a detection in ms (0 if it carries no acquisition time). */
+    public static double getLatencyMs(AprilTagDetection tag) {
+        if (tag == null || tag.frameAcquisitionNanoTime == 0) return 0.0;
+        return (System.nanoTime() - tag.frameAcquisitionNanoTime) / 1e6;
+    }
+
+    /** Samples needed to look {@code latencySec} back at {@code loopHz}, one extra to interpolate. */
+    static int historySize(double latencySec, double loopHz) {
+        return (int) Math.ceil(latencySec * loopHz) + 1;
+    }
+
+    /** Store this loop's turret angle and pose. update() does this itself. */
+    public void record(Pose pose) {
+        record(pose, System.nanoTime());
+    }
+
+    /** {@link #record(Pose)} stamped with the loop's own System.nanoTime() reading. */
+    public void record(Pose pose, long nowNanos) {
+        now[TURRET] = turret.getTurretAngleDeg();
+        now[X] = pose.getX();
+        now[Y] = pose.getY();
+        now[HEADING] = pose.getHeading();
+        history.record(nowNanos, now);
+    }
+
+    // True the first time a detection's frame is seen (by acquisition time, else by object)
+    private boolean isNewFrame(AprilTagDetection tag) {
+        boolean seen = tag.frameAcquisitionNanoTime != 0
+                ? tag.frameAcquisitionNanoTime == lastCorrectedFrameNanos
+                : tag == lastCorrectedTag;
+        lastCorrectedTag = tag;
+        lastCorrectedFrameNanos = tag.frameAcquisitionNanoTime;
+        return !seen;
+    }
+
+    // Fills past[] with the recorded state when a frame was captured
+    private void stateAt(long frameNanos) {
+        if (frameNanos == 0 || !history.lookup(frameNanos, past)) {
+            System.arraycopy(now, 0, past, 0, now.length);
+        }
+    }
+
+    private double bearingDeg(AprilTagDetection tag) {
+        return tag.ftcPose != null
+                ? tag.ftcPose.bearing
+                : AprilTagWebcam.estimateBearingFromPixels(tag.center.x, imageWidthPx, cameraHfovDeg);
+    }
+
+    /** Turret angle requested last update() (before TurretSubsystem's wrap/limit selection). */
+    public double getTargetDeg() {
+        return lastTargetDeg;
+    }
+
+    public double getOffsetDeg() {
+        return aim.getOffsetDeg();
+    }
+
+    public boolean sawTag() {
+        return sawTagThisLoop;
+    }
+
+    public void resetOffset() {
+        aim.resetOffset();
+    }
+
+    /** Forget recorded states (e.g. after re-zeroing the turret or resetting the pose). */
+    public void clearHistory() {
+        history.clear();
+    }
+}
@@ -1,14 +1,47 @@
 package org.firstinspires.ftc.teamcode.subsystems;
 
+import com.bylazar.configurables.annotations.Configurable;
 import com.qualcomm.robotcore.hardware.DcMotor;
-import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
-import com.qualcomm.robotcore.hardware.Servo;
 
+import org.firstinspires.ftc.teamcode.control.TrapezoidProfile;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareServoIO;
+import org.firstinspires.ftc.teamcode.hardware.io.MotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.ServoIO;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
+
+/**
+ * Turret yaw motor + hood/angle servo.
+ *
+ * Yaw is open-loop power ({@link #setManualInput}, {@link #setTurretPower}) or profiled position
+ * control ({@link #setTargetAngleDeg}): a trapezoidal profile with kS/kV/kA feedforward plus
+ * encoder PD on the profile setpoint. Any open-loop command leaves position mode.
+ */
+@Configurable
 public class TurretSubsystem {
-    private final DcMotorEx turretMotor;
-    private final Servo turretAngleServo;
+    // ===== Position control (setTargetAngleDeg) =====
+    // Feedforward: volts, volts per deg/s, volts per deg/s^2
+    public static double kS = 0.7;
+    public static double kV = 0.0256; // ~12 V / 468 deg/s free speed
+    public static double kA = 0.002;
+    // Feedback: volts per degree of position error, volts per deg/s of velocity error
+    public static double kP = 0.15;
+    public static double kD = 0.01;
+    // Profile peak kS + kV*v + kA*a = 0.7 + 4.6 + 1.0 = 6.3 V, inside maxPower (0.6 * 12 V = 7.2 V)
+    // with the rest left for PD. Limits that don't fit are scaled down in update(), see below.
+    public static double maxVelDegPerSec = 180.0;
+    public static double maxAccelDegPerSec2 = 500.0;
+    // Share of maxPower's voltage the profile's feedforward may use; the rest is PD headroom
+    public static double feedforwardShare = 0.9;
+
+    private final CachedMotor turretMotor;
+    private final CachedServo turretAngleServo;
+    private VoltageService battery = VoltageService.nominal();
 
     // ===== Tuning constants MUST be set for turret =====
     private static final double MOTOR_TICKS_PER_REV = 537.7; // goBILDA 5203 312RPM output ticks/rev
@@ -21,6 +54,8 @@ public class TurretSubsystem {
     // Holds the last commanded turret angle servo position (0..1)
     private double angleServoPos = 0.5;
     private static final double ANGLE_DEADBAND = 0.05; // stick deadband to hold position
+    // Never scale the profile below this share of its limits (e.g. maxPower near 0)
+    private static final double MIN_PROFILE_SCALE = 0.05;
 
     // "Soft zero" offset so angle=0 when turret faces forward
     private int zeroTicks = 0;
@@ -29,13 +64,23 @@ public class TurretSubsystem {
     private double minDeg = -180.0;
     private double maxDeg = 180.0;
 
+    private final TrapezoidProfile profile = new TrapezoidProfile(maxVelDegPerSec, maxAccelDegPerSec2);
+    private boolean positionMode = false;
+    private double goalDeg = 0.0;
+    private long lastUpdateNanos = 0;
+
     public TurretSubsystem(HardwareMap hardwareMap, String turretMotorName, String turretAngleServoName) {
-        this.turretMotor = hardwareMap.get(DcMotorEx.class, turretMotorName);
+        this(HardwareMotorIO.get(hardwareMap, turretMotorName), HardwareServoIO.get(hardwareMap, turretAngleServoName));
+    }
+
+    /** Hardware-agnostic constructor (real devices or sims). */
+    public TurretSubsystem(MotorIO turretMotor, ServoIO turretAngleServo) {
+        this.turretMotor = new CachedMotor(turretMotor);
         this.turretMotor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
         this.turretMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         this.turretMotor.setDirection(DcMotorSimple.Direction.FORWARD);
 
-        this.turretAngleServo = hardwareMap.get(Servo.class, turretAngleServoName);
+        this.turretAngleServo = new CachedServo(turretAngleServo);
         this.turretAngleServo.setPosition(angleServoPos);
 
         // Soft-zero at init: turret angle will be 0 at whatever position you are in during init.
@@ -63,15 +108,72 @@ public class TurretSubsystem {
         this.maxPower = clip(maxPower, 0.0, 1.0);
     }
 
+    /** Battery compensation; defaults to {@link VoltageService#nominal()} (plain duty cycle). */
+    public void setVoltageService(VoltageService battery) {
+        this.battery = battery == null ? VoltageService.nominal() : battery;
+    }
+
     // ---- Motor / Servo inputs ----
 
     /** For auto aim: set actual motor command power directly */
     public void setTurretPower(double power) {
+        positionMode = false;
         rotationPowerCmd = clip(power, -maxPower, maxPower);
     }
 
+    /**
+     * Profiled move to {@code deg} (0 = zeroTurretHere()). Of the equivalent angles deg + k*360,
+     * goes to the one closest to the current angle that lies inside [minDeg, maxDeg], so the
+     * turret never wraps through a soft limit; if none fits, the nearest limit is used.
+     * Safe to call every loop with a moving target: the profile continues from its setpoint.
+     */
+    public void setTargetAngleDeg(double deg) {
+        double current = getTurretAngleDeg();
+        if (!positionMode) {
+            profile.reset(current, getTurretVelocityDegPerSec());
+            lastUpdateNanos = 0;
+            positionMode = true;
+        }
+        goalDeg = chooseWrap(deg, current);
+    }
+
+    /** Goal of the current profiled move (after wrap selection). */
+    public double getTargetAngleDeg() {
+        return goalDeg;
+    }
+
+    /** True in position mode once the profile has finished and the turret is within tolDeg. */
+    public boolean isAtTarget(double tolDeg) {
+        return positionMode && profile.isFinished(goalDeg)
+                && Math.abs(getTurretAngleDeg() - goalDeg) <= tolDeg;
+    }
+
+    public boolean isPositionMode() {
+        return positionMode;
+    }
+
+    private double chooseWrap(double deg, double current) {
+        // Equivalent angle nearest the current one, then its neighbours either side
+        double base = deg + 360.0 * Math.round((current - deg) / 360.0);
+        double best = Double.NaN;
+        for (int k = -2; k <= 2; k++) {
+            double candidate = base + 360.0 * k;
+            if (candidate < minDeg || candidate > maxDeg) continue;
+            if (Double.isNaN(best) || Math.abs(candidate - current) < Math.abs(best - current)) {
+                best = candidate;
+            }
+        }
+        return Double.isNaN(best) ? clip(base, minDeg, maxDeg) : best;
+    }
+
+    /** Command the turret in volts (same slew/torque at any battery charge). */
+    public void setTurretVoltage(double volts) {
+        setTurretPower(volts / VoltageService.NOMINAL_VOLTS);
+    }
+
     /** Manual rotate turret by motor (gamepad2.right_stick_x) */
     public void setManualInput(double joystick) {
+        positionMode = false;
         rotationPowerCmd = clip(joystick, -maxPower, maxPower);
     }
 
@@ -85,6 +187,11 @@ public class TurretSubsystem {
         // else: hold previous angleServoPos
     }
 
+    /** Set the hood/angle servo directly (0..1), e.g. from a {@link ShotTable}. Held until changed. */
+    public void setAnglePosition(double position) {
+        if (!Double.isNaN(position)) angleServoPos = clip(position, 0.0, 1.0);
+    }
+
     // ---- State access (what PID needs) ----
 
     public int getTurretTicks() {
@@ -96,6 +203,11 @@ public class TurretSubsystem {
         return (getTurretTicks() * 360.0) / TICKS_PER_TURRET_REV;
     }
 
+    /** Turret yaw rate in degrees per second (served by the bulk cache). */
+    public double getTurretVelocityDegPerSec() {
+        return (turretMotor.getVelocity() * 360.0) / TICKS_PER_TURRET_REV;
+    }
+
     /** Turret yaw angle in radians */
     public double getTurretAngleRad() {
         return Math.toRadians(getTurretAngleDeg());
@@ -103,22 +215,72 @@ public class TurretSubsystem {
 
     // ---- Update ----
     public void update() {
+        update(System.nanoTime());
+    }
+
+    /** {@link #update()} at loop time {@code nowNanos} (e.g. a simulated clock in host tests). */
+    public void update(long nowNanos) {
         // Optional soft limit clamp: prevent driving further into limits
         double deg = getTurretAngleDeg();
+        if (positionMode) {
+            updatePositionControl(deg, nowNanos);
+        }
         double p = rotationPowerCmd;
 
         if ((deg <= minDeg && p < 0) || (deg >= maxDeg && p > 0)) {
             p = 0.0;
         }
 
-        turretMotor.setPower(p);
-        // Maintain the last commanded angle servo position
+        // Commands are duty cycle at NOMINAL_VOLTS; rescale for the actual battery
+        turretMotor.setPower(battery.powerForVolts(p * VoltageService.NOMINAL_VOLTS));
+        // Maintain the last commanded angle servo position (CachedServo drops repeats)
         turretAngleServo.setPosition(angleServoPos);
     }
 
+    private void updatePositionControl(double deg, long now) {
+        double dt = lastUpdateNanos == 0 ? 0.0 : (now - lastUpdateNanos) / 1e9;
+        lastUpdateNanos = now;
+
+        // The profile peaks at maxVel and maxAccel together (end of the ramp). If that needs more
+        // than maxPower can give, the clip below eats the feedforward and the turret falls behind
+        // its setpoint, so scale both limits down until the peak fits.
+        double vel = maxVelDegPerSec;
+        double accel = maxAccelDegPerSec2;
+        double peakVolts = kV * vel + kA * accel;
+        double budgetVolts = maxPower * VoltageService.NOMINAL_VOLTS * feedforwardShare - kS;
+        if (peakVolts > budgetVolts) {
+            double scale = Math.max(MIN_PROFILE_SCALE, budgetVolts / peakVolts);
+            vel *= scale;
+            accel *= scale;
+        }
+        // PD against the setpoint for this instant, feedforward toward the next one
+        double measuredSpPos = profile.getPosition();
+        double measuredSpVel = profile.getVelocity();
+        profile.maxVelocity = vel;
+        profile.maxAcceleration = accel;
+        profile.step(goalDeg, dt);
+
+        double spVel = profile.getVelocity();
+        double volts = kS * Math.signum(spVel) + kV * spVel + kA * profile.getAcceleration()
+                + kP * (measuredSpPos - deg) + kD * (measuredSpVel - getTurretVelocityDegPerSec());
+        rotationPowerCmd = clip(volts / VoltageService.NOMINAL_VOLTS, -maxPower, maxPower);
+    }
+
     public String getStatus() {
-        return String.format("turretPower=%.2f angleServo=%.2f yawDeg=%.1f ticks=%d",
-                turretMotor.getPower(), turretAngleServo.getPosition(), getTurretAngleDeg(), getTurretTicks());
+        return appendStatus(new StringBuilder()).toString();
+    }
+
+    /** Allocation-free status for TelemetryFormatter fields. */
+    public StringBuilder appendStatus(StringBuilder sb) {
+        int ticks = getTurretTicks();
+        sb.append("turretPower=");
+        TelemetryFormatter.appendFixed(sb, turretMotor.getPower(), 2);
+        sb.append(" angleServo=");
+        TelemetryFormatter.appendFixed(sb, angleServoPos, 2);
+        sb.append(" yawDeg=");
+        TelemetryFormatter.appendFixed(sb, (ticks * 360.0) / TICKS_PER_TURRET_REV, 1);
+        sb.append(" ticks=");
+        return TelemetryFormatter.appendLong(sb, ticks);
     }
 
     private static double clip(double v, double lo, double hi) {
@@ -1,7 +1,10 @@
 package org.firstinspires.ftc.teamcode.subsystems.drive;
 
 import com.pedropathing.follower.Follower;
+import com.pedropathing.geometry.Pose;
+import com.pedropathing.math.Vector;
 import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
 import org.firstinspires.ftc.teamcode.pedroPathing.Constants;
 
 /**
@@ -17,6 +20,7 @@ public class PedroDrive implements DriveBase {
     private double rx; // rotation
     private boolean fieldCentric;
     private Boolean lastFieldCentric = null;
+    private VoltageService battery = VoltageService.nominal();
 
     public PedroDrive(HardwareMap hardwareMap) {
         this.follower = Constants.createFollower(hardwareMap);
@@ -29,6 +33,11 @@ public class PedroDrive implements DriveBase {
         }
     }
 
+    /** Battery compensation; defaults to {@link VoltageService#nominal()} (plain duty cycle). */
+    public void setVoltageService(VoltageService battery) {
+        this.battery = battery == null ? VoltageService.nominal() : battery;
+    }
+
     @Override
     public void setDriverInput(double x, double y, double rx, boolean fieldCentric) {
         this.x = x;
@@ -46,7 +55,27 @@ public class PedroDrive implements DriveBase {
         }
         // Unified axis mapping for both modes:
         // forward = y, strafe = -x, turn = -rx
-        follower.setTeleOpDrive(y, -x, -rx, fieldCentric);
+        // Inputs are duty cycle at NOMINAL_VOLTS; rescale for the actual battery
+        follower.setTeleOpDrive(compensate(y), compensate(-x), compensate(-rx), fieldCentric);
         follower.update();
     }
+
+    private double compensate(double input) {
+        return battery.powerForVolts(input * VoltageService.NOMINAL_VOLTS);
+    }
+
+    /** Current odometry pose (Pedro field coordinates, inches/radians). */
+    public Pose getPose() {
+        return follower.getPose();
+    }
+
+    /** Field-frame velocity (inches/s). */
+    public Vector getVelocity() {
+        return follower.getVelocity();
+    }
+
+    /** Where the robot starts, so field-relative features (shot range, aiming) line up. */
+    public void setStartingPose(Pose pose) {
+        follower.setStartingPose(pose);
+    }
 }
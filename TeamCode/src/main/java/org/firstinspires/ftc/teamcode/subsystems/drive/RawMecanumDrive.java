@@ -1,18 +1,22 @@
 package org.firstinspires.ftc.teamcode.subsystems.drive;
 
-import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
+import org.firstinspires.ftc.teamcode.control.MecanumMixer;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.hardware.io.HardwareMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.MotorIO;
+
 /**
  * Raw mecanum drive implementation using simple motor mixing.
  * TODO: Adjust motor directions if they don't match your build.
  */
 public class RawMecanumDrive implements DriveBase {
-    private final DcMotorEx frontLeft;
-    private final DcMotorEx frontRight;
-    private final DcMotorEx backLeft;
-    private final DcMotorEx backRight;
+    private final MotorIO frontLeft;
+    private final MotorIO frontRight;
+    private final MotorIO backLeft;
+    private final MotorIO backRight;
     private final String imuName; // retained for signature compatibility, unused
 
     // Driver inputs cached between calls
@@ -20,6 +24,8 @@ public class RawMecanumDrive implements DriveBase {
     private double y;     // forward
     private double rx;    // rotation
     private boolean fieldCentric;
+    private final double[] wheelPowers = new double[4];
+    private VoltageService battery = VoltageService.nominal();
 
     public RawMecanumDrive(HardwareMap hardwareMap,
                            String frontLeftName,
@@ -27,10 +33,24 @@ public class RawMecanumDrive implements DriveBase {
                            String backLeftName,
                            String backRightName,
                            String imuName) {
-        this.frontLeft = hardwareMap.get(DcMotorEx.class, frontLeftName);
-        this.frontRight = hardwareMap.get(DcMotorEx.class, frontRightName);
-        this.backLeft = hardwareMap.get(DcMotorEx.class, backLeftName);
-        this.backRight = hardwareMap.get(DcMotorEx.class, backRightName);
+        this(HardwareMotorIO.get(hardwareMap, frontLeftName),
+                HardwareMotorIO.get(hardwareMap, frontRightName),
+                HardwareMotorIO.get(hardwareMap, backLeftName),
+                HardwareMotorIO.get(hardwareMap, backRightName),
+                imuName);
+    }
+
+    /** Hardware-agnostic constructor (real motors or sims). */
+    public RawMecanumDrive(MotorIO frontLeft, MotorIO frontRight, MotorIO backLeft, MotorIO backRight) {
+        this(frontLeft, frontRight, backLeft, backRight, null);
+    }
+
+    private RawMecanumDrive(MotorIO frontLeft, MotorIO frontRight, MotorIO backLeft, MotorIO backRight,
+                            String imuName) {
+        this.frontLeft = frontLeft;
+        this.frontRight = frontRight;
+        this.backLeft = backLeft;
+        this.backRight = backRight;
         this.imuName = imuName;
 
         // Typical mecanum: reverse left side motors.
@@ -48,6 +68,11 @@ public class RawMecanumDrive implements DriveBase {
         // Robot-centric only: no IMU initialization.
     }
 
+    /** Battery compensation; defaults to {@link VoltageService#nominal()} (plain duty cycle). */
+    public void setVoltageService(VoltageService battery) {
+        this.battery = battery == null ? VoltageService.nominal() : battery;
+    }
+
     @Override
     public void setDriverInput(double x, double y, double rx, boolean fieldCentric) {
         this.x = x;
@@ -58,24 +83,16 @@ public class RawMecanumDrive implements DriveBase {
 
     @Override
     public void update() {
-        double ix = x;
-        double iy = y;
+        MecanumMixer.mix(x, y, rx, wheelPowers);
 
-        double fl = iy + ix + rx;
-        double fr = iy - ix - rx;
-        double bl = iy - ix + rx;
-        double br = iy + ix - rx;
-
-        double max = Math.max(1.0,
-                Math.max(Math.abs(fl), Math.max(Math.abs(fr), Math.max(Math.abs(bl), Math.abs(br)))));
-        fl /= max;
-        fr /= max;
-        bl /= max;
-        br /= max;
+        // Mixed powers are duty cycle at NOMINAL_VOLTS; rescale for the actual battery
+        frontLeft.setPower(compensate(wheelPowers[MecanumMixer.FRONT_LEFT]));
+        frontRight.setPower(compensate(wheelPowers[MecanumMixer.FRONT_RIGHT]));
+        backLeft.setPower(compensate(wheelPowers[MecanumMixer.BACK_LEFT]));
+        backRight.setPower(compensate(wheelPowers[MecanumMixer.BACK_RIGHT]));
+    }
 
-        frontLeft.setPower(fl);
-        frontRight.setPower(fr);
-        backLeft.setPower(bl);
-        backRight.setPower(br);
+    private double compensate(double power) {
+        return battery.powerForVolts(power * VoltageService.NOMINAL_VOLTS);
     }
 }
@@ -0,0 +1,101 @@
+package org.firstinspires.ftc.teamcode.teleop;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.util.ElapsedTime;
+
+import org.firstinspires.ftc.teamcode.hardware.ServoSpeeds;
+
+/**
+ * Measures servo speed for the servo motion model (CachedServo.isArrived).
+ *
+ * Servos have no feedback, so this finds the shortest dwell that still completes a stroke: the
+ * selected servo sweeps between STROKE_LOW and STROKE_HIGH, switching every dwell. Lower the
+ * dwell until the servo visibly stops reaching the ends, then raise it one step so it just
+ * makes it; speed = stroke / dwell. Do it with the mechanism attached (load changes speed).
+ *
+ * Controls (gamepad1):
+ *   X            next servo
+ *   dpad up/down dwell +/- 10 ms     dpad right/left  +/- 50 ms
+ *   B            pause/resume sweeping
+ *   A            save the speed for the selected servo (ServoSpeeds file)
+ */
+@TeleOp(name = "Servo Speed Calibration", group = "Tuning")
+public class ServoSpeedCalibration extends OpMode {
+    // Hardware map names of the servos that sequences wait on (match TeleOpPedroTemplate)
+    private static final String[] SERVOS = {"feedLever", "intakeAngle", "turretAngle"};
+
+    // Sweep endpoints; symmetric about 0.5 so reversed servos (feedLever) stay in the same
+    // range, and inside the lever's 0.6 cap
+    private static final double STROKE_LOW = 0.4;
+    private static final double STROKE_HIGH = 0.6;
+
+    private Servo servo;
+    private int index = 0;
+    private long dwellMs = 300;
+    private boolean sweeping = true;
+    private boolean high = false;
+    private String lastSaved = "";
+    private final ElapsedTime sweepTimer = new ElapsedTime();
+
+    private boolean prevX, prevA, prevB, prevUp, prevDown, prevLeft, prevRight;
+
+    @Override
+    public void init() {
+        select(0);
+        telemetry.addLine("Lower the dwell until strokes come up short, then back off one step and press A.");
+        telemetry.update();
+    }
+
+    @Override
+    public void loop() {
+        if (gamepad1.x && !prevX) select((index + 1) % SERVOS.length);
+        if (gamepad1.dpad_up && !prevUp) dwellMs += 10;
+        if (gamepad1.dpad_down && !prevDown) dwellMs = Math.max(20, dwellMs - 10);
+        if (gamepad1.dpad_right && !prevRight) dwellMs += 50;
+        if (gamepad1.dpad_left && !prevLeft) dwellMs = Math.max(20, dwellMs - 50);
+        if (gamepad1.b && !prevB) sweeping = !sweeping;
+        if (gamepad1.a && !prevA) {
+            ServoSpeeds.save(SERVOS[index], getSpeed());
+            lastSaved = SERVOS[index] + "=" + getSpeed();
+        }
+        prevX = gamepad1.x;
+        prevA = gamepad1.a;
+        prevB = gamepad1.b;
+        prevUp = gamepad1.dpad_up;
+        prevDown = gamepad1.dpad_down;
+        prevLeft = gamepad1.dpad_left;
+        prevRight = gamepad1.dpad_right;
+
+        if (servo != null && sweeping && sweepTimer.milliseconds() >= dwellMs) {
+            high = !high;
+            servo.setPosition(high ? STROKE_HIGH : STROKE_LOW);
+            sweepTimer.reset();
+        }
+
+        telemetry.addData("Servo", servo == null ? SERVOS[index] + " (not found)" : SERVOS[index]);
+        telemetry.addData("Dwell (ms)", dwellMs);
+        telemetry.addData("Speed (units/s)", getSpeed());
+        telemetry.addData("Saved", ServoSpeeds.get(SERVOS[index], Double.NaN));
+        telemetry.addData("Sweeping", sweeping);
+        if (!lastSaved.isEmpty()) telemetry.addData("Last save", lastSaved);
+        telemetry.update();
+    }
+
+    private double getSpeed() {
+        return (STROKE_HIGH - STROKE_LOW) / (dwellMs / 1000.0);
+    }
+
+    private void select(int i) {
+        index = i;
+        try {
+            servo = hardwareMap.get(Servo.class, SERVOS[i]);
+            servo.setPosition(STROKE_LOW);
+        } catch (RuntimeException e) {
+            servo = null;
+        }
+        high = false;
+        sweepTimer.reset();
+    }
+}
@@ -2,21 +2,44 @@ package org.firstinspires.ftc.teamcode.teleop;
 
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.bylazar.configurables.PanelsConfigurables;
-import com.qualcomm.robotcore.util.ElapsedTime;
-/*
-import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
-import com.qualcomm.robotcore.hardware.NormalizedRGBA;
-import android.graphics.Color;
-*/
+import com.bylazar.telemetry.PanelsTelemetry;
+import com.bylazar.telemetry.TelemetryManager;
+import com.pedropathing.geometry.Pose;
+import com.pedropathing.math.Vector;
 
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.CommandScheduler;
+import org.firstinspires.ftc.teamcode.command.ConditionalCommand;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.ParallelRaceGroup;
+import org.firstinspires.ftc.teamcode.command.SequentialCommandGroup;
+import org.firstinspires.ftc.teamcode.command.StartEndCommand;
+import org.firstinspires.ftc.teamcode.command.WaitCommand;
+import org.firstinspires.ftc.teamcode.command.WaitUntilCommand;
+import org.firstinspires.ftc.teamcode.control.ShotOrderPlanner;
+import org.firstinspires.ftc.teamcode.control.ShotSolver;
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.hardware.CachedServo;
+import org.firstinspires.ftc.teamcode.hardware.HardwareCache;
+import org.firstinspires.ftc.teamcode.hardware.HubInputSource;
+import org.firstinspires.ftc.teamcode.hardware.SensorSampler;
+import org.firstinspires.ftc.teamcode.hardware.VoltageService;
+import org.firstinspires.ftc.teamcode.subsystems.IndexerInventory;
 import org.firstinspires.ftc.teamcode.subsystems.IntakeSubsystem;
 import org.firstinspires.ftc.teamcode.subsystems.IndexerSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.BallSensor;
 import org.firstinspires.ftc.teamcode.subsystems.FlywheelSubsystem;
+import org.firstinspires.ftc.teamcode.subsystems.ShotTable;
+import org.firstinspires.ftc.teamcode.subsystems.TurretAimer;
 import org.firstinspires.ftc.teamcode.subsystems.TurretSubsystem;
 import org.firstinspires.ftc.teamcode.subsystems.drive.DriveBase;
 import org.firstinspires.ftc.teamcode.subsystems.drive.PedroDrive;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler;
+import org.firstinspires.ftc.teamcode.util.LoopProfiler.Phase;
+import org.firstinspires.ftc.teamcode.util.TelemetryFormatter;
 
 /**
  * TeleOpPedroTemplate
@@ -40,65 +63,181 @@ public class TeleOpPedroTemplate extends OpMode {
     private static final String INTAKE_ANGLE = "intakeAngle"; // servo
     private static final String FEED_LEVER = "feedLever";     // servo
     private static final String INDEXER = "indexer";          // motor
+    private static final String INDEXER_MAGNET = "indexerMagnet"; // magnetic limit switch
+    private static final String INDEXER_HUB = "Control Hub";   // hub with the indexer motor and magnet
+    private static final int INDEXER_MAGNET_CHANNEL = 0;       // digital port of the magnet switch
     private static final String FLYWHEEL = "flywheel";        // motor
+    private static final String INTAKE_SENSOR = "intakeSensor"; // color/distance sensor in the intake path
     private static final String IMU = "imu"; // optional
-    // private static final String COLOR_SENSOR = "sensor_color"; // color sensor at shooting position
+    private static final String COLOR_SENSOR = "sensor_color"; // color sensor at shooting position
 
     private DriveBase drive;
+    private PedroDrive pedroDrive; // same object as drive, for the odometry pose
     private TurretSubsystem turret;
     private IntakeSubsystem intake;
     private IndexerSubsystem indexer;
     private FlywheelSubsystem flywheel;
+    private HardwareCache hardwareCache;
+    private VoltageService battery;
+    private BallSensor ballSensor;
+    private IndexerInventory inventory;
+    private final SensorSampler sampler = new SensorSampler(); // slow I2C sensors off the loop thread
+    private boolean prevBack = false; // bulk-cache comparison toggle
+    private TelemetryManager panelsTelemetry;
+    private final LoopProfiler profiler = new LoopProfiler();
+
+    // Driver Station telemetry lines (created once in init, in display order)
+    private TelemetryFormatter telemetryFormatter;
+    private TelemetryFormatter.Field loopField, writesField, slowModeField, robotCentricField, driveField;
+    private TelemetryFormatter.Field turretField, intakeField, indexerField;
+    private TelemetryFormatter.Field presetsField, collectionPresetsField, indexerEncField, collectField, flywheelField, shotField;
+    private TelemetryFormatter.Field inventoryField;
     // Indexer preset control
     
     private boolean prevUp = false, prevRight = false, prevDown = false;
     private boolean prevX = false, prevA = false, prevB = false, prevIndex = false;
 
-    // Collection action state
-    private boolean collectionInProgress = false;
-    private boolean waitingIndexer = false;
-    private final ElapsedTime collectionTimer = new ElapsedTime();
-    private final ElapsedTime servoTimer = new ElapsedTime();
-    private final ElapsedTime indexerWaitTimer = new ElapsedTime();
+    // Macros (built once in init, scheduled on button presses)
+    private final CommandScheduler scheduler = new CommandScheduler();
+    private Command collectCommand;
+    private IndexerSubsystem.Selection collectSelection = IndexerSubsystem.Selection.POSITION_1;
+
+    // Collection macro outputs, applied by the drive/intake code each loop
     private boolean driveActive = false;
     private boolean intakeActive = false;
-    private boolean servoPulseActive = false;
-    private long driveDurationMs = 700; // approx for ~5 inches; tune as needed
-    private long servoPulseMs = 250;    // slight dip duration
+    private long driveDurationMs = 700; // give up driving after this if no ball is seated; tune as needed
     private double drivePower = 0.4;    // forward power during collection motion
     private double intakeDipPos = 0.5;  // intake angle halfway down then up
-    private long indexerWaitMs = 4000;  // wait for indexer for 4 seconds before next steps
+    private long indexerTimeoutMs = 1500; // give up waiting for the indexer to settle after this
+
+    // Shooter
+    private double shootRpm = 4500.0;          // flywheel target while gamepad2.right_bumper held
+    private double shootRpmTolerance = 100.0;  // feed lever waits until within this of target
+
+    // Shot setup from range: hood + RPM from the ShotTable while shooting (else shootRpm / stick)
+    private static final boolean USE_SHOT_TABLE = true;
+    // Start pose and red goal in Pedro field coordinates (inches); range = pose to goal. Tune.
+    private static final Pose START_POSE = new Pose(72, 8, Math.toRadians(90));
+    private static final double GOAL_X = 132.0;
+    private static final double GOAL_Y = 136.0;
+    // While shooting, aim yaw/hood/RPM at a virtual goal that cancels the robot's velocity
+    private static final boolean SHOOT_ON_THE_MOVE = true;
+    private ShotTable shotTable;
+    private ShotSolver shotSolver;
+    private TurretAimer aimer;
+    private double shotRangeIn = 0.0;
+
+    // Color selection (gamepad1 X = blue, B = purple): turn the slot holding that color to the turret
+    private boolean prevBlue = false, prevPurple = false;
+    private boolean wasLeverPulsing = false;
 
-    // Software indexing state (disabled: color sensor-based indexing)
-    /*
-    private enum BallColor { BLUE, PURPLE, UNKNOWN }
-    private BallColor[] slots = new BallColor[] { BallColor.UNKNOWN, BallColor.UNKNOWN, BallColor.UNKNOWN };
-    private int head = 0; // slot at shooting/color sensor position
-    private int pendingSteps = 0; // queued forward steps
-    private boolean wasMovingLastUpdate = false;
-    private NormalizedColorSensor colorSensor;
-    */
+    // Shot sequence macro (gamepad1 Y): fire SHOT_PATTERN in order with the least carousel travel
+    private static final IndexerInventory.BallColor[] SHOT_PATTERN = {
+            IndexerInventory.BallColor.PURPLE, IndexerInventory.BallColor.PURPLE, IndexerInventory.BallColor.BLUE};
+    private final ShotOrderPlanner shotPlanner = new ShotOrderPlanner(3);
+    private final int[] shotPattern = new int[SHOT_PATTERN.length];
+    private final int[] slotColors = new int[3];
+    private final int[] shootPresetTicks = new int[3];
+    private Command shootSequenceCommand;
+    private boolean prevShootSequence = false;
 
 
     @Override
     public void init() {
         HardwareMap hw = hardwareMap;
         // Use Pedro Pathing Follower for teleop drive
-        drive = new PedroDrive(hw);
+        pedroDrive = new PedroDrive(hw);
+        pedroDrive.setStartingPose(START_POSE);
+        drive = pedroDrive;
         turret = new TurretSubsystem(hw, TURRET, TURRET_ANGLE);
         intake = new IntakeSubsystem(hw, INTAKE, INTAKE_ANGLE);
-        indexer = new IndexerSubsystem(hw, INDEXER, FEED_LEVER);
+        indexer = new IndexerSubsystem(hw, INDEXER, FEED_LEVER, INDEXER_MAGNET);
+        // Magnet homing samples (encoder + switch) come from the sampler thread's bulk reads.
+        // Each one also refreshes this hub's MANUAL bulk cache mid-loop (see HubInputSource)
+        try {
+            HubInputSource indexerInputs = new HubInputSource(hw, INDEXER_HUB,
+                    new int[] {HubInputSource.portOf(hw.get(DcMotor.class, INDEXER))},
+                    new int[] {INDEXER_MAGNET_CHANNEL});
+            indexer.useInputSnapshot(sampler.addSource(indexerInputs, 5),
+                    indexerInputs.positionIndex(0), indexerInputs.digitalIndex(0), 50);
+        } catch (RuntimeException e) {
+            // No hub by that name: homing reads on the loop thread
+        }
         flywheel = new FlywheelSubsystem(hw, FLYWHEEL);
+        ballSensor = new BallSensor(hw, INTAKE_SENSOR);
+        ballSensor.attach(sampler);
+        // Optional: without the color sensor every slot reads UNKNOWN
+        inventory = new IndexerInventory(hw, COLOR_SENSOR, indexer);
+        inventory.attach(sampler);
+        ShotTable.load();
+        shotTable = new ShotTable();
+        shotSolver = new ShotSolver(shotTable::getTimeOfFlight);
+        // While the flywheel is spun up, the feed lever only fires once it has recovered; a pulse
+        // still waiting when the flywheel is switched off is dropped
+        indexer.setFeedGate(() -> flywheel.getTargetRpm() <= 0.0 || flywheel.isAtSpeed(shootRpmTolerance),
+                () -> flywheel.getTargetRpm() > 0.0);
+        // Bulk caching last so nothing created above can override the hub caching mode
+        hardwareCache = new HardwareCache(hw);
+        // Volt-based commands so drive/turret/intake/flywheel behave the same as the battery drains
+        battery = new VoltageService(hw);
+        pedroDrive.setVoltageService(battery);
+        turret.setVoltageService(battery);
+        aimer = new TurretAimer(turret, GOAL_X, GOAL_Y);
+        intake.setVoltageService(battery);
+        flywheel.setVoltageService(battery);
+        indexer.setVoltageService(battery);
+        panelsTelemetry = PanelsTelemetry.INSTANCE.getTelemetry();
+
+        telemetryFormatter = new TelemetryFormatter(telemetry);
+        loopField = telemetryFormatter.field("Loop");
+        writesField = telemetryFormatter.field("Writes Skipped");
+        slowModeField = telemetryFormatter.field("slowModeHeld");
+        robotCentricField = telemetryFormatter.field("robotCentricHeld");
+        driveField = telemetryFormatter.field("Drive");
+        turretField = telemetryFormatter.field("Turret");
+        intakeField = telemetryFormatter.field("Intake");
+        indexerField = telemetryFormatter.field("Indexer");
+        presetsField = telemetryFormatter.field("Indexer Presets");
+        collectionPresetsField = telemetryFormatter.field("Collection Presets");
+        indexerEncField = telemetryFormatter.field("Indexer Enc");
+        collectField = telemetryFormatter.field("Collect");
+        flywheelField = telemetryFormatter.field("Flywheel");
+        shotField = telemetryFormatter.field("Shot");
+        inventoryField = telemetryFormatter.field("Slots");
+
+        collectCommand = buildCollectCommand();
+        for (int i = 0; i < SHOT_PATTERN.length; i++) shotPattern[i] = SHOT_PATTERN[i].ordinal();
+        shootSequenceCommand = buildShootSequenceCommand();
         // Enable dashboard configurables for indexer presets
         try { PanelsConfigurables.INSTANCE.refreshClass(indexer); } catch (Exception ignore) {}
-        // Color sensor disabled
-        // try {
-        //     colorSensor = hw.get(NormalizedColorSensor.class, COLOR_SENSOR);
-        // } catch (Exception ignore) { colorSensor = null; }
+        try { PanelsConfigurables.INSTANCE.refreshClass(shotTable); } catch (Exception ignore) {}
+    }
+
+    @Override
+    public void start() {
+        // Don't let init-time loops skew the loop profile
+        profiler.reset();
+        sampler.start();
+    }
+
+    @Override
+    public void stop() {
+        sampler.stop();
     }
 
     @Override
     public void loop() {
+        profiler.beginLoop();
+        // One bulk read per hub per loop; must happen before any subsystem reads
+        hardwareCache.clear();
+        battery.update();
+
+        // Loop-time comparison: gamepad1.back toggles bulk caching on/off
+        if (gamepad1.back && !prevBack) {
+            hardwareCache.setBulkCaching(!hardwareCache.isBulkCaching());
+        }
+        prevBack = gamepad1.back;
+
         // Slow mode held while LB
         // held via LB
         boolean slowModeHeld = gamepad1.left_bumper;
@@ -129,12 +268,39 @@ public class TeleOpPedroTemplate extends OpMode {
 
         drive.setDriverInput(x, y, rx, !robotCentricHeld);
         drive.update();
+        profiler.lap(Phase.DRIVE);
 
         // Mechanisms
         // Turret: rotate with right_stick_x, angle with left_stick_y
-        turret.setManualInput(gamepad2.right_stick_x);
+        // Shooting with the table: hood (and, on the move, yaw) come from the shot setup instead
+        // The shot sequence macro shoots too, so the loop keeps its flywheel target and aim
+        boolean shooting = gamepad2.right_bumper || shootSequenceCommand.isScheduled();
+        boolean autoYaw = false;
         turret.setAngleInput(gamepad2.left_stick_y);
+        if (USE_SHOT_TABLE) {
+            shotTable.update();
+            Pose pose = pedroDrive.getPose();
+            if (pose != null) {
+                if (SHOOT_ON_THE_MOVE) {
+                    // Lead the goal by the robot's velocity over the ball's flight time
+                    Vector v = pedroDrive.getVelocity();
+                    double vx = v == null ? 0.0 : v.getXComponent();
+                    double vy = v == null ? 0.0 : v.getYComponent();
+                    shotSolver.solve(pose.getX(), pose.getY(), vx, vy, GOAL_X, GOAL_Y);
+                    shotRangeIn = shotSolver.getRange();
+                    if (shooting) {
+                        aimer.update(pose, null, shotSolver.getVirtualX(), shotSolver.getVirtualY());
+                        autoYaw = true;
+                    }
+                } else {
+                    shotRangeIn = Math.hypot(GOAL_X - pose.getX(), GOAL_Y - pose.getY());
+                }
+            }
+            if (shooting) turret.setAnglePosition(shotTable.getHoodPosition(shotRangeIn));
+        }
+        if (!autoYaw) turret.setManualInput(gamepad2.right_stick_x);
         turret.update();
+        profiler.lap(Phase.TURRET);
 
         // Intake: motor with triggers, rotation servo with left_stick_x
         if (intakeActive) {
@@ -143,9 +309,11 @@ public class TeleOpPedroTemplate extends OpMode {
             intake.setTriggers(gamepad2.right_trigger, gamepad2.left_trigger);
         }
         intake.setRotationInput(gamepad2.left_stick_x);
+        profiler.lap(Phase.INTAKE);
 
-        // Feed lever pulse (in Indexer) on gamepad2.y
-        indexer.handleLeverButton(gamepad2.y);
+        // Feed lever pulse (in Indexer) on gamepad2.y; it shares the lever requirement with the
+        // shot sequence, so pressing it mid-sequence would cancel the whole sequence
+        indexer.handleLeverButton(scheduler, gamepad2.y && !shootSequenceCommand.isScheduled());
 
         // Manual tick nudging on gamepad1: X forward (+2), A back (-2)
         if (gamepad2.x && !prevX) {
@@ -157,24 +325,26 @@ public class TeleOpPedroTemplate extends OpMode {
         }
         prevA = gamepad2.a;
 
-        // Color selection disabled
-        // if (gamepad1.x && !prevX) {
-        //     intake.setHoldUp(true);
-        //     int targetIndex = findColorIndex(BallColor.BLUE);
-        //     if (targetIndex >= 0) {
-        //         int deltaForward = (targetIndex - head + 3) % 3;
-        //         pendingSteps += deltaForward;
-        //     }
-        // } else if (gamepad1.b && !prevB) {
-        //     intake.setHoldUp(true);
-        //     int targetIndex = findColorIndex(BallColor.PURPLE);
-        //     if (targetIndex >= 0) {
-        //         int deltaForward = (targetIndex - head + 3) % 3;
-        //         pendingSteps += deltaForward;
-        //     }
-        // }
-        // prevX = gamepad1.x;
-        // prevB = gamepad1.b;
+        // Color selection from the inventory model (no sensor reads here)
+        IndexerSubsystem.Selection colorSlot = null;
+        if (gamepad1.x && !prevBlue) colorSlot = inventory.findSlot(IndexerInventory.BallColor.BLUE);
+        else if (gamepad1.b && !prevPurple) colorSlot = inventory.findSlot(IndexerInventory.BallColor.PURPLE);
+        if (colorSlot != null && !collectCommand.isScheduled()) {
+            intake.setHoldUp(true);
+            indexer.setSelection(colorSlot);
+        }
+        prevBlue = gamepad1.x;
+        prevPurple = gamepad1.b;
+
+        // Shot sequence: plan from the inventory and run it; press again to cancel
+        if (gamepad1.y && !prevShootSequence) {
+            if (shootSequenceCommand.isScheduled()) {
+                scheduler.cancel(shootSequenceCommand);
+            } else if (planShotSequence()) {
+                scheduler.schedule(shootSequenceCommand);
+            }
+        }
+        prevShootSequence = gamepad1.y;
 
         // Presets via D-Pad, hold LB for collection presets
         boolean collectionMod = gamepad2.left_bumper; // modifier for collection positions
@@ -206,139 +376,241 @@ public class TeleOpPedroTemplate extends OpMode {
         prevRight = gamepad2.dpad_right;
         prevDown = gamepad2.dpad_down;
         // Collection action trigger: B + corresponding D-pad (up/right/down)
-        if (!collectionInProgress && gamepad2.b && !prevB) {
+        if (!collectCommand.isScheduled() && gamepad2.b && !prevB) {
             IndexerSubsystem.Selection sel = null;
             if (gamepad2.dpad_up) sel = IndexerSubsystem.Selection.POSITION_1;
             else if (gamepad2.dpad_right) sel = IndexerSubsystem.Selection.POSITION_2;
             else if (gamepad2.dpad_down) sel = IndexerSubsystem.Selection.POSITION_3;
 
             if (sel != null) {
-                // Step 1: move indexer to collection position first
-                intake.setHoldUp(true);
-                indexer.setCollectionSelection(sel);
-                collectionInProgress = true;
-                waitingIndexer = true;
-                indexerWaitTimer.reset();
+                collectSelection = sel;
+                scheduler.schedule(collectCommand);
             }
         }
         prevB = gamepad2.b;
 
-        // Maintain lever timing only; indexing queue disabled
+        // Magnet homing (lever timing now runs in the scheduler)
         indexer.update();
-        // boolean moving = indexer.isMoving();
-        // if (wasMovingLastUpdate && !moving) {
-        //     // Just arrived: sample color at head
-        //     sampleAndStoreColorAtHead();
-        // }
-        // wasMovingLastUpdate = moving;
-        // if (!moving && pendingSteps > 0) {
-        //     // Execute a single forward step through POSITION_1 -> POSITION_2 -> POSITION_3 -> POSITION_1
-        //     IndexerSubsystem.Selection sel = indexer.getSelection();
-        //     IndexerSubsystem.Selection nextSel;
-        //     switch (sel) {
-        //         case POSITION_1:
-        //             nextSel = IndexerSubsystem.Selection.POSITION_2; break;
-        //         case POSITION_2:
-        //             nextSel = IndexerSubsystem.Selection.POSITION_3; break;
-        //         case POSITION_3:
-        //         default:
-        //             nextSel = IndexerSubsystem.Selection.POSITION_1; break;
-        //     }
-        //     indexer.setSelection(nextSel);
-        //     head = (head + 1) % 3;
-        //     pendingSteps--;
-        // }
-
-        // Collection action progression
-        if (collectionInProgress) {
-            if (waitingIndexer) {
-                // Wait 4 seconds AND for indexer to finish before starting next phase
-                if (indexerWaitTimer.milliseconds() >= indexerWaitMs && !indexer.isMoving()) {
-                    waitingIndexer = false;
-                    // Phase 1: dip intake halfway down
-                    servoPulseActive = true;
-                    servoTimer.reset();
+        ballSensor.update();
+        // Samples the slot color only right after the indexer settles on a shooting preset
+        inventory.update();
+        boolean leverPulsing = indexer.isLeverPulsing();
+        if (wasLeverPulsing && !leverPulsing && indexer.isAtShootingPreset()) {
+            inventory.markShot(indexer.getSelection());
+        }
+        wasLeverPulsing = leverPulsing;
+
+        // Macros (collection, lever pulse)
+        scheduler.run();
+
+        if (!collectCommand.isScheduled()) {
+            // Normal auto-release of intake hold when indexer finishes
+            if (indexer.isSettled() && intake.isHoldUp()) {
+                intake.setHoldUp(false);
+            }
+        }
+
+        profiler.lap(Phase.INDEXER);
+
+        // Flywheel: shooter RPM (from the shot table if enabled) while gamepad2.right_bumper held
+        // or the shot sequence runs
+        flywheel.setTargetRpm(shooting ? shotRpm() : 0.0);
+        flywheel.update();
+        profiler.lap(Phase.FLYWHEEL);
+
+        // Telemetry (retained fields, rewritten in place; no String.format garbage)
+        telemetryFormatter.beginFrame();
+        StringBuilder sb = loopField.begin();
+        sb.append("bulk=").append(hardwareCache.isBulkCaching()).append(" cached=");
+        TelemetryFormatter.appendFixed(sb, hardwareCache.getLoopHz(true), 0).append("Hz uncached=");
+        TelemetryFormatter.appendFixed(sb, hardwareCache.getLoopHz(false), 0).append("Hz");
+        loopField.commit();
+
+        sb = writesField.begin().append("motor=");
+        TelemetryFormatter.appendLong(sb, CachedMotor.getSkippedLastLoop()).append(" servo=");
+        TelemetryFormatter.appendLong(sb, CachedServo.getSkippedLastLoop());
+        writesField.commit();
+
+        slowModeField.begin().append(slowModeHeld);
+        slowModeField.commit();
+        robotCentricField.begin().append(robotCentricHeld);
+        robotCentricField.commit();
+
+        sb = driveField.begin().append("x=");
+        TelemetryFormatter.appendFixed(sb, x, 2).append(" y=");
+        TelemetryFormatter.appendFixed(sb, y, 2).append(" rx=");
+        TelemetryFormatter.appendFixed(sb, rx, 2);
+        driveField.commit();
+
+        turret.appendStatus(turretField.begin());
+        turretField.commit();
+        intake.appendStatus(intakeField.begin());
+        intakeField.commit();
+        indexer.appendStatus(indexerField.begin());
+        indexerField.commit();
+
+        sb = presetsField.begin().append("P1=");
+        TelemetryFormatter.appendLong(sb, IndexerSubsystem.POSITION_1).append(" P2=");
+        TelemetryFormatter.appendLong(sb, IndexerSubsystem.POSITION_2).append(" P3=");
+        TelemetryFormatter.appendLong(sb, IndexerSubsystem.POSITION_3);
+        presetsField.commit();
+
+        sb = collectionPresetsField.begin().append("C1=");
+        TelemetryFormatter.appendLong(sb, IndexerSubsystem.COLLECTION_1).append(" C2=");
+        TelemetryFormatter.appendLong(sb, IndexerSubsystem.COLLECTION_2).append(" C3=");
+        TelemetryFormatter.appendLong(sb, IndexerSubsystem.COLLECTION_3);
+        collectionPresetsField.commit();
+
+        sb = indexerEncField.begin().append("cur=");
+        TelemetryFormatter.appendLong(sb, indexer.getCurrentPosition()).append(" tgt=");
+        TelemetryFormatter.appendLong(sb, indexer.getTargetPosition());
+        indexerEncField.commit();
+
+        sb = collectField.begin()
+            .append("inProg=").append(collectCommand.isScheduled())
+            .append(" drive=").append(driveActive)
+            .append(" intake=").append(intakeActive).append(' ');
+        ballSensor.appendStatus(sb);
+        collectField.commit();
+        sb = inventory.appendStatus(inventoryField.begin());
+        if (shotPlanner.getCount() > 0) {
+            sb.append(" plan=");
+            for (int i = 0; i < shotPlanner.getCount(); i++) sb.append(shotPlanner.getSlot(i) + 1);
+            sb.append(" travel=");
+            TelemetryFormatter.appendLong(sb, Math.round(shotPlanner.getTotalTicks()));
+        }
+        inventoryField.commit();
+
+        flywheel.appendStatus(flywheelField.begin());
+        flywheelField.commit();
+        if (USE_SHOT_TABLE) {
+            shotTable.appendStatus(shotField.begin(), shotRangeIn);
+            shotField.commit();
+        }
+        // Loop profile goes to Panels (and the DS) via the Panels telemetry update
+        profiler.publish(panelsTelemetry);
+        panelsTelemetry.update(telemetry);
+        profiler.lap(Phase.TELEMETRY);
+        profiler.endLoop();
+    }
+    /**
+     * Collection macro: indexer to the collection preset (intake held up), wait for it,
+     * dip the intake, then drive forward with the intake running until the ball sensor reports a
+     * seated ball (or driveDurationMs passes). A seated ball is indexed: the carousel advances to
+     * the next collection slot. However the macro ends (finished, cancelled, replaced) the
+     * drive/intake overrides are released.
+     */
+    private Command buildCollectCommand() {
+        Command sequence = new SequentialCommandGroup(
+                // Step 1: move indexer to collection position first
+                new InstantCommand(() -> {
+                    intake.setHoldUp(true);
+                    indexer.setCollectionSelection(collectSelection);
+                }),
+                // Continue as soon as the indexer settles (timeout in case it jams)
+                new ParallelRaceGroup(
+                        new WaitUntilCommand(indexer::isSettled),
+                        new WaitCommand(() -> indexerTimeoutMs)),
+                // Phase 1: dip intake halfway down; continue once the servo is estimated there
+                new InstantCommand(() -> {
                     intake.setHoldUp(false); // allow angle movement
                     double jHalf = (intakeDipPos * 2.0) - 1.0; // 0..1 -> -1..1
                     intake.setRotationInput(jHalf);
-                }
-            } else {
-                // Phase 1 duration: hold halfway down for servoPulseMs
-                if (servoPulseActive && servoTimer.milliseconds() >= servoPulseMs) {
-                    servoPulseActive = false;
-                    // Phase 2: start drive forward + intake reverse simultaneously
-                    collectionTimer.reset();
+                }),
+                new WaitUntilCommand(intake::isAngleArrived),
+                // Phase 2: drive forward + intake reverse until a ball is seated (driveDurationMs max)
+                new InstantCommand(() -> {
+                    ballSensor.reset();
                     driveActive = true;
                     intakeActive = true;
-                }
-                // Phase 2 duration: drive forward while intake reverse
-                if (driveActive && collectionTimer.milliseconds() >= driveDurationMs) {
+                }),
+                new ParallelRaceGroup(
+                        new WaitUntilCommand(ballSensor::isBallSeated),
+                        new WaitCommand(() -> driveDurationMs)),
+                // Phase 3: stop driving; if we got a ball, index to the next empty slot
+                new InstantCommand(() -> {
                     driveActive = false;
-                    // Stop intake and return servo to up
-                    intakeActive = false;
-                    intake.setTriggers(0.0, 0.0);
-                    intake.setHoldUp(true);
-                    // End collection
-                    collectionInProgress = false;
-                }
-            }
-        } else {
-            // Normal auto-release of intake hold when indexer finishes
-            if (!indexer.isMoving() && intake.isHoldUp()) {
-                intake.setHoldUp(false);
-            }
+                    if (ballSensor.isBallSeated()) {
+                        inventory.markCollected(collectSelection);
+                        collectSelection = nextSlot(collectSelection);
+                        indexer.setCollectionSelection(collectSelection);
+                        ballSensor.reset();
+                    }
+                }),
+                new ParallelRaceGroup(
+                        new WaitUntilCommand(indexer::isSettled),
+                        new WaitCommand(() -> indexerTimeoutMs)));
+
+        return new ParallelRaceGroup(
+                new StartEndCommand(null, this::endCollection),
+                sequence)
+                .requires(intake, indexer);
+    }
+
+    private static IndexerSubsystem.Selection nextSlot(IndexerSubsystem.Selection sel) {
+        switch (sel) {
+            case POSITION_1: return IndexerSubsystem.Selection.POSITION_2;
+            case POSITION_2: return IndexerSubsystem.Selection.POSITION_3;
+            case POSITION_3:
+            default: return IndexerSubsystem.Selection.POSITION_1;
         }
+    }
+
+    /** Flywheel target for the current shot range. */
+    private double shotRpm() {
+        return USE_SHOT_TABLE ? shotTable.getRpm(shotRangeIn) : shootRpm;
+    }
+
+    /** Plan SHOT_PATTERN against the inventory from the indexer's current goal. */
+    private boolean planShotSequence() {
+        inventory.getConfidentColors(slotColors);
+        for (IndexerSubsystem.Selection slot : IndexerSubsystem.Selection.values()) {
+            shootPresetTicks[slot.ordinal()] = indexer.getShootingPresetTicks(slot);
+        }
+        double ticksPerRev = IndexerSubsystem.shortestPath ? IndexerSubsystem.carouselTicksPerRev : 0.0;
+        return shotPlanner.plan(slotColors, shootPresetTicks, indexer.getTargetPosition(),
+                shotPattern, shotPattern.length, ticksPerRev);
+    }
+
+    /**
+     * Shot sequence macro: spin the flywheel up to the shot table RPM, then for each planned shot
+     * turn the slot to the turret (intake held up), wait for the indexer and for the flywheel to
+     * be at speed and fire one lever pulse; the loop marks the slot empty when the stroke ends,
+     * as for a manual pulse. Built once with one step per slot (each with its own pulse); steps
+     * past the plan's length are skipped. The loop keeps the flywheel target while the macro is
+     * scheduled.
+     */
+    private Command buildShootSequenceCommand() {
+        Command[] steps = new Command[4];
+        IndexerSubsystem.Selection[] selections = IndexerSubsystem.Selection.values();
+        steps[0] = new InstantCommand(() -> flywheel.setTargetRpm(shotRpm()));
+        for (int i = 1; i < steps.length; i++) {
+            final int shot = i - 1;
+            steps[i] = new ConditionalCommand(
+                    new SequentialCommandGroup(
+                            new InstantCommand(() -> {
+                                intake.setHoldUp(true);
+                                indexer.setSelection(selections[shotPlanner.getSlot(shot)]);
+                            }),
+                            new ParallelRaceGroup(
+                                    new WaitUntilCommand(indexer::isSettled),
+                                    new WaitCommand(() -> indexerTimeoutMs)),
+                            // Never feed a stopped wheel, whatever the lever's own gate allows
+                            new WaitUntilCommand(() -> flywheel.getTargetRpm() > 0.0
+                                    && flywheel.isAtSpeed(shootRpmTolerance)),
+                            indexer.createLeverPulse()),
+                    new InstantCommand(null),
+                    () -> shot < shotPlanner.getCount());
+        }
+        return new SequentialCommandGroup(steps)
+                .requires(intake, indexer, indexer.getLeverRequirement());
+    }
 
-        // Flywheel: run while gamepad2.right_bumper held
-        flywheel.setPower(gamepad2.right_bumper ? 1.0 : 0.0);
-
-        // Telemetry
-        telemetry.addData("slowModeHeld", slowModeHeld);
-        telemetry.addData("robotCentricHeld", robotCentricHeld);
-        telemetry.addData("Drive", "x=%.2f y=%.2f rx=%.2f", x, y, rx);
-        telemetry.addData("Turret", turret.getStatus());
-        telemetry.addData("Intake", intake.getStatus());
-        telemetry.addData("Indexer", indexer.getStatus());
-        telemetry.addData("Indexer Presets", String.format("P1=%d P2=%d P3=%d",
-            IndexerSubsystem.POSITION_1,
-            IndexerSubsystem.POSITION_2,
-            IndexerSubsystem.POSITION_3));
-        telemetry.addData("Collection Presets", String.format("C1=%d C2=%d C3=%d",
-            IndexerSubsystem.COLLECTION_1,
-            IndexerSubsystem.COLLECTION_2,
-            IndexerSubsystem.COLLECTION_3));
-        telemetry.addData("Indexer Enc", String.format("cur=%d tgt=%d",
-            indexer.getCurrentPosition(),
-            indexer.getTargetPosition()));
-        telemetry.addData("Collect", String.format("inProg=%s waitIdx=%s drive=%s intake=%s servoPulse=%s",
-            collectionInProgress, waitingIndexer, driveActive, intakeActive, servoPulseActive));
-        // telemetry.addData("Buffer", String.format("head=%d slots=[%s,%s,%s]", head, slots[0], slots[1], slots[2]));
-        telemetry.addData("Flywheel", flywheel.getStatus());
-        telemetry.update();
+    /** Stop intake and return servo to up. */
+    private void endCollection() {
+        driveActive = false;
+        intakeActive = false;
+        intake.setTriggers(0.0, 0.0);
+        intake.setHoldUp(true);
     }
-    // private int findColorIndex(BallColor desired) {
-    //     for (int i = 0; i < 3; i++) {
-    //         if (slots[i] == desired) return i;
-    //     }
-    //     return -1;
-    // }
-
-    // private void sampleAndStoreColorAtHead() {
-    //     if (colorSensor == null) return;
-    //     try {
-    //         NormalizedRGBA colors = colorSensor.getNormalizedColors();
-    //         final float[] hsv = new float[3];
-    //         Color.colorToHSV(colors.toColor(), hsv);
-    //         float hue = hsv[0];
-    //         BallColor detected;
-    //         if (hue >= 200 && hue < 260) {
-    //             detected = BallColor.BLUE;
-    //         } else if (hue >= 260 && hue < 340) {
-    //             detected = BallColor.PURPLE;
-    //         } else {
-    //             detected = BallColor.UNKNOWN;
-    //         }
-    //         slots[head] = detected;
-    //     } catch (Exception ignore) { /* leave UNKNOWN */ }
-    // }
 }
@@ -0,0 +1,164 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import com.bylazar.telemetry.TelemetryManager;
+
+/**
+ * Per-phase loop timing with fixed-bucket histograms.
+ *
+ * Usage, once per loop:
+ *   profiler.beginLoop();
+ *   ... drive code ...      profiler.lap(Phase.DRIVE);
+ *   ... turret code ...     profiler.lap(Phase.TURRET);
+ *   profiler.endLoop();
+ *   profiler.publish(panelsTelemetry);
+ *
+ * lap(phase) charges everything since the previous lap (or beginLoop) to that phase.
+ * Recording is allocation-free (System.nanoTime + an array increment). Percentiles are only
+ * recomputed and formatted every {@link #PUBLISH_PERIOD_MS}; in between, publish() re-emits
+ * the cached lines.
+ */
+public class LoopProfiler {
+
+    public enum Phase {
+        DRIVE("drive"),
+        AUTO("auto"),
+        TURRET("turret"),
+        INTAKE("intake"),
+        INDEXER("indexer"),
+        FLYWHEEL("flywheel"),
+        TELEMETRY("telemetry"),
+        FIELD("field"),
+        LOOP("loop"); // whole loop, recorded by endLoop()
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    // Histogram: BUCKET_US wide buckets, last bucket is overflow (>= BUCKETS * BUCKET_US)
+    private static final int BUCKET_US = 100;
+    private static final int BUCKETS = 500; // 0..50 ms
+    private static final long PUBLISH_PERIOD_MS = 500;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final String[] KEYS = new String[PHASES.length];
+
+    static {
+        for (Phase phase : PHASES) KEYS[phase.ordinal()] = "Loop/" + phase.label;
+    }
+
+    private final int[][] histogram = new int[PHASES.length][BUCKETS + 1];
+    private final long[] samples = new long[PHASES.length];
+    private final long[] maxNanos = new long[PHASES.length];
+
+    // Cached output, rebuilt at PUBLISH_PERIOD_MS
+    private final String[] lines = new String[PHASES.length];
+
+    private long loopStartNanos = 0;
+    private long lapStartNanos = 0;
+    private long lastPublishNanos = 0;
+    private boolean enabled = true;
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Mark the start of a loop (and of the first phase). */
+    public void beginLoop() {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        loopStartNanos = now;
+        lapStartNanos = now;
+    }
+
+    /** Charge the time since the previous lap (or beginLoop) to {@code phase}. */
+    public void lap(Phase phase) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        record(phase, now - lapStartNanos);
+        lapStartNanos = now;
+    }
+
+    /** Record total loop time since beginLoop(). */
+    public void endLoop() {
+        if (!enabled || loopStartNanos == 0) return;
+        record(Phase.LOOP, System.nanoTime() - loopStartNanos);
+    }
+
+    /** Record a duration measured elsewhere. */
+    public void record(Phase phase, long nanos) {
+        int p = phase.ordinal();
+        int bucket = (int) Math.min(BUCKETS, Math.max(0L, nanos / 1000L / BUCKET_US));
+        histogram[p][bucket]++;
+        samples[p]++;
+        if (nanos > maxNanos[p]) maxNanos[p] = nanos;
+    }
+
+    /** Clear all histograms (e.g. at start() so init time doesn't skew the numbers). */
+    public void reset() {
+        for (int p = 0; p < PHASES.length; p++) {
+            int[] h = histogram[p];
+            for (int b = 0; b < h.length; b++) h[b] = 0;
+            samples[p] = 0;
+            maxNanos[p] = 0;
+            lines[p] = null;
+        }
+        loopStartNanos = 0;
+        lastPublishNanos = 0;
+    }
+
+    /**
+     * Emit "p50/p95/p99/max" (ms) per phase to Panels. Stats are recomputed at a low rate;
+     * phases with no samples are skipped. Call before panelsTelemetry.update(...).
+     */
+    public void publish(TelemetryManager panels) {
+        if (!enabled || panels == null) return;
+
+        long now = System.nanoTime();
+        if (lastPublishNanos == 0 || now - lastPublishNanos >= PUBLISH_PERIOD_MS * 1_000_000L) {
+            lastPublishNanos = now;
+            for (int p = 0; p < PHASES.length; p++) {
+                lines[p] = samples[p] == 0 ? null : String.format("p50=%.2f p95=%.2f p99=%.2f max=%.2f ms",
+                        percentileMs(p, 0.50), percentileMs(p, 0.95), percentileMs(p, 0.99),
+                        maxNanos[p] / 1e6);
+            }
+        }
+
+        for (int p = 0; p < PHASES.length; p++) {
+            if (lines[p] != null) panels.debug(KEYS[p], lines[p]);
+        }
+    }
+
+    /** Percentile (0..1) in ms for a phase, 0 if no samples. Resolution is one bucket. */
+    public double getPercentileMs(Phase phase, double q) {
+        return percentileMs(phase.ordinal(), q);
+    }
+
+    public double getMaxMs(Phase phase) {
+        return maxNanos[phase.ordinal()] / 1e6;
+    }
+
+    private double percentileMs(int p, double q) {
+        long n = samples[p];
+        if (n == 0) return 0.0;
+        long rank = (long) Math.ceil(q * n);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        int[] h = histogram[p];
+        for (int b = 0; b < h.length; b++) {
+            seen += h[b];
+            if (seen >= rank) {
+                // Overflow bucket has no upper edge; report the true max instead
+                if (b == BUCKETS) return maxNanos[p] / 1e6;
+                return ((b + 1) * BUCKET_US) / 1000.0; // bucket upper edge
+            }
+        }
+        return maxNanos[p] / 1e6;
+    }
+}
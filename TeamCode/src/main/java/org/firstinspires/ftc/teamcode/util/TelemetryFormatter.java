@@ -0,0 +1,135 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Garbage-free Driver Station telemetry.
+ *
+ * String.format allocates a Formatter, a StringBuilder and the result String on every call,
+ * and a loop with a dozen of them produces enough churn to trigger GC pauses mid-match.
+ * Here each telemetry line is a {@link Field}: a retained telemetry Item backed by a reused
+ * StringBuilder. Every loop the caller rewrites the field's scratch buffer with the append
+ * helpers below, and {@link Field#commit()} copies it to the displayed buffer only if the text
+ * changed. Nothing is allocated once the buffers have grown to their steady-state size.
+ *
+ * Usage:
+ *   init:  fmt = new TelemetryFormatter(telemetry); drive = fmt.field("Drive");
+ *   loop:  fmt.beginFrame();
+ *          StringBuilder sb = drive.begin();
+ *          sb.append("x="); TelemetryFormatter.appendFixed(sb, x, 2);
+ *          drive.commit();
+ *          telemetry.update();
+ */
+public class TelemetryFormatter {
+    private static final int INITIAL_CAPACITY = 96;
+    private static final int MAX_DECIMALS = 9;
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private final Telemetry telemetry;
+
+    public TelemetryFormatter(Telemetry telemetry) {
+        this.telemetry = telemetry;
+        // Fields are retained items; transient lines are dropped in beginFrame()
+        telemetry.setAutoClear(false);
+    }
+
+    /** Create a retained telemetry line. Call once at init, in display order. */
+    public Field field(String caption) {
+        Field f = new Field();
+        f.item = telemetry.addData(caption, f.display);
+        f.item.setRetained(true);
+        return f;
+    }
+
+    /**
+     * Call once per loop before adding any non-field lines. Drops last loop's transient lines
+     * (e.g. Panels output) while keeping the retained fields.
+     */
+    public void beginFrame() {
+        telemetry.clear();
+    }
+
+    /** One retained telemetry line. */
+    public static class Field {
+        private final StringBuilder scratch = new StringBuilder(INITIAL_CAPACITY);
+        private final StringBuilder display = new StringBuilder(INITIAL_CAPACITY);
+        private Telemetry.Item item;
+
+        /** Start rewriting this line. Returns the (cleared) scratch buffer to append into. */
+        public StringBuilder begin() {
+            scratch.setLength(0);
+            return scratch;
+        }
+
+        /** Publish the scratch buffer if it differs from what is displayed. Returns true if changed. */
+        public boolean commit() {
+            if (contentEquals(scratch, display)) return false;
+            display.setLength(0);
+            display.append(scratch);
+            item.setValue(display);
+            return true;
+        }
+
+        /** Currently displayed text. */
+        public CharSequence getText() {
+            return display;
+        }
+    }
+
+    // ---- Append helpers (no allocation) ----
+
+    /** Fixed-point decimal, rounded half-up like %.Nf ("-0.00" prints as "0.00"). */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        if (Double.isNaN(value)) return sb.append("NaN");
+        if (Double.isInfinite(value)) return sb.append(value > 0 ? "Inf" : "-Inf");
+
+        int d = Math.max(0, Math.min(MAX_DECIMALS, decimals));
+        long scale = POW10[d];
+        double scaled = Math.abs(value) * scale;
+        if (scaled >= 9.0e17) {
+            // Out of long range at this precision; never happens for robot values, so allocating is fine
+            return sb.append(value);
+        }
+
+        long rounded = Math.round(scaled);
+        if (value < 0 && rounded != 0) sb.append('-');
+        appendLong(sb, rounded / scale);
+        if (d > 0) {
+            sb.append('.');
+            long frac = rounded % scale;
+            for (long div = scale / 10; div > 0; div /= 10) {
+                sb.append((char) ('0' + frac / div));
+                frac %= div;
+            }
+        }
+        return sb;
+    }
+
+    /** Decimal integer without going through Long.toString. */
+    public static StringBuilder appendLong(StringBuilder sb, long value) {
+        if (value == Long.MIN_VALUE) return sb.append("-9223372036854775808");
+        if (value < 0) {
+            sb.append('-');
+            value = -value;
+        }
+        long div = 1;
+        while (div <= value / 10) div *= 10;
+        while (div > 0) {
+            sb.append((char) ('0' + value / div));
+            value %= div;
+            div /= 10;
+        }
+        return sb;
+    }
+
+    private static boolean contentEquals(StringBuilder a, StringBuilder b) {
+        int n = a.length();
+        if (n != b.length()) return false;
+        for (int i = 0; i < n; i++) {
+            if (a.charAt(i) != b.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,175 @@
+package org.firstinspires.ftc.teamcode.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class CommandSchedulerTest {
+    /** Never finishes; counts execute() calls and optionally schedules another command once. */
+    private static class Counter extends Command {
+        int executes;
+        int ends;
+        CommandScheduler scheduler;
+        Command toSchedule;
+
+        @Override
+        public void execute() {
+            executes++;
+            if (toSchedule != null) {
+                scheduler.schedule(toSchedule);
+                toSchedule = null;
+            }
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            ends++;
+        }
+    }
+
+    @Test
+    public void schedulingIntoAFullArrayDuringRunKeepsEveryCommandOnce() {
+        CommandScheduler scheduler = new CommandScheduler();
+        Counter[] commands = new Counter[16]; // default capacity: the array is full
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = new Counter();
+            scheduler.schedule(commands[i]);
+        }
+        // Leave a hole at the front so a compaction would shift everything after it
+        scheduler.cancel(commands[0]);
+        Counter late = new Counter();
+        commands[5].scheduler = scheduler;
+        commands[5].toSchedule = late;
+
+        scheduler.run();
+
+        for (int i = 1; i < commands.length; i++) {
+            assertEquals("command " + i, 1, commands[i].executes);
+        }
+        assertEquals(0, commands[0].executes);
+        assertEquals(1, late.executes); // scheduled this tick, appended and run this tick
+        assertEquals(16, scheduler.size());
+
+        scheduler.run();
+        for (int i = 1; i < commands.length; i++) {
+            assertEquals("command " + i, 2, commands[i].executes);
+        }
+        assertEquals(2, late.executes);
+    }
+
+    @Test
+    public void conflictingScheduleInterruptsTheRunningCommand() {
+        Subsystem shared = new Subsystem() {};
+        CommandScheduler scheduler = new CommandScheduler();
+        Counter first = new Counter();
+        first.requires(shared);
+        Counter second = new Counter();
+        second.requires(shared);
+
+        scheduler.schedule(first);
+        scheduler.schedule(second);
+        assertFalse(first.isScheduled());
+        assertEquals(1, first.ends);
+        assertTrue(second.isScheduled());
+
+        scheduler.run();
+        assertEquals(0, first.executes);
+        assertEquals(1, second.executes);
+    }
+
+    @Test
+    public void finishedCommandsEndOnce() {
+        CommandScheduler scheduler = new CommandScheduler();
+        int[] runs = {0};
+        scheduler.schedule(new InstantCommand(() -> runs[0]++));
+        scheduler.run();
+        scheduler.run();
+        assertEquals(1, runs[0]);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void childrenOfARunningGroupReportScheduled() {
+        CommandScheduler scheduler = new CommandScheduler();
+        boolean[] go = {false};
+        Counter raced = new Counter();
+        WaitUntilCommand gate = new WaitUntilCommand(() -> go[0]);
+        Counter onTrue = new Counter();
+        Command onFalse = new InstantCommand(null);
+        ParallelRaceGroup race = new ParallelRaceGroup(raced, gate);
+        ConditionalCommand branch = new ConditionalCommand(onTrue, onFalse, () -> true);
+        SequentialCommandGroup group = new SequentialCommandGroup(race, branch);
+        assertTrue(race.isComposed());
+        assertFalse(group.isComposed());
+
+        scheduler.schedule(group);
+        scheduler.run();
+        assertTrue(race.isScheduled());
+        assertTrue(raced.isScheduled());
+        assertTrue(gate.isScheduled());
+        assertFalse(branch.isScheduled()); // not started yet
+
+        go[0] = true;
+        scheduler.run();
+        assertFalse(race.isScheduled());
+        assertFalse(raced.isScheduled());
+        assertEquals(1, raced.ends);
+        assertTrue(branch.isScheduled());
+        assertTrue(onTrue.isScheduled());
+        assertFalse(onFalse.isScheduled());
+
+        scheduler.cancel(group);
+        assertFalse(branch.isScheduled());
+        assertFalse(onTrue.isScheduled());
+        assertEquals(1, onTrue.ends);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aCommandCannotJoinTwoGroups() {
+        Command shared = new InstantCommand(null);
+        new SequentialCommandGroup(shared);
+        new ParallelRaceGroup(shared, new WaitCommand(() -> 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aCommandCannotAppearTwiceInOneGroup() {
+        Command step = new InstantCommand(null);
+        new SequentialCommandGroup(step, new WaitCommand(() -> 10), step);
+    }
+
+    @Test
+    public void composedCommandsCannotBeScheduledOrCancelledDirectly() {
+        CommandScheduler scheduler = new CommandScheduler();
+        Counter child = new Counter();
+        Command group = new ParallelCommandGroup(child);
+        scheduler.schedule(group);
+        scheduler.run();
+        assertTrue(child.isScheduled());
+
+        try {
+            scheduler.schedule(child);
+            fail("scheduled a group's child");
+        } catch (IllegalArgumentException expected) {
+            // the group still owns it
+        }
+        try {
+            scheduler.cancel(child);
+            fail("cancelled a group's child");
+        } catch (IllegalArgumentException expected) {
+            // the group still owns it
+        }
+        assertTrue(group.isScheduled());
+        assertEquals(0, child.ends);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aScheduledCommandCannotJoinAGroup() {
+        CommandScheduler scheduler = new CommandScheduler();
+        Counter running = new Counter();
+        scheduler.schedule(running);
+        new SequentialCommandGroup(running);
+    }
+}
@@ -0,0 +1,34 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ArmFeedforwardTest {
+    private static final double EPS = 1e-12;
+    private final ArmFeedforward ff = new ArmFeedforward(0.2, 1.5, 0.8, 0.1);
+
+    @Test
+    public void holdingHorizontalNeedsFullGravityTerm() {
+        assertEquals(1.5, ff.calculate(0.0, 0.0, 0.0), EPS);
+    }
+
+    @Test
+    public void holdingVerticalNeedsNoGravityTerm() {
+        assertEquals(0.0, ff.calculate(Math.PI / 2.0, 0.0, 0.0), 1e-9);
+    }
+
+    @Test
+    public void staticFrictionFollowsTheDirectionOfMotion() {
+        double angle = Math.PI / 3.0; // cos = 0.5
+        assertEquals(0.2 + 0.75 + 0.8 * 2.0 + 0.1 * 3.0, ff.calculate(angle, 2.0, 3.0), EPS);
+        assertEquals(-0.2 + 0.75 - 0.8 * 2.0, ff.calculate(angle, -2.0, 0.0), EPS);
+    }
+
+    @Test
+    public void setGainsReplacesAllFour() {
+        ArmFeedforward arm = new ArmFeedforward(0.0, 0.0, 0.0, 0.0);
+        arm.setGains(1.0, 2.0, 3.0, 4.0);
+        assertEquals(1.0 + 2.0 + 3.0 + 4.0, arm.calculate(0.0, 1.0, 1.0), EPS);
+    }
+}
@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class ControlMathTest {
+    @Test
+    public void zeroNaNReplacesOnlyNaN() {
+        double[][] points = {
+                {1.0, Double.NaN, 3.0},
+                {Double.NaN, -2.0, Double.POSITIVE_INFINITY},
+        };
+        ControlMath.zeroNaN(points);
+        assertArrayEquals(new double[] {1.0, 0.0, 3.0}, points[0], 0.0);
+        assertArrayEquals(new double[] {0.0, -2.0, Double.POSITIVE_INFINITY}, points[1], 0.0);
+    }
+
+    @Test
+    public void zeroNaNAcceptsNullAndEmptyInput() {
+        ControlMath.zeroNaN(null);
+        ControlMath.zeroNaN(new double[0][]);
+
+        double[][] emptyRows = {new double[0], new double[0]};
+        ControlMath.zeroNaN(emptyRows);
+        assertArrayEquals(new double[0], emptyRows[1], 0.0);
+    }
+}
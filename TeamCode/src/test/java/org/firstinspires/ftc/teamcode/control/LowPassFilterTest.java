@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LowPassFilterTest {
+    private static final double EPS = 1e-12;
+
+    @Test
+    public void firstSampleIsTakenAsIs() {
+        LowPassFilter filter = new LowPassFilter(0.9);
+        assertEquals(7.0, filter.calculate(7.0), EPS);
+    }
+
+    @Test
+    public void laterSamplesAreBlendedByAlpha() {
+        LowPassFilter filter = new LowPassFilter(0.75);
+        filter.calculate(0.0);
+        assertEquals(1.0, filter.calculate(4.0), EPS);
+        assertEquals(1.75, filter.calculate(4.0), EPS);
+        assertEquals(1.75, filter.get(), EPS);
+    }
+
+    @Test
+    public void zeroAlphaPassesSamplesThrough() {
+        LowPassFilter filter = new LowPassFilter(0.0);
+        filter.calculate(3.0);
+        assertEquals(-2.0, filter.calculate(-2.0), EPS);
+    }
+
+    @Test
+    public void resetToValueFiltersFromThere() {
+        LowPassFilter filter = new LowPassFilter(0.5);
+        filter.calculate(100.0);
+        filter.reset(10.0);
+        assertEquals(15.0, filter.calculate(20.0), EPS);
+    }
+
+    @Test
+    public void resetTakesTheNextSampleAsIs() {
+        LowPassFilter filter = new LowPassFilter(0.5);
+        filter.calculate(100.0);
+        filter.reset();
+        assertEquals(20.0, filter.calculate(20.0), EPS);
+    }
+}
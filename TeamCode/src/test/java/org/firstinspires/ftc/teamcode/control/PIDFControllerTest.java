@@ -0,0 +1,104 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+
+import org.firstinspires.ftc.teamcode.util.Allocations;
+import org.junit.Test;
+
+public class PIDFControllerTest {
+    private static final long DT = 10_000_000L; // 10 ms
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void proportionalPlusSetpointFeedforward() {
+        PIDFController pid = new PIDFController(2.0, 0.0, 0.0, 0.5);
+        assertEquals(2.0 * 2.0 + 0.5 * 3.0, pid.calculate(1.0, 3.0, DT), EPS);
+        assertEquals(2.0, pid.getError(), EPS);
+    }
+
+    @Test
+    public void derivativeOnMeasurementIgnoresSetpointJumps() {
+        PIDFController pid = new PIDFController(0.0, 0.0, 1.0);
+        pid.calculate(0.0, 0.0, DT);
+        assertEquals(0.0, pid.calculate(0.0, 10.0, DT), EPS);
+        // Measurement rising 1 per 10 ms opposes the output: -100 per second
+        assertEquals(-100.0, pid.calculate(1.0, 10.0, DT), EPS);
+    }
+
+    @Test
+    public void derivativeOnErrorFollowsSetpointJumps() {
+        PIDFController pid = new PIDFController(0.0, 0.0, 1.0);
+        pid.derivativeOnMeasurement = false;
+        pid.calculate(0.0, 0.0, DT);
+        assertEquals(10.0 / 0.01, pid.calculate(0.0, 10.0, DT), EPS);
+    }
+
+    @Test
+    public void integralIsClampedToItsLimit() {
+        PIDFController pid = new PIDFController(0.0, 1.0, 0.0);
+        pid.integralLimit = 0.5;
+        for (int i = 0; i < 100; i++) pid.calculate(0.0, 1.0, DT);
+        assertEquals(0.5, pid.getIntegral(), EPS);
+        assertEquals(0.5, pid.getOutput(), EPS);
+    }
+
+    @Test
+    public void integralStopsGrowingWhileSaturated() {
+        PIDFController pid = new PIDFController(0.0, 1.0, 0.0);
+        pid.setOutputLimits(-1.0, 1.0);
+        for (int i = 0; i < 100; i++) pid.calculate(0.0, 10.0, 100_000_000L);
+        // First step reaches exactly 1.0; every later one would push past maxOutput
+        assertEquals(1.0, pid.getIntegral(), EPS);
+
+        // So it unwinds as soon as the error reverses
+        pid.calculate(0.0, -1.0, 100_000_000L);
+        assertEquals(0.9, pid.getIntegral(), EPS);
+    }
+
+    @Test
+    public void outputIsClampedThenSlewLimited() {
+        PIDFController pid = new PIDFController(1.0, 0.0, 0.0);
+        pid.setOutputLimits(-5.0, 5.0);
+        pid.maxOutputRatePerSec = 100.0;
+        assertEquals(0.0, pid.calculate(0.0, 0.0, DT), EPS);
+        assertEquals(1.0, pid.calculate(0.0, 50.0, DT), EPS); // 100/s * 10 ms
+        for (int i = 0; i < 10; i++) pid.calculate(0.0, 50.0, DT);
+        assertEquals(5.0, pid.getOutput(), EPS);
+    }
+
+    @Test
+    public void zeroDtHoldsTheOutputOnlyWhenSlewLimited() {
+        PIDFController limited = new PIDFController(1.0, 1.0, 1.0);
+        limited.maxOutputRatePerSec = 100.0;
+        limited.calculate(0.0, 1.0, DT);
+        double held = limited.getOutput();
+        assertEquals(held, limited.calculate(0.0, 3.0, 0L), EPS);
+
+        PIDFController free = new PIDFController(1.0, 1.0, 1.0);
+        free.calculate(0.0, 1.0, DT);
+        double integral = free.getIntegral();
+        // P still applies; I and D are skipped
+        assertEquals(3.0 + integral, free.calculate(0.0, 3.0, 0L), EPS);
+        assertEquals(integral, free.getIntegral(), EPS);
+    }
+
+    @Test
+    public void resetForgetsState() {
+        PIDFController pid = new PIDFController(1.0, 1.0, 1.0);
+        for (int i = 0; i < 10; i++) pid.calculate(i, 20.0, DT);
+        pid.reset();
+        assertEquals(0.0, pid.getIntegral(), 0.0);
+        // No derivative kick from the measurement before reset
+        assertEquals(2.0 + 2.0 * 0.01, pid.calculate(5.0, 7.0, DT), EPS);
+    }
+
+    @Test
+    public void calculateDoesNotAllocate() {
+        PIDFController pid = new PIDFController(0.01, 0.001, 0.0001, 0.0002);
+        pid.setOutputLimits(-1.0, 1.0);
+        pid.maxOutputRatePerSec = 5.0;
+        pid.derivativeFilterAlpha = 0.5;
+        double[] t = {0.0};
+        assertEquals(0.0, Allocations.perCall(() -> pid.calculate(t[0]++ % 5000.0, 4000.0, DT), 100_000), 1.0);
+    }
+}
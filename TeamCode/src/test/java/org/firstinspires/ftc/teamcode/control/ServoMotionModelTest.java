@@ -0,0 +1,72 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ServoMotionModelTest {
+    private static final long T0 = 5_000_000_000L;
+
+    private static long at(double sec) {
+        return T0 + Math.round(sec * 1e9);
+    }
+
+    /** 2 units/s servo that was sitting at 0.2 well before T0. */
+    private static ServoMotionModel servoAtRest() {
+        ServoMotionModel model = new ServoMotionModel(2.0);
+        model.command(0.2, T0 - 1_000_000_000L);
+        return model;
+    }
+
+    @Test
+    public void nothingCommandedIsArrivedWithNoEstimate() {
+        ServoMotionModel model = new ServoMotionModel(2.0);
+        assertTrue(model.isArrived(T0));
+        assertTrue(Double.isNaN(model.estimate(T0)));
+        assertEquals(0.0, model.getMoveTimeSec(), 0.0);
+    }
+
+    @Test
+    public void arrivalTakesTravelOverSpeedPlusSettle() {
+        ServoMotionModel model = servoAtRest();
+        model.command(0.8, T0);
+        // 0.6 units at 2 units/s = 0.3 s, + 0.02 s settle
+        assertEquals(0.32, model.getMoveTimeSec(), 1e-12);
+        assertEquals(0.5, model.estimate(at(0.15)), 1e-9);
+        assertEquals(0.8, model.estimate(at(0.30)), 1e-9);
+        assertFalse(model.isArrived(at(0.319)));
+        assertTrue(model.isArrived(at(0.321)));
+
+        // Smaller moves arrive sooner: that is the point of the model over a fixed timer
+        model.command(0.7, at(1.0));
+        assertFalse(model.isArrived(at(1.069)));
+        assertTrue(model.isArrived(at(1.071)));
+    }
+
+    @Test
+    public void retargetingMidMoveStartsFromTheEstimate() {
+        ServoMotionModel model = servoAtRest();
+        model.command(0.8, T0);
+        // Halfway (0.5), turn back to 0.3: 0.2 units from where it is, not from 0.8
+        model.command(0.3, at(0.15));
+        assertEquals(0.5, model.estimate(at(0.15)), 1e-9);
+        assertEquals(0.4, model.estimate(at(0.20)), 1e-9);
+        assertEquals(0.12, model.getMoveTimeSec(), 1e-9);
+        assertFalse(model.isArrived(at(0.15 + 0.119)));
+        assertTrue(model.isArrived(at(0.15 + 0.121)));
+        assertEquals(0.3, model.getTarget(), 0.0);
+    }
+
+    @Test
+    public void infiniteSpeedOnlyWaitsToSettle() {
+        ServoMotionModel model = new ServoMotionModel(Double.POSITIVE_INFINITY);
+        model.command(0.0, T0);
+        model.command(1.0, at(1.0));
+        assertEquals(1.0, model.estimate(at(1.0)), 0.0);
+        assertEquals(model.settleSec, model.getMoveTimeSec(), 0.0);
+        assertFalse(model.isArrived(at(1.019)));
+        assertTrue(model.isArrived(at(1.021)));
+    }
+}
@@ -0,0 +1,132 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ShotOrderPlannerTest {
+    private static final int P = 1; // purple
+    private static final int G = 2; // green
+    private static final double TICKS_PER_REV = 288.0;
+    private static final int[] PRESETS = {0, 96, 192};
+
+    private static int[] slots(ShotOrderPlanner planner) {
+        int[] out = new int[planner.getCount()];
+        for (int i = 0; i < out.length; i++) out[i] = planner.getSlot(i);
+        return out;
+    }
+
+    @Test
+    public void picksTheOrderWithLeastPlainTravel() {
+        ShotOrderPlanner planner = new ShotOrderPlanner(3);
+        int[] presets = {0, 192, 94};
+        assertTrue(planner.plan(new int[] {P, P, G}, presets, 192.0, new int[] {P, P, G}, 3, 0.0));
+        // 1, 0, 2 = 0 + 192 + 94 = 286; 0, 1, 2 = 192 + 192 + 98 = 482
+        assertArrayEquals(new int[] {1, 0, 2}, slots(planner));
+        assertEquals(286.0, planner.getTotalTicks(), 0.0);
+    }
+
+    @Test
+    public void shortestPathMovesWrapAround() {
+        ShotOrderPlanner planner = new ShotOrderPlanner(3);
+        // From 0: 0, 1, 2 is 0 + 96 + 96 (0, 2, 1 ties by wrapping 192 -> -96); 2, 1, 0 is 288
+        assertTrue(planner.plan(new int[] {P, P, P}, PRESETS, 0.0, new int[] {P, P, P}, 3, TICKS_PER_REV));
+        assertArrayEquals(new int[] {0, 1, 2}, slots(planner));
+        assertEquals(192.0, planner.getTotalTicks(), 0.0);
+
+        // Starting at 192, slot 0 is one short step forward (192 -> 288) rather than 192 back
+        assertTrue(planner.plan(new int[] {G, P, P}, PRESETS, 192.0, new int[] {G}, 1, TICKS_PER_REV));
+        assertArrayEquals(new int[] {0}, slots(planner));
+        assertEquals(96.0, planner.getTotalTicks(), 0.0);
+    }
+
+    @Test
+    public void tiesKeepTheLowestSlotFirst() {
+        ShotOrderPlanner planner = new ShotOrderPlanner(3);
+        // Slots 0 and 2 are both 96 ticks from slot 1's preset
+        assertTrue(planner.plan(new int[] {G, P, G}, PRESETS, 96.0, new int[] {G}, 1, 0.0));
+        assertArrayEquals(new int[] {0}, slots(planner));
+        assertEquals(96.0, planner.getTotalTicks(), 0.0);
+
+        // Same with the colors swapped around, so the result is not an accident of slot order
+        assertTrue(planner.plan(new int[] {P, G, P}, PRESETS, 96.0, new int[] {P, G}, 2, 0.0));
+        // 0, 1 = 96 + 96 and 2, 1 = 96 + 96 tie
+        assertArrayEquals(new int[] {0, 1}, slots(planner));
+    }
+
+    @Test
+    public void missingColorFailsAndClearsThePlan() {
+        ShotOrderPlanner planner = new ShotOrderPlanner(3);
+        assertTrue(planner.plan(new int[] {P, P, G}, PRESETS, 0.0, new int[] {G}, 1, 0.0));
+        assertEquals(1, planner.getCount());
+
+        // Two greens wanted, one loaded
+        assertFalse(planner.plan(new int[] {P, P, G}, PRESETS, 0.0, new int[] {G, P, G}, 3, 0.0));
+        assertEquals(0, planner.getCount());
+        assertTrue(Double.isNaN(planner.getTotalTicks()));
+
+        // A color no slot holds (e.g. an empty or unknown reading)
+        assertFalse(planner.plan(new int[] {0, 0, 0}, PRESETS, 0.0, new int[] {P}, 1, TICKS_PER_REV));
+        assertEquals(0, planner.getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void moreShotsThanSlotsIsRejected() {
+        new ShotOrderPlanner(3).plan(new int[] {P, P, P}, PRESETS, 0.0, new int[] {P, P, P, P}, 4, 0.0);
+    }
+
+    @Test
+    public void pruningMatchesBruteForce() {
+        // Branch-and-bound must never cut off the optimum: compare against every permutation
+        Random random = new Random(24);
+        ShotOrderPlanner planner = new ShotOrderPlanner(3);
+        int[][] orders = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        for (int trial = 0; trial < 2000; trial++) {
+            int[] colors = new int[3];
+            int[] presets = new int[3];
+            for (int i = 0; i < 3; i++) {
+                colors[i] = 1 + random.nextInt(2);
+                presets[i] = random.nextInt(600) - 300;
+            }
+            int length = 1 + random.nextInt(3);
+            int[] sequence = new int[length];
+            for (int i = 0; i < length; i++) sequence[i] = 1 + random.nextInt(2);
+            double start = random.nextInt(600) - 300;
+            double ticksPerRev = random.nextBoolean() ? TICKS_PER_REV : 0.0;
+
+            double best = Double.POSITIVE_INFINITY;
+            for (int[] order : orders) {
+                double position = start;
+                double ticks = 0.0;
+                boolean ok = true;
+                for (int d = 0; d < length && ok; d++) {
+                    int s = order[d];
+                    ok = colors[s] == sequence[d];
+                    double delta = presets[s] - position;
+                    if (ticksPerRev > 0) delta -= ticksPerRev * Math.round(delta / ticksPerRev);
+                    position += delta;
+                    ticks += Math.abs(delta);
+                }
+                if (ok) best = Math.min(best, ticks);
+            }
+
+            boolean planned = planner.plan(colors, presets, start, sequence, length, ticksPerRev);
+            assertEquals("trial " + trial, best != Double.POSITIVE_INFINITY, planned);
+            if (planned) {
+                assertEquals("trial " + trial, best, planner.getTotalTicks(), 1e-9);
+                boolean[] seen = new boolean[3];
+                for (int d = 0; d < length; d++) {
+                    int s = planner.getSlot(d);
+                    assertFalse("slot reused", seen[s]);
+                    seen[s] = true;
+                    assertEquals(sequence[d], colors[s]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.util.Allocations;
+import org.junit.Test;
+
+public class ShotSolverTest {
+    // 0.3 s to leave the shooter, then ~200 in/s horizontally
+    private static double tof(double rangeIn) {
+        return 0.3 + rangeIn / 200.0;
+    }
+
+    @Test
+    public void stationaryRobotAimsAtTheGoal() {
+        ShotSolver solver = new ShotSolver(ShotSolverTest::tof);
+        assertTrue(solver.solve(10.0, 20.0, 0.0, 0.0, 130.0, 110.0));
+        assertEquals(130.0, solver.getVirtualX(), 0.0);
+        assertEquals(110.0, solver.getVirtualY(), 0.0);
+        assertEquals(150.0, solver.getRange(), 1e-9);
+        assertEquals(tof(150.0), solver.getTimeOfFlight(), 1e-12);
+        assertEquals(1, solver.getIterations());
+    }
+
+    @Test
+    public void movingRobotLeadsWithinTolerance() {
+        ShotSolver solver = new ShotSolver(ShotSolverTest::tof);
+        double vx = 40.0, vy = -25.0, goalX = 120.0, goalY = 100.0;
+        assertTrue(solver.solve(0.0, 0.0, vx, vy, goalX, goalY));
+        assertTrue(solver.getIterations() <= 8);
+
+        // Fixed point: aiming at the virtual goal, the ball drifts v * t onto the real goal
+        double t = tof(Math.hypot(solver.getVirtualX(), solver.getVirtualY()));
+        assertEquals(goalX, solver.getVirtualX() + vx * t, 0.1);
+        assertEquals(goalY, solver.getVirtualY() + vy * t, 0.1);
+        assertEquals(Math.hypot(solver.getVirtualX(), solver.getVirtualY()), solver.getRange(), 1e-9);
+    }
+
+    @Test
+    public void robotFasterThanTheBallDoesNotConverge() {
+        // 50 in/s ball, robot backing away at 120 in/s: each iterate moves further than the last
+        ShotSolver solver = new ShotSolver(range -> range / 50.0);
+        assertFalse(solver.solve(0.0, 0.0, -120.0, 0.0, 100.0, 0.0));
+        assertFalse(solver.isConverged());
+        assertEquals(solver.maxIterations, solver.getIterations());
+    }
+
+    @Test
+    public void solveDoesNotAllocate() {
+        // Per-call time is measured by ControlBenchmarks.shotSolve, not here
+        ShotSolver solver = new ShotSolver(ShotSolverTest::tof);
+        Runnable call = () -> solver.solve(12.0, 30.0, 35.0, -20.0, 130.0, 110.0);
+        assertEquals(0.0, Allocations.perCall(call, 100_000), 1.0);
+        assertTrue(solver.isConverged());
+    }
+}
@@ -0,0 +1,52 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SlewRateLimiterTest {
+    private static final long DT = 20_000_000L; // 20 ms
+    private static final double EPS = 1e-12;
+
+    @Test
+    public void movesAtMostRateTimesDt() {
+        SlewRateLimiter slew = new SlewRateLimiter(10.0);
+        assertEquals(0.2, slew.calculate(5.0, DT), EPS);
+        assertEquals(0.4, slew.calculate(5.0, DT), EPS);
+        assertEquals(0.2, slew.calculate(-5.0, DT), EPS);
+    }
+
+    @Test
+    public void reachesTargetWithoutOvershoot() {
+        SlewRateLimiter slew = new SlewRateLimiter(10.0, 0.95);
+        assertEquals(1.0, slew.calculate(1.0, DT), EPS);
+        assertEquals(1.0, slew.calculate(1.0, DT), EPS);
+    }
+
+    @Test
+    public void nonPositiveDtHoldsTheValue() {
+        SlewRateLimiter slew = new SlewRateLimiter(10.0, 2.0);
+        assertEquals(2.0, slew.calculate(5.0, 0L), EPS);
+        assertEquals(2.0, slew.calculate(5.0, -DT), EPS);
+    }
+
+    @Test
+    public void infiniteRatePassesTargetThroughForAnyDt() {
+        SlewRateLimiter slew = new SlewRateLimiter(Double.POSITIVE_INFINITY);
+        assertEquals(5.0, slew.calculate(5.0, DT), EPS);
+        assertEquals(-3.0, slew.calculate(-3.0, 0L), EPS);
+    }
+
+    @Test
+    public void negativeRateIsTreatedAsItsMagnitude() {
+        SlewRateLimiter slew = new SlewRateLimiter(-10.0);
+        assertEquals(0.2, slew.calculate(5.0, DT), EPS);
+    }
+
+    @Test
+    public void resetJumpsToValue() {
+        SlewRateLimiter slew = new SlewRateLimiter(1.0);
+        slew.reset(4.0);
+        assertEquals(4.0, slew.get(), EPS);
+    }
+}
@@ -0,0 +1,85 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StateHistoryTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void lookupInterpolatesBetweenTheSamplesAroundTheTime() {
+        StateHistory history = new StateHistory(8, 2);
+        history.record(100 * MS, new double[] {0.0, 10.0});
+        history.record(110 * MS, new double[] {5.0, 10.0});
+        history.record(130 * MS, new double[] {25.0, -10.0});
+
+        double[] out = new double[2];
+        assertTrue(history.lookup(110 * MS, out));
+        assertEquals(5.0, out[0], 1e-12);
+        assertEquals(10.0, out[1], 1e-12);
+
+        // A quarter of the way from 110 to 130 ms
+        assertTrue(history.lookup(115 * MS, out));
+        assertEquals(10.0, out[0], 1e-12);
+        assertEquals(5.0, out[1], 1e-12);
+
+        assertTrue(history.lookup(102 * MS + MS / 2, out));
+        assertEquals(1.25, out[0], 1e-12);
+    }
+
+    @Test
+    public void angularSlotsInterpolateTheShortWayAround() {
+        StateHistory history = new StateHistory(4, 2);
+        history.setAngularRadians(1);
+        history.record(0L, new double[] {3.0, 3.0});
+        history.record(10 * MS, new double[] {-3.0, -3.0});
+
+        double[] out = new double[2];
+        history.lookup(5 * MS, out);
+        // Plain slot goes through 0; the angle crosses pi instead of sweeping back through 0
+        assertEquals(0.0, out[0], 1e-12);
+        assertEquals(Math.PI, Math.abs(out[1]), 1e-12);
+    }
+
+    @Test
+    public void timesOutsideTheBufferClampToTheEnds() {
+        StateHistory history = new StateHistory(3, 1);
+        double[] out = new double[1];
+        assertFalse(history.lookup(0L, out));
+
+        for (int i = 0; i < 5; i++) history.record(i * 10 * MS, new double[] {i});
+        // Samples 0 and 1 were overwritten; 2 is the oldest left
+        assertEquals(3, history.size());
+        assertEquals(20 * MS, history.getOldestTimeNanos());
+        assertEquals(40 * MS, history.getNewestTimeNanos());
+
+        assertTrue(history.lookup(5 * MS, out));
+        assertEquals(2.0, out[0], 0.0);
+        assertTrue(history.lookup(35 * MS, out));
+        assertEquals(3.5, out[0], 1e-12);
+        assertTrue(history.lookup(90 * MS, out));
+        assertEquals(4.0, out[0], 0.0);
+    }
+
+    @Test
+    public void outOfOrderSamplesAreDroppedAndClearEmpties() {
+        StateHistory history = new StateHistory(4, 1);
+        history.record(20 * MS, new double[] {2.0});
+        history.record(10 * MS, new double[] {1.0});
+        assertEquals(1, history.size());
+
+        double[] out = {-1.0};
+        history.lookup(10 * MS, out);
+        assertEquals(2.0, out[0], 0.0);
+
+        history.clear();
+        assertEquals(0, history.size());
+        assertEquals(0L, history.getNewestTimeNanos());
+        out[0] = -1.0;
+        assertFalse(history.lookup(20 * MS, out));
+        assertEquals(-1.0, out[0], 0.0);
+    }
+}
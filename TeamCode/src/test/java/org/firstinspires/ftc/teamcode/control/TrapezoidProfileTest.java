@@ -0,0 +1,97 @@
+package org.firstinspires.ftc.teamcode.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TrapezoidProfileTest {
+    private static final double V_MAX = 180.0;
+    private static final double A_MAX = 500.0;
+
+    /** Shortest continuous-time move over {@code distance}: triangle or trapezoid. */
+    private static double minimumTime(double distance, double vMax, double aMax) {
+        if (distance >= vMax * vMax / aMax) return distance / vMax + vMax / aMax;
+        return 2.0 * Math.sqrt(distance / aMax);
+    }
+
+    /** Run a rest-to-rest move; returns steps to finish after checking every bound on the way. */
+    private static int move(TrapezoidProfile profile, double start, double goal, double dt) {
+        String where = "move " + start + " -> " + goal + " at dt " + dt;
+        double sign = Math.signum(goal - start);
+        profile.reset(start, 0.0);
+        double limit = minimumTime(Math.abs(goal - start), profile.maxVelocity, profile.maxAcceleration) / dt + 3;
+        double prev = start;
+        int steps = 0;
+        while (!profile.isFinished(goal)) {
+            assertTrue(where + " did not finish", steps++ < limit);
+            profile.step(goal, dt);
+            double p = profile.getPosition();
+            // Never past the goal and never backwards
+            assertTrue(where + " overshot to " + p, (goal - p) * sign >= 0.0);
+            assertTrue(where + " reversed", (p - prev) * sign >= 0.0);
+            assertTrue(where, Math.abs(profile.getVelocity()) <= profile.maxVelocity + 1e-9);
+            assertTrue(where, Math.abs(profile.getAcceleration()) <= profile.maxAcceleration + 1e-6);
+            prev = p;
+        }
+        assertEquals(where, goal, profile.getPosition(), 0.0);
+        assertEquals(where, 0.0, profile.getVelocity(), 0.0);
+        return steps;
+    }
+
+    @Test
+    public void restToRestMovesStopExactlyOnTheGoalWithoutOvershoot() {
+        TrapezoidProfile profile = new TrapezoidProfile(V_MAX, A_MAX);
+        double[] dts = {0.005, 0.010, 0.015, 0.020, 0.025, 0.0137};
+        for (double dt : dts) {
+            for (double distance = 0.1; distance < 400.0; distance = distance * 1.3 + 0.7) {
+                move(profile, 10.0, 10.0 + distance, dt);
+                move(profile, 10.0, 10.0 - distance, dt);
+            }
+            move(profile, 0.0, 30.0, dt);
+            move(profile, 0.0, 90.0, dt);
+        }
+    }
+
+    @Test
+    public void indexerPresetMovesSettle() {
+        // The indexer profile: slot moves of 96 ticks and their multiples, at its own limits
+        TrapezoidProfile profile = new TrapezoidProfile(1500.0, 6000.0);
+        for (int ms = 5; ms <= 25; ms++) {
+            for (int slots = 1; slots <= 3; slots++) {
+                move(profile, 0.0, 96.0 * slots, ms / 1000.0);
+                move(profile, 96.0 * slots, 0.0, ms / 1000.0);
+            }
+        }
+    }
+
+    @Test
+    public void finishedMovesStayPutAndStartAgainOnANewGoal() {
+        TrapezoidProfile profile = new TrapezoidProfile(V_MAX, A_MAX);
+        move(profile, 0.0, 45.0, 0.01);
+        profile.step(45.0, 0.01);
+        assertTrue(profile.isFinished(45.0));
+        assertFalse(profile.isFinished(50.0));
+
+        // A goal change mid-move: continues from the current setpoint, no jump
+        profile.reset(0.0, 0.0);
+        for (int i = 0; i < 20; i++) profile.step(90.0, 0.01);
+        double p = profile.getPosition();
+        double v = profile.getVelocity();
+        profile.step(-20.0, 0.01);
+        assertEquals(p + profile.getVelocity() * 0.01, profile.getPosition(), 1e-9);
+        assertTrue(Math.abs(profile.getVelocity() - v) <= A_MAX * 0.01 + 1e-9);
+        for (int i = 0; i < 500 && !profile.isFinished(-20.0); i++) profile.step(-20.0, 0.01);
+        assertTrue(profile.isFinished(-20.0));
+    }
+
+    @Test
+    public void zeroDtIsIgnored() {
+        TrapezoidProfile profile = new TrapezoidProfile(V_MAX, A_MAX);
+        profile.reset(5.0, 0.0);
+        profile.step(100.0, 0.0);
+        assertEquals(5.0, profile.getPosition(), 0.0);
+        assertEquals(0.0, profile.getVelocity(), 0.0);
+    }
+}
@@ -0,0 +1,60 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.hardware.io.SimServoIO;
+import org.junit.Test;
+
+public class CachedServoTest {
+    // Slow enough that no move can finish while a test runs
+    private static final double CRAWL_UNITS_PER_SEC = 0.001;
+
+    @Test
+    public void coalescedWriteKeepsAnArrivedServoArrived() throws InterruptedException {
+        SimServoIO io = new SimServoIO();
+        CachedServo servo = new CachedServo(io);
+        servo.setSpeed(Double.POSITIVE_INFINITY); // arrival = settle time only
+        servo.setPosition(0.5);
+        Thread.sleep(50); // past the 20 ms settle
+
+        assertTrue(servo.isArrived());
+        servo.setPosition(0.5 + CachedServo.DEFAULT_POSITION_EPSILON / 2);
+        // Dropped: nothing was sent, so nothing started moving
+        assertEquals(0.5, io.getPosition(), 0.0);
+        assertEquals(0.5, servo.getPosition(), 0.0);
+        assertTrue(servo.isArrived());
+    }
+
+    @Test
+    public void coalescedWriteDoesNotRestartAMove() {
+        CachedServo servo = new CachedServo(new SimServoIO());
+        servo.setPosition(0.0);
+        servo.setSpeed(CRAWL_UNITS_PER_SEC);
+        servo.setPosition(0.5);
+        assertFalse(servo.isArrived());
+        double before = servo.estimatedPosition();
+
+        servo.setPosition(0.5 + CachedServo.DEFAULT_POSITION_EPSILON / 2);
+        // Still heading for 0.5 from 0.0, not re-started from the estimate
+        assertFalse(servo.isArrived());
+        assertEquals(0.5, servo.getPosition(), 0.0);
+        assertTrue(servo.estimatedPosition() >= before);
+        assertTrue(servo.estimatedPosition() < 0.01);
+    }
+
+    @Test
+    public void realWriteRestartsTheMove() throws InterruptedException {
+        CachedServo servo = new CachedServo(new SimServoIO());
+        servo.setSpeed(Double.POSITIVE_INFINITY);
+        servo.setPosition(0.2);
+        Thread.sleep(50);
+        assertTrue(servo.isArrived());
+
+        servo.setSpeed(CRAWL_UNITS_PER_SEC);
+        servo.setPosition(0.6);
+        assertFalse(servo.isArrived());
+        assertEquals(0.2, servo.estimatedPosition(), 0.01);
+    }
+}
@@ -0,0 +1,73 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SensorSamplerTest {
+    private static final class CountingSource implements SensorSampler.Source {
+        final AtomicInteger samples = new AtomicInteger();
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public void sample(double[] out) {
+            out[0] = samples.incrementAndGet();
+        }
+    }
+
+    private final SensorSampler sampler = new SensorSampler();
+
+    @After
+    public void tearDown() {
+        sampler.stop();
+    }
+
+    private static void waitFor(AtomicInteger count, int atLeast) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (count.get() < atLeast && System.nanoTime() < deadline) Thread.sleep(1);
+    }
+
+    @Test
+    public void disabledSourceIsNotSampledUntilEnabled() throws InterruptedException {
+        CountingSource paused = new CountingSource();
+        CountingSource always = new CountingSource();
+        SensorSnapshot pausedSnapshot = sampler.addSource(paused, 2, false);
+        sampler.addSource(always, 2);
+        sampler.start();
+
+        waitFor(always.samples, 10);
+        assertEquals(0, paused.samples.get());
+        assertEquals(0L, pausedSnapshot.getTimestampNanos());
+
+        sampler.setEnabled(pausedSnapshot, true);
+        waitFor(paused.samples, 3);
+        assertTrue(paused.samples.get() >= 3);
+        assertTrue(pausedSnapshot.getTimestampNanos() != 0L);
+    }
+
+    @Test
+    public void disablingStopsSamplingAndKeepsTheLastValue() throws InterruptedException {
+        CountingSource source = new CountingSource();
+        SensorSnapshot snapshot = sampler.addSource(source, 2);
+        sampler.start();
+        waitFor(source.samples, 3);
+
+        sampler.setEnabled(snapshot, false);
+        Thread.sleep(10); // let an in-flight pass finish
+        int stoppedAt = source.samples.get();
+        Thread.sleep(30);
+        assertEquals(stoppedAt, source.samples.get());
+
+        double[] out = new double[1];
+        snapshot.read(out);
+        assertEquals(stoppedAt, out[0], 0.0);
+    }
+}
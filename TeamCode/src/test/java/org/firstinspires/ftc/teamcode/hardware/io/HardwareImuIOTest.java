@@ -0,0 +1,32 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AngularVelocity;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+import org.junit.Test;
+
+public class HardwareImuIOTest {
+    @Test
+    public void readsYawAndYawRateInRadians() {
+        IMU imu = mock(IMU.class);
+        // The IMU reports in degrees here; the wrapper must ask for radians
+        when(imu.getRobotYawPitchRollAngles())
+                .thenReturn(new YawPitchRollAngles(AngleUnit.DEGREES, 90.0, 5.0, -5.0, 0L));
+        when(imu.getRobotAngularVelocity(AngleUnit.RADIANS))
+                .thenReturn(new AngularVelocity(AngleUnit.RADIANS, 0.1f, 0.2f, 1.5f, 0L));
+
+        HardwareImuIO io = new HardwareImuIO(imu);
+        assertEquals(Math.PI / 2, io.getHeadingRadians(), 1e-9);
+        assertEquals(1.5, io.getYawRateRadiansPerSec(), 1e-6);
+
+        io.resetYaw();
+        verify(imu).resetYaw();
+    }
+}
@@ -0,0 +1,36 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SimImuIOTest {
+    @Test
+    public void headingIntegratesYawRateAndWraps() {
+        SimImuIO imu = new SimImuIO();
+        imu.setYawRateRadiansPerSec(1.0);
+        for (int i = 0; i < 100; i++) imu.update(0.01);
+        assertEquals(1.0, imu.getHeadingRadians(), 1e-9);
+        assertEquals(1.0, imu.getYawRateRadiansPerSec(), 0.0);
+
+        // Past +pi comes back in from -pi, like the hub IMU's yaw
+        imu.setHeadingRadians(Math.PI - 0.1);
+        imu.update(0.3);
+        assertEquals(-Math.PI + 0.2, imu.getHeadingRadians(), 1e-9);
+
+        imu.setYawRateRadiansPerSec(-2.0);
+        imu.update(0.2);
+        assertEquals(Math.PI - 0.2, imu.getHeadingRadians(), 1e-9);
+    }
+
+    @Test
+    public void resetYawZeroesHeadingButKeepsTurning() {
+        SimImuIO imu = new SimImuIO();
+        imu.setHeadingRadians(2.0);
+        imu.setYawRateRadiansPerSec(0.5);
+        imu.resetYaw();
+        assertEquals(0.0, imu.getHeadingRadians(), 0.0);
+        imu.update(1.0);
+        assertEquals(0.5, imu.getHeadingRadians(), 1e-12);
+    }
+}
@@ -0,0 +1,52 @@
+package org.firstinspires.ftc.teamcode.hardware.io;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs an OpMode-style loop against sim motors on the host JVM with a simulated clock. Each step
+ * advances the clock and every sim motor by exactly one loop period, so results do not depend on
+ * how fast the host runs. Subsystems read the clock through {@link #getNanos()}, e.g.
+ * {@code loop.step(() -> turret.update(loop.getNanos()))}.
+ */
+public class SimLoop {
+    private final SimMotorIO[] motors;
+    private final long periodNanos;
+    private final double periodSec;
+    // Starts away from 0, which subsystems read as "no previous loop"
+    private long nanos = 1_000_000_000L;
+    private double elapsedSec = 0.0;
+
+    public SimLoop(double periodMs, SimMotorIO... motors) {
+        this.motors = motors;
+        this.periodNanos = Math.round(periodMs * 1e6);
+        this.periodSec = periodNanos / 1e9;
+    }
+
+    /** Advance one loop period, step the sims, then run {@code body} (the OpMode's loop()). */
+    public void step(Runnable body) {
+        nanos += periodNanos;
+        elapsedSec += periodSec;
+        for (SimMotorIO motor : motors) motor.update(periodSec);
+        body.run();
+    }
+
+    /** Step until {@code done} holds or {@code timeoutSec} of loop time passes; true if done. */
+    public boolean runUntil(BooleanSupplier done, Runnable body, double timeoutSec) {
+        double end = elapsedSec + timeoutSec;
+        while (elapsedSec < end) {
+            step(body);
+            if (done.getAsBoolean()) return true;
+        }
+        return false;
+    }
+
+    /** Simulated loop timestamp, System.nanoTime() style. */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /** Loop time simulated so far, seconds. */
+    public double getElapsedSec() {
+        return elapsedSec;
+    }
+}
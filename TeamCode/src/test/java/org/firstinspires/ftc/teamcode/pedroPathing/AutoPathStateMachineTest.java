@@ -0,0 +1,204 @@
+package org.firstinspires.ftc.teamcode.pedroPathing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.pedropathing.follower.Follower;
+import com.pedropathing.geometry.Pose;
+import com.pedropathing.paths.PathChain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutoPathStateMachineTest {
+    private final List<String> log = new ArrayList<>();
+    private final PathChain first = mock(PathChain.class);
+    private final PathChain second = mock(PathChain.class);
+    private Follower follower;
+
+    // What the mocked follower reports; tests move the robot by changing these
+    private boolean busy;
+    private int chainIndex;
+    private double t;
+    private double remaining;
+    private double x;
+    private double y;
+
+    @Before
+    public void setUp() {
+        follower = mock(Follower.class);
+        Pose pose = mock(Pose.class);
+        when(pose.getX()).thenAnswer(call -> x);
+        when(pose.getY()).thenAnswer(call -> y);
+        when(follower.getPose()).thenReturn(pose);
+        when(follower.isBusy()).thenAnswer(call -> busy);
+        when(follower.getChainIndex()).thenAnswer(call -> chainIndex);
+        when(follower.getCurrentTValue()).thenAnswer(call -> t);
+        when(follower.getDistanceRemaining()).thenAnswer(call -> remaining);
+        busy = true;
+        remaining = 100.0;
+        x = -50.0;
+        y = -50.0;
+    }
+
+    private Runnable record(String name) {
+        return () -> log.add(name);
+    }
+
+    private void assertFired(String... names) {
+        assertEquals(Arrays.asList(names), log);
+    }
+
+    @Test
+    public void thresholdEventsFireInThresholdOrderAndTiesInAddOrder() {
+        AutoPathStateMachine auto = new AutoPathStateMachine(follower)
+                .add(first)
+                .atT(0.8, record("t0.8"))
+                .atT(0.2, record("t0.2a"))
+                .atT(1.5, record("t1.5"))
+                .atT(0.2, record("t0.2b"))
+                .atDistanceRemaining(10.0, record("d10"))
+                .atDistanceRemaining(30.0, record("d30"));
+        auto.start();
+        verify(follower).followPath(first);
+
+        t = 0.1;
+        auto.update();
+        assertFired();
+
+        t = 0.5;
+        remaining = 20.0;
+        auto.update();
+        assertFired("t0.2a", "t0.2b", "d30");
+
+        t = 0.9;
+        auto.update();
+        assertFired("t0.2a", "t0.2b", "d30", "t0.8");
+
+        // t counts segments: 0.5 into the chain's second path is 1.5
+        chainIndex = 1;
+        t = 0.5;
+        remaining = 10.0;
+        auto.update();
+        assertFired("t0.2a", "t0.2b", "d30", "t0.8", "t1.5", "d10");
+        assertEquals(AutoPathStateMachine.State.RUNNING, auto.getState());
+    }
+
+    @Test
+    public void finishFlushesPendingThresholdsButNotRegions() {
+        AutoPathStateMachine auto = new AutoPathStateMachine(follower)
+                .add(first)
+                .atTime(100.0, record("time"))
+                .atDistanceRemaining(2.0, record("d2"))
+                .atT(0.9, record("t0.9"))
+                .atT(0.5, record("t0.5"))
+                .onEnterRegion(0.0, 0.0, 10.0, 10.0, record("region"))
+                .add(second);
+        auto.start();
+
+        t = 0.6;
+        auto.update();
+        assertFired("t0.5");
+
+        // The follower finishes short of every other threshold; they fire now, kind by kind
+        busy = false;
+        auto.update();
+        assertFired("t0.5", "t0.9", "d2", "time");
+        assertEquals(1, auto.getIndex());
+        verify(follower).followPath(second);
+
+        // The region belonged to the first path; entering it now does nothing
+        busy = true;
+        x = 5.0;
+        y = 5.0;
+        auto.update();
+        busy = false;
+        auto.update();
+        assertFired("t0.5", "t0.9", "d2", "time");
+        assertTrue(auto.isComplete());
+    }
+
+    @Test
+    public void regionFiresOnceOnEntryNotOnReentry() {
+        AutoPathStateMachine auto = new AutoPathStateMachine(follower)
+                .add(first)
+                // Corners in either order describe the same rectangle
+                .onEnterRegion(10.0, 10.0, 0.0, 0.0, record("near"))
+                .onEnterRegion(20.0, 0.0, 30.0, 10.0, record("far"));
+        auto.start();
+
+        auto.update();
+        assertFired();
+
+        x = 5.0;
+        y = 5.0;
+        auto.update();
+        auto.update();
+        assertFired("near");
+
+        // Leave and come back: still once
+        x = 15.0;
+        auto.update();
+        x = 5.0;
+        auto.update();
+        assertFired("near");
+
+        x = 25.0;
+        auto.update();
+        assertFired("near", "far");
+    }
+
+    @Test
+    public void resetRewindsEventsSoARestartFiresThemAgain() {
+        AutoPathStateMachine auto = new AutoPathStateMachine(follower)
+                .add(first)
+                .atT(0.5, record("t"))
+                .onEnterRegion(0.0, 0.0, 10.0, 10.0, record("region"))
+                .add(second)
+                .atDistanceRemaining(5.0, record("d"));
+        auto.start();
+
+        // Stop partway through the first path, after both of its events fired
+        t = 0.6;
+        x = 5.0;
+        y = 5.0;
+        auto.update();
+        assertFired("t", "region");
+
+        auto.reset();
+        assertEquals(AutoPathStateMachine.State.IDLE, auto.getState());
+        assertEquals(-1, auto.getIndex());
+        auto.update();
+        assertFired("t", "region");
+
+        auto.start();
+        verify(follower, times(2)).followPath(first);
+        auto.update();
+        assertFired("t", "region", "t", "region");
+
+        busy = false;
+        auto.update();
+        busy = true;
+        remaining = 4.0;
+        auto.update();
+        busy = false;
+        auto.update();
+        assertFired("t", "region", "t", "region", "d");
+        assertTrue(auto.isComplete());
+
+        // A finished run restarts the same way
+        auto.reset();
+        busy = true;
+        auto.start();
+        auto.update();
+        assertFired("t", "region", "t", "region", "d", "t", "region");
+    }
+}
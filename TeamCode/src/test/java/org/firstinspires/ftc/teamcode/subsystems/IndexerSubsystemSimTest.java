@@ -0,0 +1,236 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.command.Command;
+import org.firstinspires.ftc.teamcode.command.CommandScheduler;
+import org.firstinspires.ftc.teamcode.command.InstantCommand;
+import org.firstinspires.ftc.teamcode.command.SequentialCommandGroup;
+import org.firstinspires.ftc.teamcode.hardware.io.SimLoop;
+import org.firstinspires.ftc.teamcode.hardware.io.SimMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.SimServoIO;
+import org.firstinspires.ftc.teamcode.hardware.io.SimTouchSensorIO;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexerSubsystemSimTest {
+    // ~12 V / kV free speed, light carousel, static friction matching kS
+    private static final double FREE_SPEED_TICKS_PER_SEC = 2800.0;
+    private static final double TIME_CONSTANT_SEC = 0.05;
+    private static final double FRICTION_POWER = IndexerSubsystem.kS / 12.0;
+    private static final double LOOP_MS = 10.0;
+
+    private SimMotorIO motor;
+    private SimServoIO lever;
+    private IndexerSubsystem indexer;
+    private SimLoop loop;
+
+    @Before
+    public void setUp() {
+        setUp(LOOP_MS);
+    }
+
+    private void setUp(double loopMs) {
+        motor = new SimMotorIO(FREE_SPEED_TICKS_PER_SEC, TIME_CONSTANT_SEC, FRICTION_POWER);
+        lever = new SimServoIO();
+        indexer = new IndexerSubsystem(motor, lever, null);
+        loop = new SimLoop(loopMs, motor);
+    }
+
+    private void update() {
+        indexer.update(loop.getNanos());
+    }
+
+    /** Shortest move the profile allows over {@code ticks}, seconds. */
+    private static double profileTimeSec(double ticks) {
+        double v = IndexerSubsystem.maxVelTicksPerSec;
+        double a = IndexerSubsystem.maxAccelTicksPerSec2;
+        return ticks >= v * v / a ? ticks / v + v / a : 2.0 * Math.sqrt(ticks / a);
+    }
+
+    @Test
+    public void settlesOnCollectionPreset() {
+        indexer.setCollectionSelection(IndexerSubsystem.Selection.POSITION_1);
+        loop.step(this::update);
+        assertFalse(indexer.isSettled());
+
+        assertTrue("did not settle", loop.runUntil(indexer::isSettled, this::update, 3.0));
+        assertEquals(IndexerSubsystem.COLLECTION_1, indexer.getCurrentPosition(),
+                IndexerSubsystem.settleToleranceTicks);
+    }
+
+    @Test
+    public void settlesOnEachShootingPresetInTurn() {
+        for (IndexerSubsystem.Selection slot : IndexerSubsystem.Selection.values()) {
+            indexer.setSelection(slot);
+            assertTrue(slot + " did not settle", loop.runUntil(indexer::isSettled, this::update, 3.0));
+            assertEquals(slot, indexer.getSelection());
+            assertEquals(indexer.getTargetPosition(), indexer.getCurrentPosition(),
+                    IndexerSubsystem.settleToleranceTicks);
+        }
+    }
+
+    @Test
+    public void slotMovesSettleWithoutOvershootAtRealLoopRates() {
+        IndexerSubsystem.Selection[] moves = {
+                IndexerSubsystem.Selection.POSITION_3, // 0 -> 94
+                IndexerSubsystem.Selection.POSITION_2, // 94 -> 192
+                IndexerSubsystem.Selection.POSITION_1  // 192 -> 0
+        };
+        for (double loopMs : new double[] {10.0, 15.0, 20.0}) {
+            setUp(loopMs);
+            for (IndexerSubsystem.Selection slot : moves) {
+                String where = slot + " at " + loopMs + " ms";
+                int start = indexer.getCurrentPosition();
+                indexer.setSelection(slot);
+                int goal = indexer.getTargetPosition();
+                double sign = Math.signum(goal - start);
+                double[] overshoot = {0.0};
+                double startSec = loop.getElapsedSec();
+
+                assertTrue(where + " did not settle", loop.runUntil(indexer::isSettled, () -> {
+                    update();
+                    overshoot[0] = Math.max(overshoot[0], (indexer.getCurrentPosition() - goal) * sign);
+                }, 1.5));
+
+                // A slot is ~96 ticks wide: half the settle tolerance keeps it well presented,
+                // and settling follows the profile instead of waiting out the macro timeout
+                assertTrue(where + " overshot " + overshoot[0],
+                        overshoot[0] <= IndexerSubsystem.settleToleranceTicks / 2);
+                double settleSec = loop.getElapsedSec() - startSec;
+                assertTrue(where + " settled in " + settleSec,
+                        settleSec <= profileTimeSec(Math.abs(goal - start)) + 0.1);
+            }
+        }
+    }
+
+    @Test
+    public void holdsPositionOnceSettled() {
+        indexer.setSelection(IndexerSubsystem.Selection.POSITION_2);
+        assertTrue(loop.runUntil(indexer::isSettled, this::update, 3.0));
+        // Another half second of loops must not drift or start hunting
+        assertFalse(loop.runUntil(() -> !indexer.isSettled(), this::update, 0.5));
+    }
+
+    @Test
+    public void waitingLeverPulseIsDroppedWhenTheGateIsDisarmed() {
+        boolean[] ready = {false};
+        boolean[] armed = {true};
+        indexer.setFeedGate(() -> ready[0], () -> armed[0]);
+        double idle = lever.getPosition();
+        CommandScheduler scheduler = new CommandScheduler();
+
+        scheduler.schedule(indexer.getLeverPulse());
+        for (int i = 0; i < 5; i++) scheduler.run();
+        assertTrue(indexer.getLeverPulse().isScheduled());
+
+        // Flywheel switched off before it got to speed: its coast-down must not open the gate
+        armed[0] = false;
+        ready[0] = true;
+        scheduler.run();
+        assertFalse(indexer.getLeverPulse().isScheduled());
+        assertEquals(idle, lever.getPosition(), 0.0);
+    }
+
+    @Test
+    public void leverPulseFiresWhenTheGateOpens() {
+        boolean[] ready = {false};
+        indexer.setFeedGate(() -> ready[0], () -> true);
+        double idle = lever.getPosition();
+        CommandScheduler scheduler = new CommandScheduler();
+
+        scheduler.schedule(indexer.getLeverPulse());
+        scheduler.run();
+        assertEquals(idle, lever.getPosition(), 0.0);
+        ready[0] = true;
+        scheduler.run();
+        assertNotEquals(idle, lever.getPosition(), 0.0);
+    }
+
+    @Test
+    public void pulseInsideAMacroCountsAsPulsing() {
+        CommandScheduler scheduler = new CommandScheduler();
+        double idle = lever.getPosition();
+        Command macro = new SequentialCommandGroup(new InstantCommand(null), indexer.createLeverPulse())
+                .requires(indexer, indexer.getLeverRequirement());
+
+        scheduler.schedule(macro);
+        scheduler.run();
+        assertTrue(indexer.isLeverPulsing());
+        double engaged = lever.getPosition();
+        assertNotEquals(idle, engaged, 0.0);
+
+        // Neither a new lever cap nor the lever button may pull the stroke back mid-way
+        indexer.setLeverMax(0.7);
+        assertEquals(engaged, lever.getPosition(), 0.0);
+        indexer.handleLeverButton(scheduler, true);
+        assertFalse(indexer.getLeverPulse().isScheduled());
+        assertTrue(macro.isScheduled());
+        assertTrue(indexer.getStatus().contains("leverPulsing=true"));
+
+        scheduler.cancel(macro);
+        assertFalse(indexer.isLeverPulsing());
+        assertEquals(idle, lever.getPosition(), 0.0);
+    }
+
+    /**
+     * Turn the carousel by hand from {@code from} to {@code to} in {@code step}-tick loops, with
+     * the magnet switch closed within 15 ticks of {@code magnetAtTicks} (encoder frame).
+     */
+    private void sweep(SimTouchSensorIO magnet, int magnetAtTicks, int from, int to, int step) {
+        int dir = to > from ? step : -step;
+        for (int ticks = from; dir > 0 ? ticks <= to : ticks >= to; ticks += dir) {
+            motor.setPositionTicks(ticks);
+            magnet.setPressed(Math.abs(ticks - magnetAtTicks) <= 15);
+            indexer.update(loop.getNanos());
+        }
+    }
+
+    @Test
+    public void magnetHomingFindsTheOffsetOnceInBothDirections() {
+        SimTouchSensorIO magnet = new SimTouchSensorIO();
+        indexer = new IndexerSubsystem(motor, lever, magnet);
+        int nominal = IndexerSubsystem.POSITION_2;
+        // The carousel powered up 20 ticks off: magnet 1 (nominally 0) reads at encoder 20
+        int magnetAt = IndexerSubsystem.magnetPosition1 + 20;
+
+        sweep(magnet, magnetAt, -60, 100, 3);
+        assertEquals(20, indexer.getMagnetOffset());
+
+        // Back over it, then more passes: the offset is re-measured, not added again
+        sweep(magnet, magnetAt, 99, -60, 3);
+        assertEquals(20, indexer.getMagnetOffset());
+        // Coarser steps interpolate the edges to within a tick; repeats must not drift further
+        for (int pass = 0; pass < 5; pass++) {
+            sweep(magnet, magnetAt, -60, 100, 7);
+            sweep(magnet, magnetAt, 100, -60, 5);
+            assertTrue("pass " + pass + ": " + indexer.getMagnetOffset(),
+                    Math.abs(indexer.getMagnetOffset() - 20) <= 1);
+        }
+
+        // Presets move with the offset; the configured values stay put
+        int offset = indexer.getMagnetOffset();
+        assertEquals(nominal, IndexerSubsystem.POSITION_2);
+        assertEquals(nominal + offset, indexer.getShootingPresetTicks(IndexerSubsystem.Selection.POSITION_2));
+        indexer.setSelection(IndexerSubsystem.Selection.POSITION_2);
+        assertEquals(nominal + offset, indexer.getTargetPosition());
+
+        // Magnet 2 gives the same answer
+        sweep(magnet, IndexerSubsystem.magnetPosition2 + 20, 150, 250, 4);
+        assertEquals(20, indexer.getMagnetOffset());
+    }
+
+    @Test
+    public void magnetFarFromWhereItIsExpectedIsIgnored() {
+        SimTouchSensorIO magnet = new SimTouchSensorIO();
+        indexer = new IndexerSubsystem(motor, lever, magnet);
+        // 96 ticks off (a whole slot) is outside approxEncoderAccuracy of either magnet
+        sweep(magnet, IndexerSubsystem.magnetPosition1 + 96, 0, 150, 3);
+        assertEquals(0, indexer.getMagnetOffset());
+        assertEquals(IndexerSubsystem.POSITION_1,
+                indexer.getShootingPresetTicks(IndexerSubsystem.Selection.POSITION_1));
+    }
+}
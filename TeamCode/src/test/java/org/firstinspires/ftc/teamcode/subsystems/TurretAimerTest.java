@@ -0,0 +1,96 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.pedropathing.geometry.Pose;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TurretAimerTest {
+    private static final long LOOP_NANOS = 2_000_000L; // 500 Hz, the fastest loop the history is sized for
+    private static final long START_NANOS = 1_000_000_000L;
+
+    private TurretAimer aimer;
+    private Pose pose;
+
+    // What the mocked turret and pose report; the loop below moves them with time
+    private double turretDeg;
+    private double heading;
+    private long nanos;
+
+    @Before
+    public void setUp() {
+        TurretSubsystem turret = mock(TurretSubsystem.class);
+        when(turret.getTurretAngleDeg()).thenAnswer(call -> turretDeg);
+        pose = mock(Pose.class);
+        when(pose.getX()).thenReturn(0.0);
+        when(pose.getY()).thenReturn(0.0);
+        when(pose.getHeading()).thenAnswer(call -> heading);
+        aimer = new TurretAimer(turret, 100.0, 0.0);
+        nanos = START_NANOS;
+    }
+
+    private static double sec(long nanos) {
+        return (nanos - START_NANOS) / 1e9;
+    }
+
+    /** Record one second of 500 Hz loops with the turret and heading ramping at the given rates. */
+    private void run(double turretDegPerSec, double headingRadPerSec) {
+        for (int i = 0; i < 500; i++) {
+            nanos += LOOP_NANOS;
+            turretDeg = turretDegPerSec * sec(nanos);
+            heading = headingRadPerSec * sec(nanos);
+            aimer.record(pose, nanos);
+        }
+    }
+
+    @Test
+    public void historyIsSizedFromFrameLatencyAndLoopRate() {
+        // 250 ms at 500 Hz is 125 loop periods: 126 samples so the oldest frame has both neighbours
+        assertEquals(126, TurretAimer.historySize(0.25, 500.0));
+        assertEquals(6, TurretAimer.historySize(0.1, 50.0));
+        assertEquals(4, TurretAimer.historySize(0.1, 25.5));
+    }
+
+    @Test
+    public void frameIsEvaluatedAgainstTheTurretAngleWhenItWasCaptured() {
+        run(100.0, 0.0);
+        // Robot still, so the goal direction hasn't moved: the answer is the turret angle then
+        // minus the bearing. 101.3 ms falls between loop samples and is interpolated.
+        long frame = nanos - 101_300_000L;
+        assertEquals(100.0 * sec(frame), aimer.projectTargetDeg(frame, 0.0), 1e-9);
+        assertEquals(100.0 * sec(frame) - 4.0, aimer.projectTargetDeg(frame, 4.0), 1e-9);
+
+        aimer.setBearingSign(-1.0);
+        assertEquals(100.0 * sec(frame) + 4.0, aimer.projectTargetDeg(frame, 4.0), 1e-9);
+
+        // No acquisition time: treated as a frame from this loop
+        assertEquals(turretDeg + 4.0, aimer.projectTargetDeg(0L, 4.0), 1e-9);
+    }
+
+    @Test
+    public void robotTurnSinceTheFrameIsAddedToTheMeasurement() {
+        run(0.0, 1.0);
+        // Turret held at 0; the robot turned 0.1 rad CCW since the frame, so the goal is that
+        // much further clockwise in the robot frame than the camera saw it
+        long frame = nanos - 100_000_000L;
+        assertEquals(-3.0 - Math.toDegrees(0.1), aimer.projectTargetDeg(frame, 3.0), 1e-9);
+    }
+
+    @Test
+    public void framesOlderThanTheHistoryClampToTheOldestSample() {
+        run(100.0, 0.0);
+        // The oldest sample is exactly 250 ms back at 500 Hz, so that frame still resolves
+        long oldest = nanos - 250_000_000L;
+        assertEquals(100.0 * sec(oldest), aimer.projectTargetDeg(oldest, 0.0), 1e-9);
+        assertEquals(100.0 * sec(oldest), aimer.projectTargetDeg(nanos - 400_000_000L, 0.0), 1e-9);
+        assertEquals(100.0 * sec(oldest), aimer.projectTargetDeg(START_NANOS, 0.0), 1e-9);
+
+        // Cleared history falls back to the latest state
+        aimer.clearHistory();
+        assertEquals(turretDeg, aimer.projectTargetDeg(nanos - 100_000_000L, 0.0), 1e-9);
+    }
+}
@@ -0,0 +1,100 @@
+package org.firstinspires.ftc.teamcode.subsystems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.hardware.CachedMotor;
+import org.firstinspires.ftc.teamcode.hardware.io.SimLoop;
+import org.firstinspires.ftc.teamcode.hardware.io.SimMotorIO;
+import org.firstinspires.ftc.teamcode.hardware.io.SimServoIO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TurretSubsystemSimTest {
+    private static final double TICKS_PER_DEG = 537.7 * 4.0 / 360.0;
+    // Motor matching the tuned feedforward: 12 V / kV free speed, time constant kA / kV
+    private static final double FREE_SPEED_TICKS_PER_SEC = 12.0 / TurretSubsystem.kV * TICKS_PER_DEG;
+    private static final double TIME_CONSTANT_SEC = TurretSubsystem.kA / TurretSubsystem.kV;
+    private static final double FRICTION_POWER = TurretSubsystem.kS / 12.0;
+    private static final double LOOP_MS = 10.0;
+    // TurretSubsystem's default maxPower, less the write epsilon (CachedMotor drops smaller steps,
+    // so a clipped command can show up just under the clip)
+    private static final double SATURATED_POWER = 0.6 - CachedMotor.DEFAULT_POWER_EPSILON;
+
+    private final double savedMaxVel = TurretSubsystem.maxVelDegPerSec;
+    private final double savedMaxAccel = TurretSubsystem.maxAccelDegPerSec2;
+
+    private SimMotorIO motor;
+    private TurretSubsystem turret;
+    private SimLoop loop;
+    private double peakPower;
+
+    @Before
+    public void setUp() {
+        setUp(LOOP_MS);
+    }
+
+    private void setUp(double loopMs) {
+        motor = new SimMotorIO(FREE_SPEED_TICKS_PER_SEC, TIME_CONSTANT_SEC, FRICTION_POWER);
+        turret = new TurretSubsystem(motor, new SimServoIO());
+        loop = new SimLoop(loopMs, motor);
+        peakPower = 0.0;
+    }
+
+    @After
+    public void tearDown() {
+        TurretSubsystem.maxVelDegPerSec = savedMaxVel;
+        TurretSubsystem.maxAccelDegPerSec2 = savedMaxAccel;
+    }
+
+    private void update() {
+        turret.update(loop.getNanos());
+        peakPower = Math.max(peakPower, Math.abs(motor.getPower()));
+    }
+
+    @Test
+    public void defaultProfileNeverSaturatesMaxPower() {
+        turret.setTargetAngleDeg(120.0);
+        assertTrue("did not arrive", loop.runUntil(() -> turret.isAtTarget(2.0), this::update, 4.0));
+        assertEquals(120.0, turret.getTurretAngleDeg(), 2.0);
+        assertTrue("peak power " + peakPower, peakPower < SATURATED_POWER);
+    }
+
+    @Test
+    public void limitsBeyondMaxPowerAreScaledDown() {
+        TurretSubsystem.maxVelDegPerSec = 1000.0;
+        TurretSubsystem.maxAccelDegPerSec2 = 5000.0;
+        turret.setTargetAngleDeg(-150.0);
+        assertTrue("did not arrive", loop.runUntil(() -> turret.isAtTarget(2.0), this::update, 4.0));
+        assertTrue("peak power " + peakPower, peakPower < SATURATED_POWER);
+    }
+
+    @Test
+    public void movesArriveWithoutOvershootAtRealLoopRates() {
+        double v = TurretSubsystem.maxVelDegPerSec;
+        double a = TurretSubsystem.maxAccelDegPerSec2;
+        for (double loopMs : new double[] {10.0, 15.0, 20.0}) {
+            setUp(loopMs);
+            for (double goal : new double[] {30.0, 120.0, 30.0}) {
+                String where = "to " + goal + " at " + loopMs + " ms";
+                double start = turret.getTurretAngleDeg();
+                double sign = Math.signum(goal - start);
+                double distance = Math.abs(goal - start);
+                double[] overshoot = {0.0};
+                double startSec = loop.getElapsedSec();
+                turret.setTargetAngleDeg(goal);
+
+                assertTrue(where + " did not arrive", loop.runUntil(() -> turret.isAtTarget(1.0), () -> {
+                    update();
+                    overshoot[0] = Math.max(overshoot[0], (turret.getTurretAngleDeg() - goal) * sign);
+                }, 3.0));
+
+                assertTrue(where + " overshot " + overshoot[0], overshoot[0] <= 1.0);
+                double profileSec = distance >= v * v / a ? distance / v + v / a : 2.0 * Math.sqrt(distance / a);
+                double settleSec = loop.getElapsedSec() - startSec;
+                assertTrue(where + " arrived in " + settleSec, settleSec <= profileSec + 0.15);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread while running a block, for zero-allocation checks on
+ * loop code. Uses HotSpot's per-thread allocation counter, which host unit tests run on.
+ */
+public final class Allocations {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {}
+
+    /**
+     * Average bytes allocated per call of {@code block}, after a warm-up that lets buffers reach
+     * their steady-state size and the JIT compile the code. The counter's own overhead is spread
+     * over the iterations, so anything that allocates per call shows up as >= 16 bytes.
+     */
+    public static double perCall(Runnable block, int iterations) {
+        for (int i = 0; i < iterations; i++) block.run();
+        long id = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(id);
+        for (int i = 0; i < iterations; i++) block.run();
+        long after = THREADS.getThreadAllocatedBytes(id);
+        return (double) (after - before) / iterations;
+    }
+}
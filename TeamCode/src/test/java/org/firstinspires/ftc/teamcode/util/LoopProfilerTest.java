@@ -0,0 +1,96 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.teamcode.util.LoopProfiler.Phase;
+import org.junit.Test;
+
+public class LoopProfilerTest {
+    private static long ms(double ms) {
+        return Math.round(ms * 1e6);
+    }
+
+    /** 98 loops at 1 ms, one at 5 ms, one at 80 ms (past the 50 ms histogram range). */
+    private static void feed(LoopProfiler profiler, Phase phase) {
+        for (int i = 0; i < 98; i++) profiler.record(phase, ms(1.0));
+        profiler.record(phase, ms(5.0));
+        profiler.record(phase, ms(80.0));
+    }
+
+    @Test
+    public void percentilesReportTheUpperEdgeOfTheirBucket() {
+        LoopProfiler profiler = new LoopProfiler();
+        feed(profiler, Phase.DRIVE);
+
+        // 0.1 ms buckets: 1.0 ms lands in [1.0, 1.1), 5.0 ms in [5.0, 5.1)
+        assertEquals(1.1, profiler.getPercentileMs(Phase.DRIVE, 0.50), 1e-9);
+        assertEquals(1.1, profiler.getPercentileMs(Phase.DRIVE, 0.95), 1e-9);
+        assertEquals(5.1, profiler.getPercentileMs(Phase.DRIVE, 0.99), 1e-9);
+        // The overflow bucket has no edge: the exact max stands in for it
+        assertEquals(80.0, profiler.getPercentileMs(Phase.DRIVE, 1.0), 1e-9);
+        assertEquals(80.0, profiler.getMaxMs(Phase.DRIVE), 1e-9);
+    }
+
+    @Test
+    public void phasesAreKeptApart() {
+        LoopProfiler profiler = new LoopProfiler();
+        feed(profiler, Phase.DRIVE);
+        for (int i = 0; i < 10; i++) profiler.record(Phase.TURRET, ms(0.25));
+
+        assertEquals(0.3, profiler.getPercentileMs(Phase.TURRET, 0.99), 1e-9);
+        assertEquals(0.25, profiler.getMaxMs(Phase.TURRET), 1e-9);
+        assertEquals(80.0, profiler.getMaxMs(Phase.DRIVE), 1e-9);
+        // Nothing recorded: 0, not NaN
+        assertEquals(0.0, profiler.getPercentileMs(Phase.INTAKE, 0.5), 0.0);
+        assertEquals(0.0, profiler.getMaxMs(Phase.INTAKE), 0.0);
+    }
+
+    @Test
+    public void lapsChargeEachPhaseAndTheLoopCoversThemAll() {
+        LoopProfiler profiler = new LoopProfiler();
+        profiler.beginLoop();
+        profiler.lap(Phase.DRIVE);
+        profiler.lap(Phase.TURRET);
+        profiler.endLoop();
+
+        double drive = profiler.getMaxMs(Phase.DRIVE);
+        double turret = profiler.getMaxMs(Phase.TURRET);
+        // Laps split the loop; the loop total can only be longer than their sum
+        assertTrue(profiler.getMaxMs(Phase.LOOP) >= drive + turret);
+        assertEquals(0.0, profiler.getMaxMs(Phase.INTAKE), 0.0);
+    }
+
+    @Test
+    public void resetClearsEveryPhase() {
+        LoopProfiler profiler = new LoopProfiler();
+        feed(profiler, Phase.DRIVE);
+        feed(profiler, Phase.LOOP);
+        profiler.reset();
+
+        for (Phase phase : Phase.values()) {
+            assertEquals(phase.name(), 0.0, profiler.getPercentileMs(phase, 0.99), 0.0);
+            assertEquals(phase.name(), 0.0, profiler.getMaxMs(phase), 0.0);
+        }
+
+        // Counting restarts: only post-reset samples shape the percentiles
+        for (int i = 0; i < 4; i++) profiler.record(Phase.DRIVE, ms(2.0));
+        assertEquals(2.1, profiler.getPercentileMs(Phase.DRIVE, 0.99), 1e-9);
+        assertEquals(2.0, profiler.getMaxMs(Phase.DRIVE), 1e-9);
+
+        // endLoop() without a beginLoop() since the reset records nothing
+        profiler.endLoop();
+        assertEquals(0.0, profiler.getMaxMs(Phase.LOOP), 0.0);
+    }
+
+    @Test
+    public void disabledProfilerIgnoresLaps() {
+        LoopProfiler profiler = new LoopProfiler();
+        profiler.setEnabled(false);
+        profiler.beginLoop();
+        profiler.lap(Phase.DRIVE);
+        profiler.endLoop();
+        assertEquals(0.0, profiler.getMaxMs(Phase.DRIVE), 0.0);
+        assertEquals(0.0, profiler.getMaxMs(Phase.LOOP), 0.0);
+    }
+}
@@ -0,0 +1,109 @@
+package org.firstinspires.ftc.teamcode.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.firstinspires.ftc.robotcore.external.Func;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+public class TelemetryFormatterTest {
+    /** Records the last value set, like the SDK's retained items. */
+    private static class FakeItem implements Telemetry.Item {
+        Object value;
+        int sets;
+
+        @Override public String getCaption() { return ""; }
+        @Override public Telemetry.Item setCaption(String caption) { return this; }
+        @Override public Telemetry.Item setValue(String format, Object... args) { return this; }
+        @Override public Telemetry.Item setValue(Object value) { this.value = value; sets++; return this; }
+        @Override public <T> Telemetry.Item setValue(Func<T> valueProducer) { return this; }
+        @Override public <T> Telemetry.Item setValue(String format, Func<T> valueProducer) { return this; }
+        @Override public Telemetry.Item setRetained(Boolean retained) { return this; }
+        @Override public boolean isRetained() { return true; }
+        @Override public Telemetry.Item addData(String caption, String format, Object... args) { return this; }
+        @Override public Telemetry.Item addData(String caption, Object value) { return this; }
+        @Override public <T> Telemetry.Item addData(String caption, Func<T> valueProducer) { return this; }
+        @Override public <T> Telemetry.Item addData(String caption, String format, Func<T> valueProducer) { return this; }
+    }
+
+    private final FakeItem item = new FakeItem();
+    private TelemetryFormatter formatter;
+
+    @Before
+    public void setUp() {
+        // Only addData (init) and clear/setAutoClear are called on the Telemetry itself
+        Telemetry telemetry = (Telemetry) Proxy.newProxyInstance(
+                Telemetry.class.getClassLoader(), new Class<?>[] {Telemetry.class},
+                (proxy, method, args) -> method.getName().equals("addData") ? item : null);
+        formatter = new TelemetryFormatter(telemetry);
+    }
+
+    private static String fixed(double value, int decimals) {
+        return TelemetryFormatter.appendFixed(new StringBuilder(), value, decimals).toString();
+    }
+
+    @Test
+    public void appendFixedMatchesStringFormat() {
+        double[] values = {0.0, 1.0, -1.0, 0.5, 2.675, -0.004, 123.456, 1e-9, 4000.4999, -273.15};
+        for (double v : values) {
+            for (int d = 0; d <= 4; d++) {
+                String expected = String.format("%." + d + "f", v);
+                if (expected.matches("-0\\.?0*")) expected = expected.substring(1);
+                assertEquals(v + " @" + d, expected, fixed(v, d));
+            }
+        }
+        assertEquals("NaN", fixed(Double.NaN, 2));
+        assertEquals("-Inf", fixed(Double.NEGATIVE_INFINITY, 2));
+    }
+
+    @Test
+    public void appendLongMatchesLongToString() {
+        long[] values = {0, 7, -7, 10, 99, 100, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long v : values) {
+            assertEquals(Long.toString(v), TelemetryFormatter.appendLong(new StringBuilder(), v).toString());
+        }
+    }
+
+    @Test
+    public void commitOnlyPublishesChanges() {
+        TelemetryFormatter.Field field = formatter.field("Test");
+        field.begin().append("a=1");
+        assertTrue(field.commit());
+        field.begin().append("a=1");
+        assertFalse(field.commit());
+        assertEquals(1, item.sets);
+        assertEquals("a=1", field.getText().toString());
+    }
+
+    @Test
+    public void appendHelpersDoNotAllocate() {
+        StringBuilder sb = new StringBuilder(64);
+        double perCall = Allocations.perCall(() -> {
+            sb.setLength(0);
+            TelemetryFormatter.appendFixed(sb, -1234.5678, 3);
+            sb.append(' ');
+            TelemetryFormatter.appendLong(sb, 9876543210L);
+        }, 20_000);
+        assertEquals(0.0, perCall, 1.0);
+    }
+
+    @Test
+    public void fieldUpdateDoesNotAllocate() {
+        TelemetryFormatter.Field field = formatter.field("Loop");
+        long[] loop = {0};
+        // Text changes every call, so every commit copies and republishes
+        double perCall = Allocations.perCall(() -> {
+            formatter.beginFrame();
+            StringBuilder sb = field.begin().append("loop=");
+            TelemetryFormatter.appendLong(sb, loop[0]++).append(" dt=");
+            TelemetryFormatter.appendFixed(sb, 12.345, 2);
+            field.commit();
+        }, 20_000);
+        assertEquals(0.0, perCall, 1.0);
+    }
+}